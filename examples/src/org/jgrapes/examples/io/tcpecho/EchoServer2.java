@@ -30,7 +30,6 @@ import org.jgrapes.io.IOSubchannel;
 import org.jgrapes.io.NioDispatcher;
 import org.jgrapes.io.events.Input;
 import org.jgrapes.io.events.Output;
-import org.jgrapes.io.util.ManagedBuffer;
 import org.jgrapes.net.SocketServer;
 
 /**
@@ -71,9 +70,9 @@ public class EchoServer2 extends Component {
     @Handler
     public void onRead(Input<ByteBuffer> event, IOSubchannel channel)
             throws InterruptedException {
-        ManagedBuffer<ByteBuffer> out = channel.byteBufferPool().acquire();
-        out.backingBuffer().put(event.buffer().backingBuffer());
-        channel.respond(Output.fromSink(out, event.isEndOfRecord()));
+        // Echo the received data without copying it
+        channel.respond(Output.fromSource(event.buffer().slice(),
+            event.isEndOfRecord()));
     }
 
     /**
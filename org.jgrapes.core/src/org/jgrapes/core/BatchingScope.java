@@ -0,0 +1,54 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.core;
+
+/**
+ * {@link HandlerScope} implementations that support the definition
+ * of batch handlers implement this interface. A batch handler is
+ * not invoked for each event. Rather, the matching events are 
+ * accumulated until {@link #batchSize()} events have been collected 
+ * or the oldest collected event has waited for {@link #batchWindow()}
+ * milliseconds. The handler is then invoked once with the 
+ * accumulated events as a {@link java.util.List}.
+ * 
+ * The handling of an event is suspended (see 
+ * {@link Event#suspendHandling()}) while the event is waiting for
+ * its batch to be delivered. Any remaining handlers for the event 
+ * are invoked after the batch handler has returned. Each event
+ * therefore completes only after its batch has been processed.
+ */
+public interface BatchingScope {
+
+    /**
+     * The maximum number of events passed to the handler in a
+     * single invocation. A value less than or equal to zero
+     * indicates that the handler is not a batch handler.
+     *
+     * @return the batch size
+     */
+    int batchSize();
+
+    /**
+     * The maximum time in milliseconds that an event waits 
+     * for its batch to be completed.
+     *
+     * @return the window
+     */
+    long batchWindow();
+}
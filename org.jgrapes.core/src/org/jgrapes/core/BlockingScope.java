@@ -0,0 +1,41 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.core;
+
+/**
+ * {@link HandlerScope} implementations that support the definition
+ * of blocking handlers implement this interface. A blocking handler
+ * is not invoked by the thread of the event pipeline that
+ * dispatches the event. Rather, the handling of the event is
+ * suspended (see {@link Event#suspendHandling()}) and the invocation
+ * of the handler is passed to the {@link Bulkhead} with the
+ * name returned by {@link #bulkhead()}. The handling of the event
+ * is resumed when the handler returns.
+ */
+public interface BlockingScope {
+
+    /**
+     * The name of the bulkhead used to invoke the handler.
+     * An empty string indicates that the handler is not a 
+     * blocking handler.
+     *
+     * @return the name
+     */
+    String bulkhead();
+}
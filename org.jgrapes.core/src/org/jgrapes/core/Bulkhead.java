@@ -0,0 +1,390 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+
+/**
+ * A named executor with a bounded number of threads and a bounded
+ * queue. Bulkheads are used to execute handlers that block (see 
+ * {@link org.jgrapes.core.annotation.Handler#bulkhead()}) without 
+ * stalling the event pipeline that dispatches the events.
+ * 
+ * A bulkhead is created with {@link #define(String, int, int)} 
+ * or, using default values, when it is first looked up with 
+ * {@link #get(String)}. The state of all bulkheads is reported as
+ * MXBean.
+ */
+@SuppressWarnings("PMD.ClassWithOnlyPrivateConstructorsShouldBeFinal")
+public class Bulkhead {
+
+    /** The default maximum number of threads. */
+    public static final int DEFAULT_THREADS = 8;
+    /** The default maximum number of queued tasks. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    private static Map<String, Bulkhead> bulkheads
+        = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final AtomicInteger threadCount = new AtomicInteger();
+    @SuppressWarnings("PMD.AvoidUsingVolatile")
+    private volatile int maximumThreads;
+    @SuppressWarnings("PMD.AvoidUsingVolatile")
+    private volatile int queueCapacity;
+    @SuppressWarnings("PMD.AvoidUsingVolatile")
+    private volatile ThreadPoolExecutor executor;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private Bulkhead(String name, int maximumThreads, int queueCapacity) {
+        this.name = name;
+        configure(maximumThreads, queueCapacity);
+    }
+
+    /**
+     * Creates a new executor with the given limits. The previous
+     * executor (if any) completes the tasks that are already 
+     * running or queued and terminates.
+     *
+     * @param maximumThreads the maximum number of threads
+     * @param queueCapacity the maximum number of queued tasks
+     */
+    private synchronized void configure(int maximumThreads,
+            int queueCapacity) {
+        ThreadPoolExecutor previous = executor;
+        this.maximumThreads = maximumThreads;
+        this.queueCapacity = queueCapacity;
+        ThreadPoolExecutor created = new ThreadPoolExecutor(maximumThreads,
+            maximumThreads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread
+                    = Executors.defaultThreadFactory().newThread(runnable);
+                thread.setName("Bulkhead-" + name + "-"
+                    + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        created.allowCoreThreadTimeOut(true);
+        executor = created;
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Defines a bulkhead with the given name. If a bulkhead with 
+     * the same name exists already, it is reconfigured with the
+     * new limits. Tasks that are already running or queued are 
+     * completed, new tasks are executed with the new limits. 
+     * References to the bulkhead obtained before remain valid.
+     *
+     * @param name the name
+     * @param maximumThreads the maximum number of threads
+     * @param queueCapacity the maximum number of queued tasks
+     * @return the bulkhead
+     */
+    @SuppressWarnings("PMD.AccessorClassGeneration")
+    public static Bulkhead define(String name, int maximumThreads,
+            int queueCapacity) {
+        boolean[] created = new boolean[1];
+        Bulkhead bulkhead = bulkheads.computeIfAbsent(name, key -> {
+            created[0] = true;
+            return new Bulkhead(key, maximumThreads, queueCapacity);
+        });
+        if (!created[0]) {
+            bulkhead.configure(maximumThreads, queueCapacity);
+        }
+        return bulkhead;
+    }
+
+    /**
+     * Returns the bulkhead with the given name. If no such
+     * bulkhead has been defined, a bulkhead with 
+     * {@link #DEFAULT_THREADS} and {@link #DEFAULT_QUEUE_CAPACITY}
+     * is created.
+     *
+     * @param name the name
+     * @return the bulkhead
+     */
+    @SuppressWarnings("PMD.AccessorClassGeneration")
+    public static Bulkhead get(String name) {
+        return bulkheads.computeIfAbsent(name, key -> new Bulkhead(key,
+            DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY));
+    }
+
+    /**
+     * Returns the name.
+     *
+     * @return the name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Executes the given task using one of the bulkhead's threads.
+     *
+     * @param task the task
+     * @return `false` if the task has been rejected because the 
+     * bulkhead's queue is full
+     */
+    public boolean execute(Runnable task) {
+        Runnable counted = () -> {
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+                completed.incrementAndGet();
+            }
+        };
+        while (true) {
+            ThreadPoolExecutor current = executor;
+            try {
+                current.execute(counted);
+                return true;
+            } catch (RejectedExecutionException e) {
+                if (current != executor) {
+                    // Reconfigured meanwhile, retry with new executor
+                    continue;
+                }
+                rejected.incrementAndGet();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tasks being executed.
+     *
+     * @return the value
+     */
+    public int active() {
+        return active.get();
+    }
+
+    /**
+     * Returns the number of tasks waiting for execution.
+     *
+     * @return the value
+     */
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the number of tasks that have been rejected.
+     *
+     * @return the value
+     */
+    public long rejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Returns the number of tasks that have been executed.
+     *
+     * @return the value
+     */
+    public long completed() {
+        return completed.get();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(50);
+        builder.append("Bulkhead [name=").append(name)
+            .append(", active=").append(active.get())
+            .append(", queued=").append(queued())
+            .append(", rejected=").append(rejected.get())
+            .append(']');
+        return builder.toString();
+    }
+
+    /**
+     * An MBean interface for getting information about a bulkhead.
+     */
+    public interface BulkheadMXBean {
+
+        /**
+         * Gets the name.
+         *
+         * @return the name
+         */
+        String getName();
+
+        /**
+         * Gets the maximum number of threads.
+         *
+         * @return the maximum threads
+         */
+        int getMaximumThreads();
+
+        /**
+         * Gets the queue capacity.
+         *
+         * @return the queue capacity
+         */
+        int getQueueCapacity();
+
+        /**
+         * Gets the number of tasks being executed.
+         *
+         * @return the active tasks
+         */
+        int getActive();
+
+        /**
+         * Gets the number of queued tasks.
+         *
+         * @return the queued tasks
+         */
+        int getQueued();
+
+        /**
+         * Gets the number of rejected tasks.
+         *
+         * @return the rejected tasks
+         */
+        long getRejected();
+
+        /**
+         * Gets the number of executed tasks.
+         *
+         * @return the completed tasks
+         */
+        long getCompleted();
+    }
+
+    /**
+     * An MBean interface for getting information about all bulkheads.
+     */
+    public interface BulkheadsMXBean {
+
+        /**
+         * Gets the bulkheads.
+         *
+         * @return the bulkheads
+         */
+        Map<String, BulkheadMXBean> getBulkheads();
+    }
+
+    /**
+     * The MBean view of a bulkhead.
+     */
+    private static class BulkheadInfo implements BulkheadMXBean {
+
+        private final Bulkhead bulkhead;
+
+        /**
+         * Instantiates a new bulkhead info.
+         *
+         * @param bulkhead the bulkhead
+         */
+        public BulkheadInfo(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public String getName() {
+            return bulkhead.name;
+        }
+
+        @Override
+        public int getMaximumThreads() {
+            return bulkhead.maximumThreads;
+        }
+
+        @Override
+        public int getQueueCapacity() {
+            return bulkhead.queueCapacity;
+        }
+
+        @Override
+        public int getActive() {
+            return bulkhead.active();
+        }
+
+        @Override
+        public int getQueued() {
+            return bulkhead.queued();
+        }
+
+        @Override
+        public long getRejected() {
+            return bulkhead.rejected();
+        }
+
+        @Override
+        public long getCompleted() {
+            return bulkhead.completed();
+        }
+    }
+
+    /**
+     * The MBean view.
+     */
+    private static class MBeanView implements BulkheadsMXBean {
+
+        @Override
+        @SuppressWarnings("PMD.UseConcurrentHashMap")
+        public Map<String, BulkheadMXBean> getBulkheads() {
+            Map<String, BulkheadMXBean> result = new TreeMap<>();
+            for (Bulkhead bulkhead : bulkheads.values()) {
+                result.put(bulkhead.name, new BulkheadInfo(bulkhead));
+            }
+            return result;
+        }
+    }
+
+    static {
+        try {
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            ObjectName mxbeanName = new ObjectName("org.jgrapes.core:type="
+                + Bulkhead.class.getSimpleName() + "s");
+            mbs.registerMBean(new MBeanView(), mxbeanName);
+        } catch (MalformedObjectNameException | InstanceAlreadyExistsException
+                | MBeanRegistrationException | NotCompliantMBeanException e) {
+            // Does not happen
+        }
+    }
+}
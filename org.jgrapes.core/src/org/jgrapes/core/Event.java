@@ -22,17 +22,16 @@ import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.BiConsumer;
+import org.jgrapes.core.events.Expired;
 import org.jgrapes.core.events.HandlingError;
+import org.jgrapes.core.internal.Associations;
 import org.jgrapes.core.internal.EventBase;
 
 /**
@@ -60,7 +59,7 @@ public class Event<T> extends EventBase<T> {
     /** The results of handling the event (if any). */
     private List<T> results;
     /** Context data. */
-    private Map<Object, Object> contextData;
+    private volatile Object[] contextData;
     private boolean cancelled;
 
     /**
@@ -126,6 +125,18 @@ public class Event<T> extends EventBase<T> {
             new HandlingError(this, throwable), channels());
     }
 
+    /**
+     * Implements the default behavior for events that have not
+     * been handled because their deadline had passed. Fires an
+     * {@link Expired} event for this event.
+     * 
+     * @see #setDeadline(java.time.Instant)
+     */
+    @Override
+    protected void expired(EventPipeline eventProcessor) {
+        eventProcessor.fire(new Expired(this), channels());
+    }
+
     /**
      * Sets the channels that the event is fired on if no channels
      * are specified explicitly when firing the event
@@ -193,29 +204,6 @@ public class Event<T> extends EventBase<T> {
             .forEach(c -> handler.accept((E) this, (C) c));
     }
 
-    /**
-     * Returns the events to be thrown when this event has completed
-     * (see {@link #isDone()}).
-     * 
-     * @return the completed events
-     */
-    public Set<Event<?>> completionEvents() {
-        return completionEvents == null ? Collections.emptySet()
-            : Collections.unmodifiableSet(completionEvents);
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Event<T> addCompletionEvent(Event<?> completionEvent) {
-        if (completionEvents == null) {
-            completionEvents = new HashSet<>();
-        }
-        completionEvents.add(completionEvent);
-        return this;
-    }
-
     /*
      * (non-Javadoc)
      * 
@@ -230,7 +218,8 @@ public class Event<T> extends EventBase<T> {
      * Check if this event has completed. An event is completed
      * if 
      *  * all its handlers have been invoked (or the event has
-     *    been stopped or cancelled), 
+     *    been stopped, cancelled or has expired, see 
+     *    {@link #isExpired()}), 
      *  * all events caused by it have completed,
      *  * no {@link CompletionLock}s remain, and  
      *  * a result has been set (only required if 
@@ -478,13 +467,8 @@ public class Event<T> extends EventBase<T> {
     @Override
     @SuppressWarnings("PMD.ShortVariable")
     public Event<T> setAssociated(Object by, Object with) {
-        if (contextData == null) {
-            contextData = new ConcurrentHashMap<>();
-        }
-        if (with == null) {
-            contextData.remove(by);
-        } else {
-            contextData.put(by, with);
+        synchronized (this) {
+            contextData = Associations.put(contextData, by, with);
         }
         return this;
     }
@@ -492,12 +476,7 @@ public class Event<T> extends EventBase<T> {
     @Override
     @SuppressWarnings("PMD.ShortVariable")
     public <V> Optional<V> associated(Object by, Class<V> type) {
-        if (contextData == null) {
-            return Optional.empty();
-        }
-        return Optional.ofNullable(contextData.get(by))
-            .filter(found -> type.isAssignableFrom(found.getClass()))
-            .map(match -> type.cast(match));
+        return Associations.get(contextData, by, type);
     }
 
     /*
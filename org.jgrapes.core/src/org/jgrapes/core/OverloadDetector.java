@@ -0,0 +1,334 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.core;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import org.jgrapes.core.annotation.Handler;
+import org.jgrapes.core.events.Overloaded;
+import org.jgrapes.core.events.Recovered;
+import org.jgrapes.core.events.Start;
+import org.jgrapes.core.events.Stop;
+import org.jgrapes.core.internal.EventProcessor;
+
+/**
+ * A component that monitors the load of all event pipelines.
+ * The detector periodically samples the number of queued events 
+ * and the maximum time that an event has waited in a queue before
+ * its handlers were invoked. 
+ * 
+ * If the total number of queued events or the maximum queue wait
+ * time exceeds the respective upper threshold, an {@link Overloaded} 
+ * event is fired on the detector's channel. A {@link Recovered}
+ * event is fired when both values have dropped below the lower
+ * thresholds. The gap between the upper and the lower thresholds
+ * prevents the state from flipping with every sample.
+ * 
+ * Optionally, the same evaluation can be applied to the individual
+ * pipelines (see {@link #setPipelineThresholds}). The events fired
+ * for individual pipelines provide the pipeline as property.
+ * 
+ * The events are fired on a dedicated event pipeline, so that they
+ * are delivered even if the component tree's pipeline is congested.
+ * 
+ * By default, the detector evaluates the load of all pipelines
+ * in the VM. A different source of load information can be set
+ * with {@link #setLoadSource(LoadSource)}, e.g. for testing.
+ */
+@SuppressWarnings("PMD.DataflowAnomalyAnalysis")
+public class OverloadDetector extends Component {
+
+    private Duration sampleInterval = Duration.ofMillis(100);
+    private final Thresholds global = new Thresholds(
+        10_000, 5000, Duration.ofSeconds(1), Duration.ofMillis(200));
+    private final Thresholds perPipeline = new Thresholds(
+        0, 0, Duration.ZERO, Duration.ZERO);
+    private boolean overloaded;
+    @SuppressWarnings("PMD.UseConcurrentHashMap")
+    private final Map<EventPipeline, Boolean> overloadedPipelines
+        = new WeakHashMap<>();
+    private LoadSource loadSource
+        = consumer -> EventProcessor.sampleLoad(consumer::accept);
+    private EventPipeline pipeline;
+    private Components.Timer timer;
+
+    /**
+     * Provides the load information evaluated by the detector.
+     */
+    @FunctionalInterface
+    public interface LoadSource {
+
+        /**
+         * Passes the load information of all executing pipelines
+         * to the given consumer and starts a new sampling period.
+         *
+         * @param consumer the consumer
+         * @return the maximum queue wait time in nanoseconds of the 
+         * pipelines that have become idle since the previous sample
+         */
+        long sample(LoadConsumer consumer);
+    }
+
+    /**
+     * Receives the load information from a {@link LoadSource}.
+     */
+    @FunctionalInterface
+    public interface LoadConsumer {
+
+        /**
+         * Invoked with the load information of an executing pipeline.
+         *
+         * @param pipeline the pipeline
+         * @param queued the number of queued events
+         * @param maxQueueWait the maximum time in nanoseconds that an
+         * event has waited in the pipeline's queue since the previous 
+         * sample
+         */
+        void accept(EventPipeline pipeline, int queued, long maxQueueWait);
+    }
+
+    /**
+     * Upper and lower thresholds for queue depth and queue wait time.
+     */
+    private static class Thresholds {
+        private int highQueued;
+        private int lowQueued;
+        private long highWait;
+        private long lowWait;
+
+        private Thresholds(int highQueued, int lowQueued,
+                Duration highWait, Duration lowWait) {
+            set(highQueued, lowQueued, highWait, lowWait);
+        }
+
+        private void set(int highQueued, int lowQueued,
+                Duration highWait, Duration lowWait) {
+            if (lowQueued > highQueued || lowWait.compareTo(highWait) > 0) {
+                throw new IllegalArgumentException(
+                    "Lower threshold must not exceed upper threshold.");
+            }
+            this.highQueued = highQueued;
+            this.lowQueued = lowQueued;
+            this.highWait = highWait.toNanos();
+            this.lowWait = lowWait.toNanos();
+        }
+
+        private boolean exceeded(int queued, long wait) {
+            return highQueued > 0 && queued >= highQueued
+                || highWait > 0 && wait >= highWait;
+        }
+
+        private boolean recovered(int queued, long wait) {
+            return (highQueued <= 0 || queued <= lowQueued)
+                && (highWait <= 0 || wait <= lowWait);
+        }
+    }
+
+    /**
+     * Creates a new detector that uses itself as channel.
+     */
+    public OverloadDetector() {
+        super();
+    }
+
+    /**
+     * Creates a new detector that fires its events on the
+     * given channel.
+     *
+     * @param componentChannel the component channel
+     */
+    public OverloadDetector(Channel componentChannel) {
+        super(componentChannel);
+    }
+
+    /**
+     * Sets the interval between two samples. Defaults to 100 ms.
+     *
+     * @param interval the interval
+     * @return the overload detector for easy chaining
+     */
+    public OverloadDetector setSampleInterval(Duration interval) {
+        sampleInterval = interval;
+        return this;
+    }
+
+    /**
+     * Returns the sample interval.
+     *
+     * @return the interval
+     */
+    public Duration sampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * Sets the source of the load information. Defaults to a 
+     * source that provides the load of all pipelines in the VM.
+     *
+     * @param source the source
+     * @return the overload detector for easy chaining
+     */
+    public OverloadDetector setLoadSource(LoadSource source) {
+        synchronized (this) {
+            loadSource = source;
+        }
+        return this;
+    }
+
+    /**
+     * Sets the thresholds for the global state. Defaults are 10000 
+     * and 5000 events for the total number of queued events and 
+     * one second and 200 ms for the maximum queue wait time. Setting
+     * an upper threshold to zero disables the respective criterion.
+     *
+     * @param highQueued the upper threshold for queued events
+     * @param lowQueued the lower threshold for queued events
+     * @param highWait the upper threshold for the queue wait time
+     * @param lowWait the lower threshold for the queue wait time
+     * @return the overload detector for easy chaining
+     */
+    public OverloadDetector setGlobalThresholds(int highQueued,
+            int lowQueued, Duration highWait, Duration lowWait) {
+        synchronized (this) {
+            global.set(highQueued, lowQueued, highWait, lowWait);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the thresholds for individual pipelines. By default, all
+     * thresholds are zero, i.e. the evaluation of individual pipelines
+     * is disabled. 
+     *
+     * @param highQueued the upper threshold for queued events
+     * @param lowQueued the lower threshold for queued events
+     * @param highWait the upper threshold for the queue wait time
+     * @param lowWait the lower threshold for the queue wait time
+     * @return the overload detector for easy chaining
+     */
+    public OverloadDetector setPipelineThresholds(int highQueued,
+            int lowQueued, Duration highWait, Duration lowWait) {
+        synchronized (this) {
+            perPipeline.set(highQueued, lowQueued, highWait, lowWait);
+        }
+        return this;
+    }
+
+    /**
+     * Returns `true` if the global state is overloaded.
+     *
+     * @return the state
+     */
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+
+    /**
+     * Starts sampling.
+     *
+     * @param event the event
+     */
+    @Handler
+    public void onStart(Start event) {
+        synchronized (this) {
+            if (pipeline == null) {
+                pipeline = newEventPipeline();
+            }
+            if (timer == null) {
+                timer = Components.schedule(this::sample, sampleInterval);
+            }
+        }
+    }
+
+    /**
+     * Stops sampling.
+     *
+     * @param event the event
+     */
+    @Handler
+    public void onStop(Stop event) {
+        synchronized (this) {
+            if (timer != null) {
+                timer.cancel();
+                timer = null;
+            }
+        }
+    }
+
+    @SuppressWarnings("PMD.CognitiveComplexity")
+    private void sample(Components.Timer expired) {
+        synchronized (this) {
+            if (timer != expired) { // NOPMD, comparing references
+                return;
+            }
+            boolean checkPipelines
+                = perPipeline.highQueued > 0 || perPipeline.highWait > 0;
+            Set<EventPipeline> busy = new HashSet<>();
+            // Total queued and maximum wait of executing pipelines
+            long[] totals = new long[2];
+            long idleWait = loadSource.sample((pipe, queued, wait) -> {
+                totals[0] += queued;
+                totals[1] = Math.max(totals[1], wait);
+                if (checkPipelines) {
+                    busy.add(pipe);
+                    evaluate(pipe, queued, wait);
+                }
+            });
+            // Pipelines that have become idle have recovered.
+            for (Iterator<EventPipeline> iter
+                = overloadedPipelines.keySet().iterator(); iter.hasNext();) {
+                EventPipeline pipe = iter.next();
+                if (!busy.contains(pipe)) {
+                    iter.remove();
+                    pipeline.fire(new Recovered(pipe, 0, Duration.ZERO),
+                        channel());
+                }
+            }
+            int queued = (int) Math.min(Integer.MAX_VALUE, totals[0]);
+            long maxWait = Math.max(totals[1], idleWait);
+            if (!overloaded && global.exceeded(queued, maxWait)) {
+                overloaded = true;
+                pipeline.fire(new Overloaded(null, queued,
+                    Duration.ofNanos(maxWait)), channel());
+            } else if (overloaded && global.recovered(queued, maxWait)) {
+                overloaded = false;
+                pipeline.fire(new Recovered(null, queued,
+                    Duration.ofNanos(maxWait)), channel());
+            }
+            timer.reschedule(sampleInterval);
+        }
+    }
+
+    private void evaluate(EventPipeline pipe, int queued, long wait) {
+        boolean pipeOverloaded = overloadedPipelines.containsKey(pipe);
+        if (!pipeOverloaded && perPipeline.exceeded(queued, wait)) {
+            overloadedPipelines.put(pipe, true);
+            pipeline.fire(new Overloaded(pipe, queued, Duration.ofNanos(wait)),
+                channel());
+        } else if (pipeOverloaded && perPipeline.recovered(queued, wait)) {
+            overloadedPipelines.remove(pipe);
+            pipeline.fire(new Recovered(pipe, queued, Duration.ofNanos(wait)),
+                channel());
+        }
+    }
+}
@@ -18,9 +18,8 @@
 
 package org.jgrapes.core;
 
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import org.jgrapes.core.internal.Associations;
 
 /**
  * Represents a subchannel. Subchannels delegate the invocations of a
@@ -88,7 +87,7 @@ public interface Subchannel extends Channel, Associator {
      */
     class DefaultSubchannel implements Subchannel {
         private final Channel mainChannel;
-        private Map<Object, Object> contextData;
+        private volatile Object[] contextData;
 
         /**
          * Creates a new instance with the given main channel and response
@@ -120,13 +119,8 @@ public interface Subchannel extends Channel, Associator {
          */
         @SuppressWarnings("PMD.ShortVariable")
         public DefaultSubchannel setAssociated(Object by, Object with) {
-            if (contextData == null) {
-                contextData = new ConcurrentHashMap<>();
-            }
-            if (with == null) {
-                contextData.remove(by);
-            } else {
-                contextData.put(by, with);
+            synchronized (this) {
+                contextData = Associations.put(contextData, by, with);
             }
             return this;
         }
@@ -144,12 +138,7 @@ public interface Subchannel extends Channel, Associator {
          */
         @SuppressWarnings("PMD.ShortVariable")
         public <V> Optional<V> associated(Object by, Class<V> type) {
-            if (contextData == null) {
-                return Optional.empty();
-            }
-            return Optional.ofNullable(contextData.get(by))
-                .filter(found -> type.isAssignableFrom(found.getClass()))
-                .map(match -> type.cast(match));
+            return Associations.get(contextData, by, type);
         }
 
         /*
@@ -25,12 +25,19 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.jgrapes.core.BatchingScope;
+import org.jgrapes.core.BlockingScope;
+import org.jgrapes.core.Bulkhead;
 import org.jgrapes.core.Channel;
 import org.jgrapes.core.Channel.Default;
 import org.jgrapes.core.ClassChannel;
@@ -265,6 +272,68 @@ public @interface Handler {
      */
     boolean dynamic() default false;
 
+    /**
+     * If greater than zero, the annotated method is a batch handler
+     * (see {@link BatchingScope}). The method must have a single 
+     * parameter of type {@link List}. Events are accumulated and
+     * passed to the method in a single invocation when 
+     * `batchSize` events have been collected or when the oldest 
+     * collected event has waited for {@link #batchWindow()} 
+     * milliseconds.
+     * 
+     * ```java
+     * class SampleComponent extends Component {
+     * 
+     *    {@literal @}Handler(batchSize = 100, batchWindow = 50)
+     *     public void onUpdates(List<MyEvent> events) {
+     *         // Invoked with up to 100 events, at least every 50 ms
+     *         // if events are pending
+     *     }
+     * }
+     * ```
+     * 
+     * If no event classes or named events are specified in the
+     * annotation, the event class is derived from the type argument
+     * of the parameter.
+     * 
+     * @return the batch size
+     */
+    int batchSize() default 0;
+
+    /**
+     * The maximum time in milliseconds that an event waits for 
+     * its batch to be delivered to a batch handler (see 
+     * {@link #batchSize()}).
+     * 
+     * @return the batch window
+     */
+    long batchWindow() default 100;
+
+    /**
+     * If not empty, the annotated method is a blocking handler 
+     * (see {@link BlockingScope}). The handling of the event is 
+     * suspended and the method is invoked by a thread of the 
+     * {@link Bulkhead} with the given name. This prevents the 
+     * handler from stalling all other events in the pipeline 
+     * while it blocks, e.g. on I/O. 
+     * 
+     * ```java
+     * class SampleComponent extends Component {
+     * 
+     *    {@literal @}Handler(bulkhead = "jdbc")
+     *     public void onQuery(Query event) {
+     *         // Invoked by a thread from bulkhead "jdbc"
+     *     }
+     * }
+     * ```
+     * 
+     * The element is ignored for batch handlers (see
+     * {@link #batchSize()}).
+     * 
+     * @return the name of the bulkhead
+     */
+    String bulkhead() default "";
+
     /**
      * This class provides the {@link Evaluator} for the 
      * {@link Handler} annotation provided by the core package. It 
@@ -395,10 +464,14 @@ public @interface Handler {
         /**
          * The handler scope implementation used by the evaluator.
          */
-        private static class Scope implements HandlerScope {
+        private static class Scope
+                implements HandlerScope, BatchingScope, BlockingScope {
 
             private final Set<Object> eventCriteria = new HashSet<>();
             private final Set<Object> channelCriteria = new HashSet<>();
+            private final int batchSize;
+            private final long batchWindow;
+            private final String bulkhead;
 
             /**
              * Instantiates a new scope.
@@ -418,7 +491,12 @@ public @interface Handler {
                     Handler annotation,
                     Map<Class<? extends Channel>, Object> channelReplacements,
                     Object[] eventValues, Object[] channelValues) {
-                if (!HandlerDefinition.Evaluator.checkMethodSignature(method)) {
+                batchSize = annotation.batchSize();
+                batchWindow = annotation.batchWindow();
+                bulkhead = annotation.bulkhead();
+                if (batchSize > 0 ? !checkBatchMethodSignature(method)
+                    : !HandlerDefinition.Evaluator
+                        .checkMethodSignature(method)) {
                     throw new IllegalArgumentException("Method \""
                         + method.toString() + "\" cannot be used as"
                         + " handler (wrong signature).");
@@ -443,6 +521,8 @@ public @interface Handler {
                         if (paramTypes.length > 0) {
                             if (Event.class.isAssignableFrom(paramTypes[0])) {
                                 eventCriteria.add(paramTypes[0]);
+                            } else if (batchSize > 0) {
+                                eventCriteria.add(batchEventType(method));
                             }
                         }
                     }
@@ -497,6 +577,54 @@ public @interface Handler {
 
             }
 
+            private static boolean checkBatchMethodSignature(Method method) {
+                return method.getParameterTypes().length == 1
+                    && method.getParameterTypes()[0] == List.class;
+            }
+
+            /**
+             * Returns the event type from the type argument of the
+             * batch handler's `List` parameter.
+             *
+             * @param method the method
+             * @return the class
+             */
+            private static Class<?> batchEventType(Method method) {
+                Type param = method.getGenericParameterTypes()[0];
+                if (param instanceof ParameterizedType) {
+                    Type arg = ((ParameterizedType) param)
+                        .getActualTypeArguments()[0];
+                    if (arg instanceof WildcardType) {
+                        arg = ((WildcardType) arg).getUpperBounds()[0];
+                    }
+                    if (arg instanceof ParameterizedType) {
+                        arg = ((ParameterizedType) arg).getRawType();
+                    }
+                    if (arg instanceof Class
+                        && Event.class.isAssignableFrom((Class<?>) arg)) {
+                        return (Class<?>) arg;
+                    }
+                }
+                throw new IllegalArgumentException("Cannot derive event"
+                    + " type from parameter of \"" + method.toString()
+                    + "\", specify events in annotation.");
+            }
+
+            @Override
+            public int batchSize() {
+                return batchSize;
+            }
+
+            @Override
+            public long batchWindow() {
+                return batchWindow;
+            }
+
+            @Override
+            public String bulkhead() {
+                return bulkhead;
+            }
+
             @Override
             @SuppressWarnings("PMD.CognitiveComplexity")
             public boolean includes(Eligible event, Eligible[] channels) {
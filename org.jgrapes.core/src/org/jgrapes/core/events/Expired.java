@@ -0,0 +1,76 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.core.events;
+
+import org.jgrapes.core.Channel;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.Event;
+
+/**
+ * This event signals that an event has not been handled because
+ * its deadline (see {@link Event#setDeadline(java.time.Instant)})
+ * had passed when it was taken from the queue. It is fired by the 
+ * default implementation of 
+ * {@link org.jgrapes.core.internal.EventBase#expired} in
+ * {@link Event} on the channels of the expired event.
+ */
+public class Expired extends Event<Void> {
+
+    private final Event<?> event;
+
+    /**
+     * Creates a new event.
+     *
+     * @param event the event that has expired
+     */
+    public Expired(Event<?> event) {
+        this.event = event;
+    }
+
+    /**
+     * Returns the event that has expired.
+     * 
+     * @return the event
+     */
+    public Event<?> event() {
+        return event;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(Components.objectName(this))
+            .append(" [");
+        if (channels().length > 0) {
+            builder.append("channels=");
+            builder.append(Channel.toString(channels()));
+        }
+        if (event != null) {
+            builder.append(", expired: ");
+            builder.append(event.toString());
+        }
+        builder.append(']');
+        return builder.toString();
+    }
+}
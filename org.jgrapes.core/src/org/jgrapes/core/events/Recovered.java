@@ -0,0 +1,110 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.core.events;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.jgrapes.core.Channel;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.Event;
+import org.jgrapes.core.EventPipeline;
+import org.jgrapes.core.OverloadDetector;
+
+/**
+ * This event signals that the load of the event pipelines has
+ * dropped below the lower thresholds configured for the
+ * {@link OverloadDetector} after an {@link Overloaded} event.
+ * 
+ * If {@link #pipeline()} is empty, the event refers to the global
+ * state, i.e. the sum of the queued events of all pipelines and
+ * the maximum queue wait time of all pipelines. Else, the event refers 
+ * to the state of the given pipeline only.
+ */
+public class Recovered extends Event<Void> {
+
+    private final EventPipeline pipeline;
+    private final int queued;
+    private final Duration queueWait;
+
+    /**
+     * Creates a new event.
+     *
+     * @param pipeline the pipeline or `null` for the global state
+     * @param queued the number of queued events
+     * @param queueWait the maximum time that an event has waited
+     * in a queue during the last sampling interval
+     */
+    public Recovered(EventPipeline pipeline, int queued, Duration queueWait) {
+        this.pipeline = pipeline;
+        this.queued = queued;
+        this.queueWait = queueWait;
+    }
+
+    /**
+     * Returns the pipeline that this event refers to.
+     *
+     * @return the pipeline or empty if this event refers to the 
+     * global state
+     */
+    public Optional<EventPipeline> pipeline() {
+        return Optional.ofNullable(pipeline);
+    }
+
+    /**
+     * Returns the number of queued events.
+     *
+     * @return the number of events
+     */
+    public int queued() {
+        return queued;
+    }
+
+    /**
+     * Returns the maximum time that an event has waited in a queue
+     * during the last sampling interval.
+     *
+     * @return the queue wait
+     */
+    public Duration queueWait() {
+        return queueWait;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(Components.objectName(this))
+            .append(" [");
+        if (channels().length > 0) {
+            builder.append("channels=");
+            builder.append(Channel.toString(channels()));
+        }
+        builder.append(", pipeline=")
+            .append(pipeline == null ? "(all)"
+                : Components.objectName(pipeline))
+            .append(", queued=").append(queued)
+            .append(", queueWait=").append(queueWait)
+            .append(']');
+        return builder.toString();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.core.internal;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Helper for storing associations in a compact way. The associations
+ * are kept in an array with alternating keys and values that is
+ * replaced on every modification. Objects usually have none or
+ * only a few associations, so this requires much less memory
+ * than a map and lookups are at least as fast.
+ * 
+ * Callers keep the array in a volatile field and synchronize
+ * modifications.
+ */
+public final class Associations {
+
+    private Associations() {
+    }
+
+    /**
+     * Returns a new array with the association added, replaced or
+     * (if `with` is `null`) removed.
+     *
+     * @param data the current associations, may be `null`
+     * @param by the key
+     * @param with the value
+     * @return the new associations, may be `null`
+     */
+    @SuppressWarnings("PMD.ShortVariable")
+    public static Object[] put(Object[] data, Object by, Object with) {
+        int idx = indexOf(data, by);
+        if (with == null) {
+            if (idx < 0) {
+                return data;
+            }
+            if (data.length == 2) {
+                return null;
+            }
+            Object[] result = new Object[data.length - 2];
+            System.arraycopy(data, 0, result, 0, idx);
+            System.arraycopy(data, idx + 2, result, idx,
+                data.length - idx - 2);
+            return result;
+        }
+        Object[] result;
+        if (idx >= 0) {
+            result = data.clone();
+            result[idx + 1] = with;
+            return result;
+        }
+        if (data == null) {
+            return new Object[] { by, with };
+        }
+        result = Arrays.copyOf(data, data.length + 2);
+        result[data.length] = by;
+        result[data.length + 1] = with;
+        return result;
+    }
+
+    /**
+     * Retrieves the value associated with `by`, provided that it 
+     * is an instance of the given type.
+     *
+     * @param <V> the type of the value
+     * @param data the associations, may be `null`
+     * @param by the key
+     * @param type the type of the value
+     * @return the value, if any
+     */
+    @SuppressWarnings("PMD.ShortVariable")
+    public static <V> Optional<V> get(Object[] data, Object by,
+            Class<V> type) {
+        int idx = indexOf(data, by);
+        if (idx < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(data[idx + 1])
+            .filter(found -> type.isAssignableFrom(found.getClass()))
+            .map(match -> type.cast(match));
+    }
+
+    private static int indexOf(Object[] data, Object key) {
+        if (data == null) {
+            return -1;
+        }
+        for (int i = 0; i < data.length; i += 2) {
+            if (data[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
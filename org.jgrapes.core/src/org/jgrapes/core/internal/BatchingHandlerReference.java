@@ -0,0 +1,156 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.core.internal;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.jgrapes.core.BatchingScope;
+import org.jgrapes.core.ComponentType;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.EventPipeline;
+import org.jgrapes.core.HandlerScope;
+import org.jgrapes.core.InvocationFilter;
+
+/**
+ * A reference to a method that handles events in batches
+ * (see {@link BatchingScope}).
+ */
+@SuppressWarnings("PMD.DataflowAnomalyAnalysis")
+class BatchingHandlerReference extends HandlerReference {
+
+    private final int batchSize;
+    private final Duration batchWindow;
+    private Batch collecting;
+
+    /**
+     * Create a new batching handler reference to a component's method
+     * that handles lists of events matching the filter.
+     * 
+     * @param component the component
+     * @param method the method to be invoked
+     * @param priority the handler's priority
+     * @param filter the filter
+     */
+    protected BatchingHandlerReference(ComponentType component, 
+            Method method, int priority, HandlerScope filter) {
+        super(component, method, priority, filter);
+        batchSize = ((BatchingScope) filter).batchSize();
+        batchWindow = Duration.ofMillis(
+            Math.max(0, ((BatchingScope) filter).batchWindow()));
+    }
+
+    /**
+     * Adds the event to the batch being collected and suspends its 
+     * handling. If the batch is full, the handler is invoked with all
+     * collected events.
+     * 
+     * @param event the event
+     */
+    @Override
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    public void invoke(EventBase<?> event) throws Throwable {
+        if (needsFiltering && !((InvocationFilter) filter).includes(event)) {
+            return;
+        }
+        Batch full = null;
+        synchronized (this) {
+            if (collecting == null) {
+                collecting = new Batch(event.processedBy().get());
+            }
+            collecting.events.add(event);
+            event.suspendHandling(null, true);
+            if (collecting.events.size() >= batchSize) {
+                full = collecting;
+                collecting = null;
+                full.cancelTimer();
+            }
+        }
+        if (full != null) {
+            full.deliver();
+        }
+    }
+
+    /**
+     * Invoked by the timer when the batch window has passed.
+     *
+     * @param batch the batch
+     */
+    @SuppressWarnings({ "PMD.CompareObjectsWithEquals",
+        "PMD.AvoidCatchingThrowable" })
+    private void flush(Batch batch) {
+        synchronized (this) {
+            if (collecting != batch) {
+                // Delivered because full
+                return;
+            }
+            collecting = null;
+        }
+        try {
+            batch.deliver();
+        } catch (Error e) { // NOPMD
+            throw e;
+        } catch (Throwable t) { // NOPMD
+            var last = batch.events.get(batch.events.size() - 1);
+            last.handlingError(batch.pipeline, t);
+        }
+    }
+
+    /**
+     * The events collected for an invocation.
+     */
+    private class Batch {
+        private final EventPipeline pipeline;
+        private final List<EventBase<?>> events = new ArrayList<>();
+        private Components.Timer timer;
+
+        /**
+         * Instantiates a new batch. The batch is delivered on 
+         * the given pipeline if the window passes.
+         *
+         * @param pipeline the pipeline
+         */
+        private Batch(EventPipeline pipeline) {
+            this.pipeline = pipeline;
+            timer = Components.schedule(
+                tmr -> pipeline.submit("BatchWindow", () -> flush(this)),
+                batchWindow);
+        }
+
+        private void cancelTimer() {
+            if (timer != null) {
+                timer.cancel();
+                timer = null;
+            }
+        }
+
+        @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+        private void deliver() throws Throwable {
+            try {
+                method.invoke(Collections.unmodifiableList(events));
+            } finally {
+                for (var event : events) {
+                    event.resumeHandling();
+                }
+            }
+        }
+    }
+}
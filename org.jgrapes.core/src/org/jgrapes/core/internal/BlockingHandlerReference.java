@@ -0,0 +1,90 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.core.internal;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.RejectedExecutionException;
+import org.jgrapes.core.BlockingScope;
+import org.jgrapes.core.Bulkhead;
+import org.jgrapes.core.ComponentType;
+import org.jgrapes.core.EventPipeline;
+import org.jgrapes.core.HandlerScope;
+import org.jgrapes.core.InvocationFilter;
+
+/**
+ * A reference to a method that blocks and is therefore invoked
+ * using a {@link Bulkhead} (see {@link BlockingScope}).
+ */
+class BlockingHandlerReference extends HandlerReference {
+
+    private final Bulkhead bulkhead;
+
+    /**
+     * Create a new handler reference to a component's blocking method.
+     * 
+     * @param component the component
+     * @param method the method to be invoked
+     * @param priority the handler's priority
+     * @param filter the filter
+     */
+    protected BlockingHandlerReference(ComponentType component,
+            Method method, int priority, HandlerScope filter) {
+        super(component, method, priority, filter);
+        bulkhead = Bulkhead.get(((BlockingScope) filter).bulkhead());
+    }
+
+    /**
+     * Suspends the handling of the event and invokes the method
+     * using the bulkhead. Events fired by the method are considered
+     * to be caused by the event. 
+     * 
+     * @param event the event
+     */
+    @Override
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    public void invoke(EventBase<?> event) throws Throwable {
+        if (needsFiltering && !((InvocationFilter) filter).includes(event)) {
+            return;
+        }
+        EventPipeline pipeline = event.processedBy().get();
+        event.suspendHandling(null, true);
+        boolean accepted = bulkhead.execute(() -> {
+            try {
+                EventProcessor.newEventsParent.set(event);
+                invokeMethod(event);
+            } catch (AssertionError t) {
+                // JUnit support
+                CoreUtils.setAssertionError(t);
+                event.handlingError(pipeline, t);
+            } catch (Error e) { // NOPMD
+                throw e;
+            } catch (Throwable t) { // NOPMD
+                event.handlingError(pipeline, t);
+            } finally {
+                EventProcessor.newEventsParent.set(null);
+                event.resumeHandling();
+            }
+        });
+        if (!accepted) {
+            event.handlingError(pipeline, new RejectedExecutionException(
+                "Bulkhead \"" + bulkhead.name() + "\" is saturated."));
+            event.resumeHandling();
+        }
+    }
+}
@@ -18,6 +18,8 @@
 
 package org.jgrapes.core.internal;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -25,7 +27,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Future;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.Consumer;
 import org.jgrapes.core.Associator;
 import org.jgrapes.core.Channel;
@@ -48,29 +50,65 @@ import org.jgrapes.core.EventPipeline;
 public abstract class EventBase<T>
         implements Eligible, Future<T>, Associator {
 
+    @SuppressWarnings({ "rawtypes", "PMD.FieldNamingConventions" })
+    private static final AtomicIntegerFieldUpdater<EventBase> openCountUpdater
+        = AtomicIntegerFieldUpdater.newUpdater(EventBase.class, "openCount");
+
     /** The event that caused this event. */
     private EventBase<?> generatedBy;
     /** Number of events that have to be processed until completion.
      * This is one for the event itself and one more for each event
-     * that has this event as its cause. */
-    private final AtomicInteger openCount = new AtomicInteger(1);
-    /** Completion locks. */
-    private Set<CompletionLockBase> completionLocks;
+     * that has this event as its cause. Updated using 
+     * {@link #openCountUpdater} only. */
+    @SuppressWarnings("PMD.UnusedPrivateField")
+    private volatile int openCount = 1;
     /** Set when the event is enqueued, reset when it has been completed. */
     private EventProcessor processedBy;
-    /** The events to be fired upon completion. Using this attribute
-     * provides a slightly faster access than invoking
-     * {@link Event#completionEvents()}, which wraps the result in
-     * an unmodifiable set. */
-    protected Set<Event<?>> completionEvents;
+    /** State that is needed by few events only, created on demand. */
+    private volatile Extras extras;
     /** Set when the event has been completed. */
     protected boolean completed;
     private boolean requiresResult;
     /** Event is tracked by {@link VerboseHandlerReference}. */
     private boolean tracked = true;
-    /** Event handler to be invoked after resumeHandling. */
-    private Iterator<HandlerReference> suspendedHandlers;
-    private Runnable whenResumed;
+    /** Set when the event has been dropped because of its deadline. */
+    private boolean expired;
+
+    /**
+     * Holds the state that is used by few events only. Keeping it
+     * in a separate object reduces the size of the majority of 
+     * events.
+     */
+    private static final class Extras {
+        /** Completion locks. */
+        private Set<CompletionLockBase> completionLocks;
+        /** The events to be fired upon completion. */
+        private Set<Event<?>> completionEvents;
+        /** Event handler to be invoked after resumeHandling. */
+        private Iterator<HandlerReference> suspendedHandlers;
+        private Runnable whenResumed;
+        /** The instant after which handlers are no longer invoked. */
+        private Instant deadline;
+    }
+
+    /**
+     * Returns the extras, creating them if necessary.
+     *
+     * @return the extras
+     */
+    @SuppressWarnings("PMD.AvoidSynchronizedAtMethodLevel")
+    private Extras extras() {
+        Extras result = extras;
+        if (result == null) {
+            synchronized (this) {
+                if (extras == null) {
+                    extras = new Extras();
+                }
+                result = extras;
+            }
+        }
+        return result;
+    }
 
     /**
      * See {@link Event#channels()}.
@@ -102,7 +140,7 @@ public abstract class EventBase<T>
             return this;
         }
         if (value) {
-            openCount.incrementAndGet();
+            openCountUpdater.incrementAndGet(this);
             requiresResult = true;
         } else {
             requiresResult = false;
@@ -120,6 +158,14 @@ public abstract class EventBase<T>
         }
     }
 
+    /**
+     * Invoked when the event is not handled because its deadline
+     * has passed.
+     * 
+     * @param eventProcessor the processor that has dropped the event
+     */
+    protected abstract void expired(EventPipeline eventProcessor);
+
     /**
      * Returns <code>true</code> if the event has been enqueued in a pipeline.
      * 
@@ -149,7 +195,7 @@ public abstract class EventBase<T>
     /* default */ void generatedBy(EventBase<?> causingEvent) {
         generatedBy = causingEvent;
         if (causingEvent != null) {
-            causingEvent.openCount.incrementAndGet();
+            openCountUpdater.incrementAndGet(causingEvent);
         }
     }
 
@@ -184,17 +230,35 @@ public abstract class EventBase<T>
      * @param whenResumed some function to be executed when handling is resumed 
      */
     public void suspendHandling(Runnable whenResumed) {
+        suspendHandling(whenResumed, false);
+    }
+
+    /**
+     * Suspend the invocation of the remaining handlers for this event.
+     * If `evenIfLast` is `true`, the handling is suspended even if 
+     * the current handler is the last handler for the event. This
+     * defers the invocation of {@link #handled()} until
+     * {@link #resumeHandling()} has been called.
+     *
+     * @param whenResumed some function to be executed when handling is resumed 
+     * @param evenIfLast whether to suspend if there are no more handlers
+     */
+    /* default */ void suspendHandling(Runnable whenResumed,
+            boolean evenIfLast) {
         if (processedBy == null) {
             throw new IllegalStateException("May only be called from handler.");
         }
-        this.whenResumed = whenResumed;
-        processedBy.suspendHandling(this);
+        if (whenResumed != null || extras != null) {
+            extras().whenResumed = whenResumed;
+        }
+        processedBy.suspendHandling(this, evenIfLast);
     }
 
     /* default */ void invokeWhenResumed() {
-        if (whenResumed != null) {
-            whenResumed.run();
-            whenResumed = null;
+        Extras current = extras;
+        if (current != null && current.whenResumed != null) {
+            current.whenResumed.run();
+            current.whenResumed = null;
         }
     }
 
@@ -211,14 +275,18 @@ public abstract class EventBase<T>
     }
 
     /* default */ Iterator<HandlerReference> clearSuspendedHandlers() {
-        var result = suspendedHandlers;
-        suspendedHandlers = null;
+        Extras current = extras;
+        if (current == null) {
+            return null;
+        }
+        var result = current.suspendedHandlers;
+        current.suspendedHandlers = null;
         return result;
     }
 
     /* default */ void setSuspendedHandlers(
             Iterator<HandlerReference> suspendedHandlers) {
-        this.suspendedHandlers = suspendedHandlers;
+        extras().suspendedHandlers = suspendedHandlers;
     }
 
     /**
@@ -226,11 +294,13 @@ public abstract class EventBase<T>
      */
     @SuppressWarnings("PMD.CognitiveComplexity")
     /* default */ void decrementOpen() {
-        if (openCount.decrementAndGet() == 0 && !completed) {
+        if (openCountUpdater.decrementAndGet(this) == 0 && !completed) {
             synchronized (this) {
                 completed = true;
                 notifyAll();
             }
+            Set<Event<?>> completionEvents
+                = extras == null ? null : extras.completionEvents;
             if (completionEvents != null && !isCancelled()) {
                 processedBy.updateNewEventsParent(generatedBy);
                 for (Event<?> e : completionEvents) {
@@ -259,13 +329,15 @@ public abstract class EventBase<T>
      * @see CompletionLock
      */
     /* default */ Event<T> addCompletionLock(CompletionLockBase lock) {
+        Extras current = extras();
         synchronized (this) {
-            if (completionLocks == null) {
-                completionLocks = Collections.synchronizedSet(new HashSet<>());
+            if (current.completionLocks == null) {
+                current.completionLocks
+                    = Collections.synchronizedSet(new HashSet<>());
             }
         }
-        if (completionLocks.add(lock)) {
-            openCount.incrementAndGet();
+        if (current.completionLocks.add(lock)) {
+            openCountUpdater.incrementAndGet(this);
             lock.startTimer();
         }
         return (Event<T>) this;
@@ -278,15 +350,85 @@ public abstract class EventBase<T>
      * @see CompletionLock
      */
     /* default */ void removeCompletionLock(CompletionLockBase lock) {
-        if (completionLocks == null) {
+        Extras current = extras;
+        if (current == null || current.completionLocks == null) {
             return;
         }
-        if (completionLocks.remove(lock)) {
+        if (current.completionLocks.remove(lock)) {
             decrementOpen();
         }
         lock.cancelTimer();
     }
 
+    /**
+     * Sets the deadline for handling this event. If the deadline has 
+     * passed when the event is taken from the queue of its event 
+     * pipeline, no handlers are invoked. Instead, the event is
+     * marked as expired (see {@link #isExpired()}) and 
+     * {@link #expired(EventPipeline)} is called.
+     * 
+     * The deadline is only checked once, before invoking the first
+     * handler. Once handling has started, the event is processed
+     * normally, even if it is suspended and resumed after the
+     * deadline.
+     *
+     * @param deadline the deadline or `null` to remove the deadline
+     * @return the object for easy chaining
+     */
+    public Event<T> setDeadline(Instant deadline) {
+        if (deadline != null || extras != null) {
+            extras().deadline = deadline;
+        }
+        return (Event<T>) this;
+    }
+
+    /**
+     * Sets the deadline for handling this event to the given
+     * duration from now.
+     *
+     * @param timeout the time left for starting the handling
+     * @return the object for easy chaining
+     * @see #setDeadline(Instant)
+     */
+    public Event<T> setDeadline(Duration timeout) {
+        return setDeadline(Instant.now().plus(timeout));
+    }
+
+    /**
+     * Returns the deadline for handling this event.
+     *
+     * @return the deadline, if set
+     */
+    public Optional<Instant> deadline() {
+        return Optional.ofNullable(extras).map(ext -> ext.deadline);
+    }
+
+    /**
+     * Returns `true` if the event has not been handled because
+     * its deadline had passed when it was taken from the queue.
+     *
+     * @return the expired state
+     */
+    public boolean isExpired() {
+        return expired;
+    }
+
+    /**
+     * Checks if the event has a deadline that has passed and 
+     * marks the event as expired if this is the case.
+     *
+     * @return `true` if the event has expired
+     */
+    /* default */ boolean checkExpired() {
+        Extras current = extras;
+        if (current == null || current.deadline == null
+            || !Instant.now().isAfter(current.deadline)) {
+            return false;
+        }
+        expired = true;
+        return true;
+    }
+
     /**
      * Disables tracking for this event and all events generated
      * when handling it.
@@ -312,6 +454,19 @@ public abstract class EventBase<T>
             : (tracked && generatedBy.isTrackable());
     }
 
+    /**
+     * Returns the events to be thrown when this event has completed
+     * (see {@link #isDone()}).
+     * 
+     * @return the completed events
+     */
+    public Set<Event<?>> completionEvents() {
+        Extras current = extras;
+        return current == null || current.completionEvents == null
+            ? Collections.emptySet()
+            : Collections.unmodifiableSet(current.completionEvents);
+    }
+
     /**
      * Adds the given event to the events to be thrown when this event 
      * has completed (see {@link #isDone()}). Such an event is called 
@@ -329,7 +484,14 @@ public abstract class EventBase<T>
      * @return the object for easy chaining
      * @see #onCompletion(Event, Consumer)
      */
-    public abstract Event<T> addCompletionEvent(Event<?> completionEvent);
+    public Event<T> addCompletionEvent(Event<?> completionEvent) {
+        Extras current = extras();
+        if (current.completionEvents == null) {
+            current.completionEvents = new HashSet<>();
+        }
+        current.completionEvents.add(completionEvent);
+        return (Event<T>) this;
+    }
 
     /**
      * Invokes the consumer when the event is completed. This is
@@ -31,6 +31,8 @@ import org.jgrapes.core.Channel;
 public class EventChannelsTuple {
     public EventBase<?> event;
     public Channel[] channels;
+    /** The value of {@link System#nanoTime()} when the tuple was created. */
+    public final long created = System.nanoTime();
 
     /**
      * Create a new instance.
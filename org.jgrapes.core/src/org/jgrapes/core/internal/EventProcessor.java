@@ -22,9 +22,11 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 import org.jgrapes.core.Channel;
 import org.jgrapes.core.Components;
 import org.jgrapes.core.Event;
@@ -39,6 +41,13 @@ public class EventProcessor implements InternalEventPipeline, Runnable {
     @SuppressWarnings("PMD.FieldNamingConventions")
     protected static final ThreadLocal<EventBase<?>> newEventsParent
         = new ThreadLocal<>();
+    /** The processors that are currently executing. */
+    @SuppressWarnings("PMD.FieldNamingConventions")
+    private static final Set<EventProcessor> executing
+        = ConcurrentHashMap.newKeySet();
+    /** Maximum queue wait of processors that have become idle. */
+    @SuppressWarnings("PMD.FieldNamingConventions")
+    private static final AtomicLong idleMaxQueueWait = new AtomicLong();
 
     private final ExecutorService executorService;
     private final ComponentTree componentTree;
@@ -53,6 +62,9 @@ public class EventProcessor implements InternalEventPipeline, Runnable {
     private final Queue<EventBase<?>> toBeResumed
         = new ConcurrentLinkedDeque<>();
     private boolean isExecuting;
+    // Updated while holding the lock, read without.
+    private volatile int queueLength;
+    private volatile long maxQueueWait;
     private final ThreadLocal<Thread> executor = new ThreadLocal<>();
 
     /**
@@ -101,11 +113,10 @@ public class EventProcessor implements InternalEventPipeline, Runnable {
         ((EventBase<?>) event).processedBy(this);
         synchronized (this) {
             EventChannelsTuple.addTo(queue, event, channels);
+            queueLength += 1;
             if (!isExecuting) {
                 // Queue was initially empty, this starts it
-                GeneratorRegistry.instance().add(this);
-                isExecuting = true;
-                executorService.execute(this);
+                startExecuting();
             }
         }
         return event;
@@ -121,11 +132,10 @@ public class EventProcessor implements InternalEventPipeline, Runnable {
                 }
                 entry.event.processedBy(this);
                 queue.add(entry);
+                queueLength += 1;
             }
             if (!isExecuting) {
-                GeneratorRegistry.instance().add(this);
-                isExecuting = true;
-                executorService.execute(this);
+                startExecuting();
             }
         }
     }
@@ -169,11 +179,24 @@ public class EventProcessor implements InternalEventPipeline, Runnable {
                         // may cause this processor to be reactivated.
                         GeneratorRegistry.instance().remove(this);
                         isExecuting = false;
+                        executing.remove(this);
+                        idleMaxQueueWait.accumulateAndGet(maxQueueWait,
+                            Math::max);
+                        maxQueueWait = 0;
                         synchronized (executor) {
                             executor.notifyAll();
                         }
                         break;
                     }
+                    queueLength -= 1;
+                }
+                long waited = System.nanoTime() - next.created;
+                if (waited > maxQueueWait) {
+                    maxQueueWait = waited;
+                }
+                if (next.event.checkExpired()) {
+                    expire(next.event);
+                    continue;
                 }
                 HandlerList handlers
                     = componentTree.getEventHandlers(next.event, next.channels);
@@ -192,6 +215,16 @@ public class EventProcessor implements InternalEventPipeline, Runnable {
         }
     }
 
+    /**
+     * Must be called while holding the lock.
+     */
+    private void startExecuting() {
+        GeneratorRegistry.instance().add(this);
+        isExecuting = true;
+        executing.add(this);
+        executorService.execute(this);
+    }
+
     /**
      * Invoke all (remaining) handlers with the given event as parameter.
      *
@@ -242,12 +275,35 @@ public class EventProcessor implements InternalEventPipeline, Runnable {
         }
     }
 
+    /**
+     * Completes an event that has expired without invoking any
+     * handlers. Events fired by {@link EventBase#expired} are
+     * considered to be caused by the expired event.
+     *
+     * @param event the event
+     */
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    private void expire(EventBase<?> event) {
+        try {
+            newEventsParent.set(event);
+            event.expired(asEventPipeline);
+        } catch (Error e) { // NOPMD
+            throw e;
+        } catch (Throwable t) { // NOPMD
+            event.handlingError(asEventPipeline, t);
+        } finally {
+            event.handled();
+            event.decrementOpen();
+        }
+    }
+
     @SuppressWarnings("PMD.CompareObjectsWithEquals")
-    /* default */ void suspendHandling(EventBase<?> event) {
+    /* default */ void suspendHandling(EventBase<?> event,
+            boolean evenIfLast) {
         if (Thread.currentThread() != executor.get()) {
             throw new IllegalStateException("May only be called from handler.");
         }
-        if (!invoking.hasNext()) {
+        if (!evenIfLast && !invoking.hasNext()) {
             // Last anyway, nothing to be done
             return;
         }
@@ -263,13 +319,47 @@ public class EventProcessor implements InternalEventPipeline, Runnable {
         synchronized (this) {
             if (!isExecuting) {
                 // There were no more events, restart
-                GeneratorRegistry.instance().add(this);
-                isExecuting = true;
-                executorService.execute(this);
+                startExecuting();
             }
         }
     }
 
+    /**
+     * Receives the load information from {@link #sampleLoad}.
+     */
+    @FunctionalInterface
+    public interface LoadSampler {
+
+        /**
+         * Invoked with the load information of an executing pipeline.
+         *
+         * @param pipeline the pipeline
+         * @param queued the number of queued events
+         * @param maxQueueWait the maximum time in nanoseconds that an
+         * event has waited in the pipeline's queue since the previous 
+         * sample
+         */
+        void sample(EventPipeline pipeline, int queued, long maxQueueWait);
+    }
+
+    /**
+     * Passes the load information of all executing pipelines to the
+     * given sampler and resets the maximum queue wait times.
+     *
+     * @param sampler the sampler
+     * @return the maximum queue wait time in nanoseconds of the 
+     * pipelines that have become idle since the previous sample
+     */
+    public static long sampleLoad(LoadSampler sampler) {
+        for (EventProcessor processor : executing) {
+            long waited = processor.maxQueueWait;
+            processor.maxQueueWait = 0;
+            sampler.sample(processor.asEventPipeline, processor.queueLength,
+                waited);
+        }
+        return idleMaxQueueWait.getAndSet(0);
+    }
+
     /*
      * (non-Javadoc)
      * 
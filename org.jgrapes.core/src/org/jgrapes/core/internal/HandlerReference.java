@@ -23,6 +23,8 @@ import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.jgrapes.core.BatchingScope;
+import org.jgrapes.core.BlockingScope;
 import org.jgrapes.core.Channel;
 import org.jgrapes.core.ComponentType;
 import org.jgrapes.core.Eligible;
@@ -114,6 +116,16 @@ class HandlerReference implements Comparable<HandlerReference> {
         if (needsFiltering && !((InvocationFilter) filter).includes(event)) {
             return;
         }
+        invokeMethod(event);
+    }
+
+    /**
+     * Invoke the method with the given event as parameter. Filters
+     * have already been applied.
+     * 
+     * @param event the event
+     */
+    protected void invokeMethod(EventBase<?> event) throws Throwable {
         switch (method.type().parameterCount()) {
         case 0:
             // No parameters
@@ -171,6 +183,16 @@ class HandlerReference implements Comparable<HandlerReference> {
     public static HandlerReference newRef(
             ComponentType component, Method method,
             int priority, HandlerScope filter) {
+        if (filter instanceof BatchingScope
+            && ((BatchingScope) filter).batchSize() > 0) {
+            return new BatchingHandlerReference(
+                component, method, priority, filter);
+        }
+        if (filter instanceof BlockingScope
+            && !((BlockingScope) filter).bulkhead().isEmpty()) {
+            return new BlockingHandlerReference(
+                component, method, priority, filter);
+        }
         if (handlerTracking.isLoggable(Level.FINE)) {
             return new VerboseHandlerReference(
                 component, method, priority, filter);
@@ -0,0 +1,74 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.core.test.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.jgrapes.core.Component;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.Event;
+import org.jgrapes.core.annotation.Handler;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class BatchTest {
+
+    public static class TestEvent extends Event<Void> {
+    }
+
+    public static class TestApp extends Component {
+
+        public List<Integer> batches
+            = Collections.synchronizedList(new ArrayList<>());
+        public int after;
+
+        @Handler(batchSize = 3, batchWindow = 200, priority = 10)
+        public void onBatch(List<TestEvent> events) {
+            batches.add(events.size());
+        }
+
+        @Handler
+        public void onAfter(TestEvent event) {
+            synchronized (this) {
+                after += 1;
+            }
+        }
+    }
+
+    @Test
+    public void testBatches() throws InterruptedException {
+        TestApp app = new TestApp();
+        Components.start(app);
+        List<TestEvent> events = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            TestEvent event = new TestEvent();
+            app.fire(event);
+            events.add(event);
+        }
+        for (TestEvent event : events) {
+            event.get();
+            assertTrue(event.isDone());
+        }
+        // Full batch and the remainder, delivered after the window
+        assertEquals(List.of(3, 2), app.batches);
+        assertEquals(5, app.after);
+    }
+
+}
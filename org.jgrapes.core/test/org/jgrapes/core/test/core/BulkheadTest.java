@@ -0,0 +1,94 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.core.test.core;
+
+import java.util.concurrent.CountDownLatch;
+import org.jgrapes.core.Bulkhead;
+import org.jgrapes.core.Component;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.Event;
+import org.jgrapes.core.annotation.Handler;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class BulkheadTest {
+
+    public static class Slow extends Event<Void> {
+    }
+
+    public static class Fast extends Event<Void> {
+    }
+
+    public static class TestApp extends Component {
+
+        public StringBuffer sequence = new StringBuffer();
+        public CountDownLatch started = new CountDownLatch(1);
+        public CountDownLatch proceed = new CountDownLatch(1);
+
+        @Handler(bulkhead = "BulkheadTest", priority = 10)
+        public void onSlow(Slow event) throws InterruptedException {
+            started.countDown();
+            proceed.await();
+            sequence.append('S');
+        }
+
+        @Handler
+        public void onSlowDone(Slow event) {
+            sequence.append('s');
+        }
+
+        @Handler
+        public void onFast(Fast event) {
+            sequence.append('F');
+        }
+    }
+
+    @Test
+    public void testNotBlocking() throws InterruptedException {
+        TestApp app = new TestApp();
+        Components.start(app);
+        Slow slow = new Slow();
+        app.fire(slow);
+        app.started.await();
+        app.fire(new Fast()).get();
+        assertEquals("F", app.sequence.toString());
+        assertEquals(1, Bulkhead.get("BulkheadTest").active());
+        app.proceed.countDown();
+        slow.get();
+        assertEquals("FSs", app.sequence.toString());
+        assertEquals(0, Bulkhead.get("BulkheadTest").rejected());
+    }
+
+    @Test
+    public void testRedefine() throws InterruptedException {
+        TestApp app = new TestApp();
+        Components.start(app);
+        Bulkhead bulkhead = Bulkhead.get("BulkheadTest");
+        long rejected = bulkhead.rejected();
+        // Redefined after the handler has been registered
+        assertSame(bulkhead, Bulkhead.define("BulkheadTest", 2, 10));
+        app.proceed.countDown();
+        Slow slow = new Slow();
+        app.fire(slow);
+        slow.get();
+        assertEquals("Ss", app.sequence.toString());
+        assertEquals(rejected, bulkhead.rejected());
+    }
+
+}
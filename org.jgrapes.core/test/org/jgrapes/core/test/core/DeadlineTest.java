@@ -0,0 +1,77 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.core.test.core;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.jgrapes.core.Component;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.Event;
+import org.jgrapes.core.annotation.Handler;
+import org.jgrapes.core.events.Expired;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class DeadlineTest {
+
+    public static class TestEvent extends Event<Void> {
+    }
+
+    public static class TestApp extends Component {
+
+        public int handled;
+        public Event<?> expired;
+
+        @Handler
+        public void onTest(TestEvent event) {
+            handled += 1;
+        }
+
+        @Handler
+        public void onExpired(Expired event) {
+            expired = event.event();
+        }
+    }
+
+    @Test
+    public void testExpired() throws InterruptedException {
+        TestApp app = new TestApp();
+        Components.start(app);
+        TestEvent event = new TestEvent();
+        event.setDeadline(Instant.now().minusSeconds(1));
+        app.fire(event).get();
+        assertTrue(event.isDone());
+        assertTrue(event.isExpired());
+        assertEquals(0, app.handled);
+        assertSame(event, app.expired);
+    }
+
+    @Test
+    public void testInTime() throws InterruptedException {
+        TestApp app = new TestApp();
+        Components.start(app);
+        TestEvent event = new TestEvent();
+        event.setDeadline(Duration.ofMinutes(1));
+        app.fire(event).get();
+        assertFalse(event.isExpired());
+        assertEquals(1, app.handled);
+        assertNull(app.expired);
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.core.test.core;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.Supplier;
+import org.jgrapes.core.Event;
+import org.jgrapes.core.NamedEvent;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+import org.junit.Test;
+
+public class EventFootprintTest {
+
+    private static final int COUNT = 10_000;
+    private final Object[] keep = new Object[COUNT];
+
+    private long bytesPerObject(Supplier<Object> factory) {
+        ThreadMXBean tmx = ManagementFactory.getThreadMXBean();
+        assumeTrue(tmx instanceof com.sun.management.ThreadMXBean);
+        var counter = (com.sun.management.ThreadMXBean) tmx;
+        assumeTrue(counter.isThreadAllocatedMemorySupported()
+            && counter.isThreadAllocatedMemoryEnabled());
+        // Warm up
+        for (int i = 0; i < COUNT; i++) {
+            keep[i] = factory.get();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = counter.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < COUNT; i++) {
+            keep[i] = factory.get();
+        }
+        return (counter.getThreadAllocatedBytes(threadId) - before) / COUNT;
+    }
+
+    private boolean compressedOops() {
+        HotSpotDiagnosticMXBean diagnostics = ManagementFactory
+            .getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        return diagnostics != null && Boolean.parseBoolean(
+            diagnostics.getVMOption("UseCompressedOops").getValue());
+    }
+
+    @Test
+    public void testFootprint() {
+        // Limits apply to the usual layout only
+        assumeTrue(compressedOops());
+        // Measured 80/88/104 bytes with compressed oops, allow some
+        // variation between VMs.
+        assertTrue(bytesPerObject(() -> new Event<Void>()) <= 96);
+        assertTrue(bytesPerObject(() -> new NamedEvent<Void>("test")) <= 104);
+        assertTrue(bytesPerObject(
+            () -> new Event<Void>().setAssociated("key", "value")) <= 128);
+    }
+
+    @Test
+    public void testAssociations() {
+        Event<Void> event = new Event<>();
+        assertFalse(event.associated("a", String.class).isPresent());
+        event.setAssociated("a", "1").setAssociated("b", 2)
+            .setAssociated("c", "3");
+        assertEquals("1", event.associated("a", String.class).get());
+        assertEquals(2, (int) event.associated("b", Integer.class).get());
+        assertFalse(event.associated("b", String.class).isPresent());
+        event.setAssociated("a", "4");
+        assertEquals("4", event.associated("a", String.class).get());
+        event.setAssociated("b", null);
+        assertFalse(event.associated("b", Integer.class).isPresent());
+        assertEquals("3", event.associated("c", String.class).get());
+        event.setAssociated("a", null).setAssociated("c", null);
+        assertFalse(event.associated("c", String.class).isPresent());
+    }
+
+    @Test
+    public void testLazyState() {
+        Event<Void> event = new Event<>();
+        assertTrue(event.completionEvents().isEmpty());
+        assertFalse(event.deadline().isPresent());
+        Event<Void> completion = new Event<>();
+        event.addCompletionEvent(completion);
+        assertEquals(1, event.completionEvents().size());
+        assertTrue(event.completionEvents().contains(completion));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.core.test.core;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jgrapes.core.Component;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.Event;
+import org.jgrapes.core.EventPipeline;
+import org.jgrapes.core.OverloadDetector;
+import org.jgrapes.core.annotation.Handler;
+import org.jgrapes.core.events.Overloaded;
+import org.jgrapes.core.events.Recovered;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class OverloadDetectorTest {
+
+    public static class Work extends Event<Void> {
+    }
+
+    public static class TestApp extends Component {
+
+        public StringBuffer sequence = new StringBuffer();
+
+        @Handler
+        public void onWork(Work event) throws InterruptedException {
+            Thread.sleep(30);
+        }
+
+        @Handler
+        public void onOverloaded(Overloaded event) {
+            sequence.append('O');
+        }
+
+        @Handler
+        public void onRecovered(Recovered event) {
+            sequence.append('R');
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testOverloadAndRecover() throws InterruptedException {
+        TestApp app = new TestApp();
+        EventPipeline pipeline = app.newEventPipeline();
+        // Isolated from the other pipelines in the VM
+        AtomicInteger queued = new AtomicInteger();
+        OverloadDetector detector = new OverloadDetector(app)
+            .setSampleInterval(Duration.ofMillis(20))
+            .setGlobalThresholds(5, 1, Duration.ofMillis(100),
+                Duration.ofMillis(40))
+            .setLoadSource(consumer -> {
+                consumer.accept(pipeline, queued.get(), 0);
+                return 0;
+            });
+        app.attach(detector);
+        Components.start(app);
+        queued.set(20);
+        while (!detector.isOverloaded()) {
+            Thread.sleep(10);
+        }
+        // Not yet below lower threshold
+        queued.set(3);
+        Thread.sleep(100);
+        assertTrue(detector.isOverloaded());
+        queued.set(0);
+        while (detector.isOverloaded()) {
+            Thread.sleep(10);
+        }
+        Components.awaitExhaustion();
+        assertEquals("OR", app.sequence.toString());
+    }
+
+    @Test(timeout = 10000)
+    public void testPipelineLoad() throws InterruptedException {
+        TestApp app = new TestApp();
+        OverloadDetector detector = new OverloadDetector(app)
+            .setSampleInterval(Duration.ofMillis(20))
+            .setGlobalThresholds(5, 1, Duration.ofMillis(100),
+                Duration.ofMillis(40));
+        app.attach(detector);
+        Components.start(app);
+        for (int i = 0; i < 20; i++) {
+            app.fire(new Work());
+        }
+        // Evaluates the pipelines in the VM
+        while (!detector.isOverloaded()) {
+            Thread.sleep(10);
+        }
+        while (detector.isOverloaded()) {
+            Thread.sleep(10);
+        }
+    }
+
+}
@@ -57,6 +57,8 @@ import org.jgrapes.core.Components;
 import org.jgrapes.core.EventPipeline;
 import org.jgrapes.core.annotation.Handler;
 import org.jgrapes.core.annotation.HandlerDefinition.ChannelReplacements;
+import org.jgrapes.core.events.Overloaded;
+import org.jgrapes.core.events.Recovered;
 import org.jgrapes.core.internal.EventProcessor;
 import org.jgrapes.http.events.ProtocolSwitchAccepted;
 import org.jgrapes.http.events.Request;
@@ -93,6 +95,11 @@ import org.jgrapes.net.events.Accepted;
  * or {@link Input} events only (to be precise: while handling events 
  * processed by the associated {@link EventProcessor}) to ensure
  * that responses and their associated data do not interleave. 
+ * 
+ * While the system is overloaded (i.e. after an {@link Overloaded}
+ * event for the global state has been received on the server's 
+ * channel and until the corresponding {@link Recovered} event),
+ * new requests are answered with "503 Service Unavailable".
  */
 @SuppressWarnings("PMD.ExcessiveImports")
 public class HttpServer extends Component {
@@ -102,6 +109,7 @@ public class HttpServer extends Component {
     private int matchLevels = 1;
     private boolean acceptNoSni;
     private int applicationBufferSize = -1;
+    private volatile boolean overloaded;
 
     /**
      * Denotes the network channel in handler annotations.
@@ -375,6 +383,30 @@ public class HttpServer extends Component {
             appChannel, HttpStatus.NOT_IMPLEMENTED);
     }
 
+    /**
+     * Starts rejecting requests while the system is overloaded.
+     *
+     * @param event the event
+     */
+    @Handler
+    public void onOverloaded(Overloaded event) {
+        if (event.pipeline().isEmpty()) {
+            overloaded = true;
+        }
+    }
+
+    /**
+     * Stops rejecting requests.
+     *
+     * @param event the event
+     */
+    @Handler
+    public void onRecovered(Recovered event) {
+        if (event.pipeline().isEmpty()) {
+            overloaded = false;
+        }
+    }
+
     /**
      * Provides a fallback handler for an OPTIONS request with asterisk. Simply
      * responds with "OK".
@@ -565,6 +597,11 @@ public class HttpServer extends Component {
                         currentPool = byteBufferPool;
                     }
                 }
+                if (overloaded) {
+                    ResponseCreationSupport.sendResponse(httpRequest, this,
+                        503, "Service Unavailable");
+                    return false;
+                }
                 if (secure) {
                     if (!snis.contains(httpRequest.host())) {
                         if (acceptNoSni && snis.isEmpty()) {
@@ -20,111 +20,274 @@ package org.jgrapes.io;
 
 import java.io.IOException;
 import java.io.InterruptedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.CancelledKeyException;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import org.jgrapes.core.Channel;
 import org.jgrapes.core.Component;
 import org.jgrapes.core.Components;
+import org.jgrapes.core.Manager;
 import org.jgrapes.core.annotation.Handler;
 import org.jgrapes.core.events.Start;
 import org.jgrapes.core.events.Stop;
 import org.jgrapes.io.events.NioRegistration;
+import org.jgrapes.util.events.ConfigurationUpdate;
 
 /**
  * A helper component that provides the central hub for non blocking
  * I/O components. Exactly one {@code NioDispatcher} must exist in
  * any tree with {@link NioHandler} components. 
+ * 
+ * By default, the dispatcher uses a single {@link Selector} that is
+ * run by a single thread. Because all reads, accepts and changes
+ * of interest in operations pass through this thread, it can become
+ * the bottleneck of a server with many busy connections. The dispatcher
+ * can therefore be configured to use several selectors, each with
+ * its own thread (see {@link #setSelectors(int)}). Channels are 
+ * assigned to one of the selectors when they are registered, using
+ * the strategy set with {@link #setBalancing(Balancing)}.
+ * 
+ * Changes of the operations that a channel is interested in
+ * (see {@link NioRegistration.Registration#updateInterested(int)})
+ * are applied immediately when made by the selector's thread.
+ * Changes made by other threads are queued and applied by the
+ * selector's thread before it selects again. The selector is only
+ * woken up if it is blocked in {@link Selector#select()}.
+ * 
+ * For latency sensitive applications on dedicated hosts, the selector 
+ * threads can poll for ready channels with {@link Selector#selectNow()}
+ * for some time before blocking (see {@link #setBusyPoll(Duration)}).
+ * This avoids the latency of waking up a blocked thread at the cost 
+ * of keeping a CPU busy.
  */
-public class NioDispatcher extends Component implements Runnable {
+@SuppressWarnings({ "PMD.ExcessiveImports", "PMD.GodClass" })
+public class NioDispatcher extends Component {
+
+    /**
+     * The strategies for assigning a channel to a selector.
+     */
+    public enum Balancing {
+        /** Use the selectors in turn. */
+        ROUND_ROBIN,
+        /** Use the selector with the least registered channels. */
+        LEAST_LOADED
+    }
 
-    private final Selector selector;
-    private Thread runner;
-    private final Object selectorGate = new Object();
+    private final List<SelectorThread> selectors
+        = new CopyOnWriteArrayList<>();
+    private int selectorCount;
+    private Balancing balancing = Balancing.ROUND_ROBIN;
+    private final AtomicInteger nextSelector = new AtomicInteger();
+    private volatile long busyPollNanos;
+    private boolean running;
+    private ObjectName mbeanName;
 
     /**
-     * Creates a new Dispatcher.
+     * Creates a new Dispatcher with a single selector.
      * 
      * @throws IOException if an I/O exception occurred
      */
     public NioDispatcher() throws IOException {
-        selector = Selector.open();
+        this(Channel.SELF, 1);
     }
 
     /**
-     * Starts this dispatcher. A dispatcher has an associated thread that
-     * keeps it running.
+     * Creates a new Dispatcher that uses the given number of 
+     * selectors and attaches its handlers to the given channel.
      * 
-     * @param event the event
+     * @param componentChannel the component's channel
+     * @param selectors the number of selectors
+     * @throws IOException if an I/O exception occurred
      */
-    @Handler
-    public void onStart(Start event) {
+    public NioDispatcher(Channel componentChannel, int selectors)
+            throws IOException {
+        super(componentChannel);
+        selectorCount = Math.max(1, selectors);
+        // Make sure that errors opening a selector show up early.
+        this.selectors.add(new SelectorThread(0));
+    }
+
+    /**
+     * Sets the number of selectors. If the dispatcher is already 
+     * running, additional selectors are started immediately, while
+     * a reduction only becomes effective when the dispatcher
+     * is restarted.
+     *
+     * @param selectors the number of selectors
+     * @return the nio dispatcher for easy chaining
+     * @throws IOException if an I/O exception occurred
+     */
+    public NioDispatcher setSelectors(int selectors) throws IOException {
         synchronized (this) {
-            if (runner != null && !runner.isInterrupted()) {
-                return;
+            selectorCount = Math.max(1, selectors);
+            if (running) {
+                adjustSelectors();
             }
-            runner = new Thread(this, Components.simpleObjectName(this));
-            runner.start();
         }
+        return this;
+    }
+
+    /**
+     * Returns the number of selectors.
+     *
+     * @return the number of selectors
+     */
+    public int selectors() {
+        return selectorCount;
     }
 
     /**
-     * Stops the thread that is associated with this dispatcher.
+     * Sets the strategy for assigning new channels to selectors.
+     * Defaults to {@link Balancing#ROUND_ROBIN}.
+     *
+     * @param balancing the balancing
+     * @return the nio dispatcher for easy chaining
+     */
+    public NioDispatcher setBalancing(Balancing balancing) {
+        this.balancing = balancing;
+        return this;
+    }
+
+    /**
+     * Returns the strategy for assigning new channels to selectors.
+     *
+     * @return the balancing
+     */
+    public Balancing balancing() {
+        return balancing;
+    }
+
+    /**
+     * Sets the time that a selector thread polls for ready channels
+     * before blocking in {@link Selector#select()}. The thread
+     * keeps a CPU busy while polling. Defaults to zero, i.e. 
+     * polling is disabled.
+     *
+     * @param busyPoll the time to poll
+     * @return the nio dispatcher for easy chaining
+     */
+    public NioDispatcher setBusyPoll(Duration busyPoll) {
+        busyPollNanos = Math.max(0, busyPoll.toNanos());
+        return this;
+    }
+
+    /**
+     * Returns the time that a selector thread polls for ready
+     * channels before blocking.
+     *
+     * @return the time
+     */
+    public Duration busyPoll() {
+        return Duration.ofNanos(busyPollNanos);
+    }
+
+    /**
+     * The component can be configured with events that include
+     * a path (see @link {@link ConfigurationUpdate#paths()})
+     * that matches this components path (see {@link Manager#componentPath()}).
+     * 
+     * The following properties are recognized:
+     * 
+     * `selectors`
+     * : See {@link #setSelectors(int)}.
+     * 
+     * `balancing`
+     * : The name of a {@link Balancing} value, 
+     *   see {@link #setBalancing(Balancing)}.
+     * 
+     * `busyPollTime`
+     * : The time to poll in microseconds, 
+     *   see {@link #setBusyPoll(Duration)}.
+     * 
+     * @param event the event
+     * @throws IOException if an I/O exception occurred
+     */
+    @Handler
+    public void onConfigurationUpdate(ConfigurationUpdate event)
+            throws IOException {
+        Optional<String> value = event.value(componentPath(), "selectors");
+        if (value.isPresent()) {
+            setSelectors(Integer.parseInt(value.get()));
+        }
+        event.value(componentPath(), "balancing").map(Balancing::valueOf)
+            .ifPresent(this::setBalancing);
+        event.value(componentPath(), "busyPollTime").map(Long::parseLong)
+            .map(micros -> Duration.ofNanos(micros * 1000))
+            .ifPresent(this::setBusyPoll);
+    }
+
+    /**
+     * Starts this dispatcher. A dispatcher has an associated thread 
+     * for each selector that keeps it running.
      * 
      * @param event the event
+     * @throws IOException if an I/O exception occurred
      * @throws InterruptedException if the execution is interrupted
      */
-    @Handler(priority = -10_000)
-    public void onStop(Stop event) throws InterruptedException {
+    @Handler
+    public void onStart(Start event)
+            throws IOException, InterruptedException {
         synchronized (this) {
-            if (runner == null) {
+            if (running) {
                 return;
             }
-            // It just might happen that the wakeup() occurs between the
-            // check for running and the select() in the thread's run loop,
-            // but we -- obviously -- cannot put the select() in a
-            // synchronized(this).
-            while (runner.isAlive()) {
-                runner.interrupt(); // *Should* be sufficient, but...
-                selector.wakeup(); // Make sure
-                runner.join(10);
+            running = true;
+            while (selectors.size() > selectorCount) {
+                selectors.remove(selectors.size() - 1).close();
             }
-            runner = null;
+            adjustSelectors();
+            registerMBean();
+        }
+    }
+
+    private void adjustSelectors() throws IOException {
+        while (selectors.size() < selectorCount) {
+            selectors.add(new SelectorThread(selectors.size()));
+        }
+        for (SelectorThread selector : selectors) {
+            selector.start();
         }
     }
 
     /**
-     * Invoked once by the thread associated with the dispatcher. Handles
-     * all events from the underlying {@link Selector}.  
+     * Stops the threads that are associated with this dispatcher.
+     * 
+     * @param event the event
+     * @throws InterruptedException if the execution is interrupted
      */
-    @Override
-    @SuppressWarnings({ "PMD.EmptySynchronizedBlock", "PMD.EmptyCatchBlock",
-        "PMD.AvoidCatchingThrowable", "PMD.EmptyControlStatement" })
-    public void run() {
-        try {
-            registerAsGenerator();
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    selector.select();
-                    Set<SelectionKey> selected = selector.selectedKeys();
-                    for (SelectionKey key : selected) {
-                        ((NioHandler) key.attachment())
-                            .handleOps(key.readyOps());
-                    }
-                    selected.clear();
-                    synchronized (selectorGate) {
-                        // Delay next iteration if another thread has the lock.
-                        // "Find bugs" complains, but this is really okay.
-                    }
-                } catch (InterruptedIOException | InterruptedException
-                        | Error e) {
-                    break;
-                } catch (Throwable e) {
-                    // Ignore anything else, this loop is crucial.
-                }
+    @Handler(priority = -10_000)
+    public void onStop(Stop event) throws InterruptedException {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            for (SelectorThread selector : selectors) {
+                selector.stop();
             }
-        } finally {
-            unregisterAsGenerator();
+            running = false;
+            unregisterMBean();
         }
     }
 
@@ -140,13 +303,274 @@ public class NioDispatcher extends Component implements Runnable {
         @SuppressWarnings("PMD.CloseResource")
         SelectableChannel channel = event.ioChannel();
         channel.configureBlocking(false);
-        SelectionKey key;
-        synchronized (selectorGate) {
-            selector.wakeup(); // make sure selector isn't blocking
-            key = channel.register(
-                selector, event.ops(), event.handler());
+        event.setResult(selectFor().register(channel, event));
+    }
+
+    /**
+     * Chooses the selector for a new registration.
+     *
+     * @return the selector thread
+     */
+    private SelectorThread selectFor() {
+        List<SelectorThread> current = selectors;
+        int available = Math.min(current.size(), selectorCount);
+        if (available <= 1) {
+            return current.get(0);
+        }
+        if (balancing == Balancing.LEAST_LOADED) {
+            SelectorThread result = current.get(0);
+            for (int i = 1; i < available; i++) {
+                if (current.get(i).keys() < result.keys()) {
+                    result = current.get(i);
+                }
+            }
+            return result;
+        }
+        return current.get(
+            Math.floorMod(nextSelector.getAndIncrement(), available));
+    }
+
+    /**
+     * A selector together with the thread that runs it.
+     */
+    private class SelectorThread implements Runnable {
+
+        private final int index;
+        private final Selector selector;
+        private final Object selectorGate = new Object();
+        private final Queue<Registration> pendingUpdates
+            = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean blocked = new AtomicBoolean();
+        private final AtomicLong wakeups = new AtomicLong();
+        private Thread runner;
+        // Only updated by runner
+        private volatile long selects;
+        private volatile long handledOps;
+        private volatile long handleOpsNanos;
+        private volatile long polls;
+        private volatile long pollHits;
+
+        /**
+         * Instantiates a new selector thread.
+         *
+         * @param index the index
+         * @throws IOException Signals that an I/O exception has occurred.
+         */
+        public SelectorThread(int index) throws IOException {
+            this.index = index;
+            selector = Selector.open();
+        }
+
+        /**
+         * Returns the number of registered channels.
+         *
+         * @return the number
+         */
+        public int keys() {
+            // Unsynchronized, but a good enough estimate
+            return selector.keys().size();
+        }
+
+        /**
+         * Starts the thread (if it isn't running already).
+         */
+        public void start() {
+            synchronized (this) {
+                if (runner != null && !runner.isInterrupted()) {
+                    return;
+                }
+                String name = Components.simpleObjectName(NioDispatcher.this);
+                runner = new Thread(this,
+                    index == 0 ? name : name + "-" + index);
+                runner.start();
+            }
+        }
+
+        /**
+         * Stops the thread.
+         *
+         * @throws InterruptedException the interrupted exception
+         */
+        public void stop() throws InterruptedException {
+            synchronized (this) {
+                if (runner == null) {
+                    return;
+                }
+                // It just might happen that the wakeup() occurs between the
+                // check for running and the select() in the thread's run 
+                // loop, but we -- obviously -- cannot put the select() in a
+                // synchronized(this).
+                while (runner.isAlive()) {
+                    runner.interrupt(); // *Should* be sufficient, but...
+                    selector.wakeup(); // Make sure
+                    runner.join(10);
+                }
+                runner = null;
+            }
+        }
+
+        /**
+         * Stops the thread and closes the selector.
+         *
+         * @throws InterruptedException the interrupted exception
+         */
+        @SuppressWarnings("PMD.EmptyCatchBlock")
+        public void close() throws InterruptedException {
+            stop();
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Nothing we can do
+            }
+        }
+
+        /**
+         * Invoked once by the thread associated with the selector. Handles
+         * all events from the underlying {@link Selector}.  
+         */
+        @Override
+        @SuppressWarnings({ "PMD.EmptySynchronizedBlock",
+            "PMD.EmptyCatchBlock", "PMD.AvoidCatchingThrowable",
+            "PMD.EmptyControlStatement" })
+        public void run() {
+            try {
+                registerAsGenerator();
+                while (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        applyPendingUpdates();
+                        select();
+                        selects += 1;
+                        Set<SelectionKey> selected = selector.selectedKeys();
+                        if (!selected.isEmpty()) {
+                            long started = System.nanoTime();
+                            for (SelectionKey key : selected) {
+                                ((NioHandler) key.attachment())
+                                    .handleOps(key.readyOps());
+                            }
+                            handledOps += selected.size();
+                            handleOpsNanos += System.nanoTime() - started;
+                            selected.clear();
+                        }
+                        synchronized (selectorGate) {
+                            // Delay next iteration if another thread has 
+                            // the lock. "Find bugs" complains, but this is 
+                            // really okay.
+                        }
+                    } catch (InterruptedIOException | InterruptedException
+                            | Error e) {
+                        break;
+                    } catch (Throwable e) {
+                        // Ignore anything else, this loop is crucial.
+                    }
+                }
+            } finally {
+                unregisterAsGenerator();
+            }
+        }
+
+        /**
+         * Selects, blocking only if there are no pending updates.
+         * The flag is set before checking the queue and checked
+         * by {@link #queueUpdate(Registration)} after adding
+         * to the queue. So either the update is found here or
+         * the selector is woken up.
+         *
+         * @throws IOException Signals that an I/O exception has occurred.
+         */
+        private void select() throws IOException {
+            long budget = busyPollNanos;
+            if (budget > 0 && poll(budget)) {
+                return;
+            }
+            blocked.set(true);
+            if (pendingUpdates.isEmpty()) {
+                selector.select();
+            } else {
+                selector.selectNow();
+            }
+            blocked.set(false);
+        }
+
+        /**
+         * Polls for ready channels until some are found, updates
+         * are pending or the budget is used up.
+         *
+         * @param budget the budget in nanoseconds
+         * @return true if the caller needn't block
+         * @throws IOException Signals that an I/O exception has occurred.
+         */
+        private boolean poll(long budget) throws IOException {
+            long deadline = System.nanoTime() + budget;
+            do {
+                polls += 1;
+                if (selector.selectNow() > 0) {
+                    pollHits += 1;
+                    return true;
+                }
+                if (!pendingUpdates.isEmpty()
+                    || Thread.currentThread().isInterrupted()) {
+                    return true;
+                }
+                Thread.onSpinWait();
+            } while (System.nanoTime() - deadline < 0);
+            return false;
+        }
+
+        /**
+         * Applies the changes of interest ops queued by other threads.
+         */
+        @SuppressWarnings("PMD.EmptyCatchBlock")
+        private void applyPendingUpdates() {
+            Registration registration;
+            while ((registration = pendingUpdates.poll()) != null) {
+                // Clear the flag before reading the ops, a concurrent
+                // update is either seen here or queues the registration
+                // again.
+                registration.queued.set(false);
+                try {
+                    registration.key
+                        .interestOps(registration.pendingOps);
+                } catch (CancelledKeyException e) {
+                    // Channel has been closed meanwhile
+                }
+            }
+        }
+
+        /**
+         * Queues a registration with changed interest ops.
+         *
+         * @param registration the registration
+         */
+        private void queueUpdate(Registration registration) {
+            if (!registration.queued.compareAndSet(false, true)) {
+                // Already queued, pending ops will be picked up
+                return;
+            }
+            pendingUpdates.add(registration);
+            if (blocked.compareAndSet(true, false)) {
+                wakeups.incrementAndGet();
+                selector.wakeup();
+            }
+        }
+
+        /**
+         * Registers the channel with this selector.
+         *
+         * @param channel the channel
+         * @param event the event
+         * @return the registration
+         * @throws IOException Signals that an I/O exception has occurred.
+         */
+        public Registration register(SelectableChannel channel,
+                NioRegistration event) throws IOException {
+            SelectionKey key;
+            synchronized (selectorGate) {
+                selector.wakeup(); // make sure selector isn't blocking
+                key = channel.register(
+                    selector, event.ops(), event.handler());
+            }
+            return new Registration(this, key);
         }
-        event.setResult(new Registration(key));
     }
 
     /**
@@ -154,25 +578,211 @@ public class NioDispatcher extends Component implements Runnable {
      */
     public class Registration extends NioRegistration.Registration {
 
+        private final SelectorThread selector;
         private final SelectionKey key;
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private volatile int pendingOps;
 
         /**
          * Instantiates a new registration.
          *
+         * @param selector the selector thread
          * @param key the key
          */
-        public Registration(SelectionKey key) {
+        private Registration(SelectorThread selector, SelectionKey key) {
             super();
+            this.selector = selector;
             this.key = key;
         }
 
         @Override
         public void updateInterested(int ops) {
-            synchronized (selectorGate) {
-                selector.wakeup(); // make sure selector isn't blocking
+            // Always recorded, a queued update must not overwrite a
+            // later update made by the selector's thread
+            pendingOps = ops;
+            if (Thread.currentThread() == selector.runner) {
                 key.interestOps(ops);
+                return;
+            }
+            selector.queueUpdate(this);
+        }
+    }
+
+    /**
+     * The Interface of the NioDispatcher MXBean.
+     */
+    public interface NioDispatcherMXBean {
+
+        /**
+         * Information about a selector.
+         */
+        class SelectorInfo {
+
+            private final SelectorThread selector;
+
+            /**
+             * Instantiates a new selector info.
+             *
+             * @param selector the selector
+             */
+            private SelectorInfo(SelectorThread selector) {
+                this.selector = selector;
+            }
+
+            /**
+             * Gets the number of registered channels.
+             *
+             * @return the value
+             */
+            public int getKeys() {
+                return selector.keys();
+            }
+
+            /**
+             * Gets the number of invocations of select.
+             *
+             * @return the value
+             */
+            public long getSelects() {
+                return selector.selects;
+            }
+
+            /**
+             * Gets the number of ready operations handled.
+             *
+             * @return the value
+             */
+            public long getHandledOps() {
+                return selector.handledOps;
+            }
+
+            /**
+             * Gets the accumulated time spent for handling the 
+             * ready operations in milliseconds.
+             *
+             * @return the value
+             */
+            public long getHandleOpsTime() {
+                return selector.handleOpsNanos / 1_000_000;
+            }
+
+            /**
+             * Gets the number of times that the blocked selector
+             * had to be woken up to apply a change of interest ops.
+             *
+             * @return the value
+             */
+            public long getWakeups() {
+                return selector.wakeups.get();
+            }
+
+            /**
+             * Gets the number of polls for ready channels.
+             *
+             * @return the value
+             */
+            public long getPolls() {
+                return selector.polls;
+            }
+
+            /**
+             * Gets the ratio of polls that found ready channels.
+             *
+             * @return the value
+             */
+            public double getPollHitRatio() {
+                long polls = selector.polls;
+                return polls == 0 ? 0 : (double) selector.pollHits / polls;
             }
         }
+
+        /**
+         * Gets the component path.
+         *
+         * @return the component path
+         */
+        String getComponentPath();
+
+        /**
+         * Gets the balancing strategy.
+         *
+         * @return the balancing
+         */
+        String getBalancing();
+
+        /**
+         * Gets the time that selectors poll before blocking 
+         * in microseconds.
+         *
+         * @return the busy poll time
+         */
+        long getBusyPollTime();
+
+        /**
+         * Gets information about the selectors.
+         *
+         * @return the selectors
+         */
+        SortedMap<String, SelectorInfo> getSelectors();
     }
 
+    /**
+     * The MBean view.
+     */
+    private class MBeanView implements NioDispatcherMXBean {
+
+        @Override
+        public String getComponentPath() {
+            return componentPath();
+        }
+
+        @Override
+        public String getBalancing() {
+            return balancing.name();
+        }
+
+        @Override
+        public long getBusyPollTime() {
+            return busyPollNanos / 1000;
+        }
+
+        @Override
+        @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+        public SortedMap<String, SelectorInfo> getSelectors() {
+            SortedMap<String, SelectorInfo> result = new TreeMap<>();
+            for (SelectorThread selector : new ArrayList<>(selectors)) {
+                result.put(String.format("%03d", selector.index),
+                    new SelectorInfo(selector));
+            }
+            return result;
+        }
+    }
+
+    @SuppressWarnings("PMD.EmptyCatchBlock")
+    private void registerMBean() {
+        try {
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            mbeanName = new ObjectName("org.jgrapes.io:type="
+                + NioDispatcher.class.getSimpleName() + ",name="
+                + ObjectName.quote(Components.objectName(this)));
+            mbs.registerMBean(new MBeanView(), mbeanName);
+        } catch (MalformedObjectNameException | InstanceAlreadyExistsException
+                | MBeanRegistrationException | NotCompliantMBeanException e) {
+            // Have to live with that
+        }
+    }
+
+    @SuppressWarnings("PMD.EmptyCatchBlock")
+    private void unregisterMBean() {
+        if (mbeanName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                .unregisterMBean(mbeanName);
+        } catch (MBeanRegistrationException | InstanceNotFoundException e) {
+            // Should work
+        }
+        mbeanName = null;
+    }
 }
@@ -0,0 +1,194 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.io.events;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jgrapes.core.Channel;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.Event;
+
+/**
+ * Causes a region of a file to be sent on the channel that this
+ * event is fired on. In contrast to {@link Output} events, the data
+ * does not have to be read into buffers first. A component that writes
+ * to a network connection can therefore pass the data directly
+ * from the file to the connection using 
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)},
+ * which avoids copying the data through the JVM's memory.
+ * 
+ * Components that have to transform the data (e.g. encrypt it)
+ * handle this event by reading the region and processing it like 
+ * the data from {@link Output} events.
+ * 
+ * Like the buffer of an {@link IOEvent}, the region is locked while
+ * the event is being processed. A component that continues to use 
+ * the region after the event has been handled must invoke 
+ * {@link #lockRegion()} and later {@link #unlockRegion()}. If 
+ * the event has been created with {@link #of(Path, boolean)},
+ * the file is closed when the last lock has been released.
+ */
+public class FileRegion extends Event<Void> {
+
+    private final FileChannel file;
+    private final long position;
+    private final long count;
+    private final boolean eor;
+    private final boolean closeFile;
+    private final AtomicInteger lockCount = new AtomicInteger(1);
+
+    /**
+     * Creates a new event for the given region of the file. 
+     * The file is not closed when the region has been sent.
+     *
+     * @param file the file
+     * @param position the position of the region's start
+     * @param count the number of bytes in the region
+     * @param endOfRecord if the event ends a data record
+     */
+    public FileRegion(FileChannel file, long position, long count,
+            boolean endOfRecord) {
+        this(file, position, count, endOfRecord, false);
+    }
+
+    private FileRegion(FileChannel file, long position, long count,
+            boolean endOfRecord, boolean closeFile) {
+        this.file = file;
+        this.position = position;
+        this.count = count;
+        this.eor = endOfRecord;
+        this.closeFile = closeFile;
+    }
+
+    /**
+     * Creates a new event for the complete content of the file with 
+     * the given path. The file is opened by this method and closed
+     * when the region has been sent.
+     *
+     * @param path the path
+     * @param endOfRecord if the event ends a data record
+     * @return the event
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    @SuppressWarnings("PMD.CloseResource")
+    public static FileRegion of(Path path, boolean endOfRecord)
+            throws IOException {
+        FileChannel file = FileChannel.open(path, StandardOpenOption.READ);
+        return new FileRegion(file, 0, file.size(), endOfRecord, true);
+    }
+
+    /**
+     * Returns the file.
+     *
+     * @return the file
+     */
+    public FileChannel file() {
+        return file;
+    }
+
+    /**
+     * Returns the position of the region's start in the file.
+     *
+     * @return the position
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * Returns the number of bytes in the region.
+     *
+     * @return the count
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Return the end of record flag passed to the constructor.
+     * 
+     * @return the end of record flag
+     */
+    public boolean isEndOfRecord() {
+        return eor;
+    }
+
+    /**
+     * Increases the region's lock count.
+     * 
+     * @return the event for easy chaining
+     */
+    public FileRegion lockRegion() {
+        lockCount.incrementAndGet();
+        return this;
+    }
+
+    /**
+     * Decreases the region's lock count. If the lock count reaches
+     * zero and the file has been opened by {@link #of(Path, boolean)},
+     * the file is closed.
+     */
+    @SuppressWarnings("PMD.EmptyCatchBlock")
+    public void unlockRegion() {
+        if (lockCount.decrementAndGet() == 0 && closeFile) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                // Nothing we can do
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.jgrapes.core.internal.EventBase#handled()
+     */
+    @Override
+    protected void handled() {
+        unlockRegion();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(Components.objectName(this))
+            .append(" [");
+        if (channels().length > 0) {
+            builder.append("channels=");
+            builder.append(Channel.toString(channels()));
+        }
+        builder.append(",position=")
+            .append(position)
+            .append(",count=")
+            .append(count)
+            .append(",eor=")
+            .append(eor)
+            .append(']');
+        return builder.toString();
+    }
+}
@@ -21,10 +21,15 @@ package org.jgrapes.io.events;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Path;
 import org.jgrapes.core.Event;
 
 /**
- * 
+ * Signals that a new socket connection should be opened. The address 
+ * may be an {@link InetSocketAddress} for a TCP connection or a 
+ * {@link UnixDomainSocketAddress} for a connection to a Unix domain
+ * socket.
  */
 public class OpenSocketConnection extends Event<Void> {
 
@@ -49,6 +54,16 @@ public class OpenSocketConnection extends Event<Void> {
         this.address = new InetSocketAddress(address, port);
     }
 
+    /**
+     * Signals that a new connection to a Unix domain socket should 
+     * be opened.
+     *
+     * @param path the path of the socket file
+     */
+    public OpenSocketConnection(Path path) {
+        this.address = UnixDomainSocketAddress.of(path);
+    }
+
     /**
      * Gets the address.
      *
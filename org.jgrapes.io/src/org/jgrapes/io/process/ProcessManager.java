@@ -290,8 +290,15 @@ public class ProcessManager extends Component {
          */
         private void write(Output<ByteBuffer> event) throws IOException {
             var source = event.buffer().backingBuffer();
-            process.getOutputStream().write(source.array(), source.position(),
-                source.remaining());
+            if (source.hasArray()) {
+                process.getOutputStream().write(source.array(),
+                    source.arrayOffset() + source.position(),
+                    source.remaining());
+                return;
+            }
+            byte[] data = new byte[source.remaining()];
+            source.duplicate().get(data);
+            process.getOutputStream().write(data);
         }
 
         private void startIO() {
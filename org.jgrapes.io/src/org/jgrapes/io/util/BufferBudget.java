@@ -0,0 +1,324 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.io.util;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EventListener;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jgrapes.core.Components;
+
+/**
+ * Limits the memory used by the buffers of the {@link ManagedBufferPool}s
+ * that use the budget (see {@link ManagedBufferPool#setBudget}). 
+ * A pool reserves the size of a buffer (in bytes) against the budget
+ * before creating it and releases the reservation when it discards
+ * the buffer. If the reservation fails, the pools are drained of their
+ * idle buffers and the reservation is retried. If it fails again,
+ * the pool doesn't create the buffer, i.e. {@link ManagedBufferPool#acquire()}
+ * waits and {@link ManagedBufferPool#tryAcquire()} returns `null` until
+ * reservations have been released.
+ * 
+ * When the memory used exceeds 90% of the limit, the budget is 
+ * considered to be running low and the listeners are notified.
+ * They are notified again when the usage has dropped below 75%.
+ * A {@link org.jgrapes.net.SocketServer}, e.g., stops accepting 
+ * connections while its budget is running low.
+ * 
+ * The size of a buffer is reserved when the buffer is created.
+ * Backing buffers that are replaced by a buffer of different size
+ * (as done for adaptive buffer sizes) must be replaced using
+ * {@link ManagedBufferPool#replaceBackingBuffer}, which adjusts
+ * the reservation.
+ * 
+ * Listeners are added using {@link WeakReference}, so removing
+ * them isn't strictly necessary.
+ */
+public class BufferBudget {
+
+    private static final Set<BufferBudget> BUDGETS = Collections
+        .synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private static final BufferBudget GLOBAL = new BufferBudget("global", 0);
+
+    private final String name;
+    @SuppressWarnings("PMD.AvoidUsingVolatile")
+    private volatile long limit;
+    private final AtomicLong used = new AtomicLong();
+    private final List<WeakReference<Listener>> listeners
+        = new LinkedList<>();
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    @SuppressWarnings("PMD.AvoidUsingVolatile")
+    private volatile boolean low;
+
+    /**
+     * Notified when the budget starts or stops running low.
+     */
+    @FunctionalInterface
+    public interface Listener extends EventListener {
+
+        /**
+         * Called when the state has changed.
+         *
+         * @param budget the budget
+         * @param low whether the budget is running low
+         */
+        void budgetChanged(BufferBudget budget, boolean low);
+    }
+
+    /**
+     * Creates a new budget.
+     *
+     * @param name the name (used in status reports)
+     * @param limit the limit in bytes, 0 means no limit
+     */
+    public BufferBudget(String name, long limit) {
+        this.name = name;
+        this.limit = limit;
+        BUDGETS.add(this);
+    }
+
+    /**
+     * Creates a new budget with a generated name.
+     *
+     * @param limit the limit in bytes, 0 means no limit
+     */
+    public BufferBudget(long limit) {
+        this(null, limit);
+    }
+
+    /**
+     * Returns the process wide budget. It is used by the connections
+     * of {@link org.jgrapes.net.SocketServer}s and 
+     * {@link org.jgrapes.net.SocketConnector}s unless configured
+     * otherwise. Its limit is initially 0 (no limit).
+     *
+     * @return the budget
+     */
+    public static BufferBudget global() {
+        return GLOBAL;
+    }
+
+    /* default */ static Set<BufferBudget> budgets() {
+        synchronized (BUDGETS) {
+            return Set.copyOf(BUDGETS);
+        }
+    }
+
+    /**
+     * Returns the name.
+     *
+     * @return the name
+     */
+    public String name() {
+        return name == null ? Components.objectName(this) : name;
+    }
+
+    /**
+     * Sets the limit.
+     *
+     * @param limit the limit in bytes, 0 means no limit
+     * @return the budget for easy chaining
+     */
+    public BufferBudget setLimit(long limit) {
+        this.limit = limit;
+        updateState();
+        resumeWaiting();
+        return this;
+    }
+
+    /**
+     * Returns the limit.
+     *
+     * @return the limit
+     */
+    public long limit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of bytes currently reserved.
+     *
+     * @return the value
+     */
+    public long used() {
+        return used.get();
+    }
+
+    /**
+     * Checks if the budget is running low.
+     *
+     * @return true, if running low
+     */
+    public boolean isLow() {
+        return low;
+    }
+
+    /**
+     * Reserves the given number of bytes. If the limit would be 
+     * exceeded, the idle buffers of all pools are released and
+     * the reservation is retried.
+     *
+     * @param bytes the bytes
+     * @return true, if successful
+     */
+    public boolean reserve(long bytes) {
+        if (tryReserve(bytes)) {
+            return true;
+        }
+        ManagedBufferPool.drainIdle();
+        return tryReserve(bytes);
+    }
+
+    private boolean tryReserve(long bytes) {
+        while (true) {
+            long current = used.get();
+            long currentLimit = limit;
+            if (currentLimit > 0 && current + bytes > currentLimit) {
+                updateState();
+                return false;
+            }
+            if (used.compareAndSet(current, current + bytes)) {
+                if (currentLimit > 0 && !low
+                    && (current + bytes) * 10 > currentLimit * 9) {
+                    updateState();
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases the given number of bytes.
+     *
+     * @param bytes the bytes
+     */
+    public void release(long bytes) {
+        long current = used.addAndGet(-bytes);
+        if (low && current * 4 < limit * 3) {
+            updateState();
+        }
+        resumeWaiting();
+    }
+
+    /**
+     * Invokes the given function once when a reservation has been
+     * released. Used by the pools to resume waiting acquisitions.
+     *
+     * @param whenAvailable the function
+     */
+    /* default */ void whenAvailable(Runnable whenAvailable) {
+        waiting.add(whenAvailable);
+        // Bytes may have been released in the meantime
+        long currentLimit = limit;
+        if (currentLimit == 0 || used.get() < currentLimit) {
+            resumeWaiting();
+        }
+    }
+
+    private void resumeWaiting() {
+        while (true) {
+            Runnable action = waiting.poll();
+            if (action == null) {
+                break;
+            }
+            action.run();
+        }
+    }
+
+    private void updateState() {
+        long currentLimit = limit;
+        long current = used.get();
+        boolean nowLow;
+        List<Listener> copy = new ArrayList<>();
+        synchronized (listeners) {
+            if (low) {
+                nowLow = currentLimit > 0 && current * 4 >= currentLimit * 3;
+            } else {
+                nowLow = currentLimit > 0 && current * 10 > currentLimit * 9;
+            }
+            if (nowLow == low) {
+                return;
+            }
+            low = nowLow;
+            for (Iterator<WeakReference<Listener>> iter
+                = listeners.iterator(); iter.hasNext();) {
+                Listener listener = iter.next().get();
+                if (listener == null) {
+                    iter.remove();
+                    continue;
+                }
+                copy.add(listener);
+            }
+        }
+        for (Listener listener : copy) {
+            listener.budgetChanged(this, nowLow);
+        }
+    }
+
+    /**
+     * Adds a listener.
+     *
+     * @param listener the listener
+     * @return the budget for easy chaining
+     */
+    public BufferBudget addListener(Listener listener) {
+        synchronized (listeners) {
+            listeners.add(new WeakReference<>(listener));
+        }
+        return this;
+    }
+
+    /**
+     * Removes the listener.
+     *
+     * @param listener the listener
+     * @return the budget for easy chaining
+     */
+    public BufferBudget removeListener(Listener listener) {
+        synchronized (listeners) {
+            for (Iterator<WeakReference<Listener>> iter
+                = listeners.iterator(); iter.hasNext();) {
+                Listener item = iter.next().get();
+                if (item == null || item == listener) {
+                    iter.remove();
+                }
+            }
+        }
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "BufferBudget [name=" + name() + ", limit=" + limit
+            + ", used=" + used.get() + "]";
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.io.util;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A view of the data in several {@link ManagedBuffer}s as a single
+ * sequence, without copying the data. The data of the composite
+ * buffer is the remaining data (from position to limit) of the
+ * component buffers in the order in which they have been added.
+ * 
+ * Like a managed buffer, a composite buffer maintains a lock count
+ * that is one when the composite buffer is created. Every component
+ * buffer is locked when it is added. The components are unlocked
+ * when the composite buffer's lock count reaches zero. The components
+ * are therefore kept from being reused as long as the composite
+ * buffer is in use, just as if their lock counts were shared with
+ * the composite buffer.
+ * 
+ * Composite buffers can be used to collect the parts of a frame or
+ * message from several {@link org.jgrapes.io.events.Input} events.
+ * Together with {@link ManagedBuffer#slice(int, int)}, they allow 
+ * a frame to be split and reassembled without copying. If a
+ * consumer needs the data in a single buffer, it can be copied 
+ * with {@link #transferTo(Buffer)}.
+ *
+ * @param <T> the type of the backing buffers
+ */
+public class CompositeBuffer<T extends Buffer> {
+
+    private final List<ManagedBuffer<T>> components = new ArrayList<>();
+    private final AtomicInteger lockCount = new AtomicInteger(1);
+
+    /**
+     * Appends the given buffer to the components. The buffer is locked
+     * until the composite buffer is no longer used.
+     *
+     * @param buffer the buffer
+     * @return the composite buffer for easy chaining
+     */
+    public CompositeBuffer<T> add(ManagedBuffer<T> buffer) {
+        buffer.lockBuffer();
+        synchronized (components) {
+            components.add(buffer);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the component buffers.
+     *
+     * @return the components
+     */
+    public List<ManagedBuffer<T>> components() {
+        synchronized (components) {
+            return Collections.unmodifiableList(new ArrayList<>(components));
+        }
+    }
+
+    /**
+     * Returns the backing buffers of the components. Retrieving data
+     * from these buffers changes the components' positions, i.e. 
+     * consumes the data from the composite buffer. This can be used
+     * to write the data with a single (gathering) write.
+     *
+     * @return the backing buffers
+     */
+    public List<T> backingBuffers() {
+        List<T> result;
+        synchronized (components) {
+            result = new ArrayList<>(components.size());
+            for (var component : components) {
+                result.add(component.backingBuffer());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of elements remaining in all components.
+     *
+     * @return the number of elements
+     */
+    public long remaining() {
+        long remaining = 0;
+        synchronized (components) {
+            for (var component : components) {
+                remaining += component.remaining();
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Checks if any of the components has remaining elements.
+     *
+     * @return true, if there are remaining elements
+     */
+    public boolean hasRemaining() {
+        synchronized (components) {
+            for (var component : components) {
+                if (component.hasRemaining()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a composite buffer with slices (see 
+     * {@link ManagedBuffer#slice(int, int)}) of the components
+     * that represent the given range of the remaining data. No data
+     * is copied. The slices are locked by the returned composite
+     * buffer only, i.e. unlocking the returned composite buffer
+     * releases them.
+     *
+     * @param offset the offset of the range relative to the
+     * start of the remaining data
+     * @param length the number of elements in the range
+     * @return the composite buffer
+     * @throws IndexOutOfBoundsException if the range exceeds the
+     * remaining data
+     */
+    @SuppressWarnings({ "PMD.AvoidUncheckedExceptionsInSignatures",
+        "PMD.AvoidLiteralsInIfCondition" })
+    public CompositeBuffer<T> slice(long offset, long length)
+            throws IndexOutOfBoundsException {
+        if (offset < 0 || length < 0 || offset + length > remaining()) {
+            throw new IndexOutOfBoundsException(
+                "Range exceeds remaining data.");
+        }
+        CompositeBuffer<T> result = new CompositeBuffer<>();
+        long skip = offset;
+        long needed = length;
+        synchronized (components) {
+            for (var component : components) {
+                if (needed == 0) {
+                    break;
+                }
+                int available = component.remaining();
+                if (skip >= available) {
+                    skip -= available;
+                    continue;
+                }
+                int count = (int) Math.min(available - skip, needed);
+                ManagedBuffer<T> slice = component.slice(
+                    component.position() + (int) skip, count);
+                result.add(slice);
+                slice.unlockBuffer();
+                skip = 0;
+                needed -= count;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copies as many remaining elements as fit into the given 
+     * buffer and advances the positions of both the components and the
+     * given buffer. Only composite buffers backed by {@link ByteBuffer}s
+     * or {@link CharBuffer}s are supported.
+     *
+     * @param target the buffer to copy to
+     * @return the number of elements copied
+     */
+    @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
+    public int transferTo(T target) {
+        int copied = 0;
+        synchronized (components) {
+            for (var component : components) {
+                if (!target.hasRemaining()) {
+                    break;
+                }
+                T source = component.backingBuffer();
+                int count = Math.min(source.remaining(), target.remaining());
+                if (count == 0) {
+                    continue;
+                }
+                int limit = source.limit();
+                source.limit(source.position() + count);
+                if (target instanceof ByteBuffer) {
+                    ((ByteBuffer) target).put((ByteBuffer) source);
+                } else if (target instanceof CharBuffer) {
+                    ((CharBuffer) target).put((CharBuffer) source);
+                } else {
+                    source.limit(limit);
+                    throw new IllegalArgumentException(
+                        "Backing buffer of unknown type.");
+                }
+                source.limit(limit);
+                copied += count;
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * Writes the remaining data to the given channel, using a single 
+     * (gathering) write. May only be invoked for composite buffers 
+     * backed by {@link ByteBuffer}s.
+     *
+     * @param channel the channel
+     * @return the number of bytes written
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public long writeTo(GatheringByteChannel channel) throws IOException {
+        List<T> buffers = backingBuffers();
+        ByteBuffer[] sources = new ByteBuffer[buffers.size()];
+        for (int i = 0; i < sources.length; i++) {
+            if (!(buffers.get(i) instanceof ByteBuffer)) {
+                throw new IllegalArgumentException(
+                    "Backing buffer is not a ByteBuffer.");
+            }
+            sources[i] = (ByteBuffer) buffers.get(i);
+        }
+        return channel.write(sources);
+    }
+
+    /**
+     * Increases the buffer's lock count.
+     * 
+     * @return the composite buffer for easy chaining
+     */
+    public CompositeBuffer<T> lockBuffer() {
+        lockCount.incrementAndGet();
+        return this;
+    }
+
+    /**
+     * Decreases the buffer's lock count. If the lock count reaches
+     * zero, the components are unlocked and removed.
+     * 
+     * @throws IllegalStateException if the buffer is not locked or 
+     * has been released already
+     */
+    @SuppressWarnings("PMD.AvoidUncheckedExceptionsInSignatures")
+    public void unlockBuffer() throws IllegalStateException {
+        int locks = lockCount.decrementAndGet();
+        if (locks < 0) {
+            throw new IllegalStateException(
+                "Buffer not locked or released already.");
+        }
+        if (locks > 0) {
+            return;
+        }
+        List<ManagedBuffer<T>> released;
+        synchronized (components) {
+            released = new ArrayList<>(components);
+            components.clear();
+        }
+        for (var component : released) {
+            component.unlockBuffer();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(50);
+        builder.append(getClass().getSimpleName())
+            .append(" [components=");
+        synchronized (components) {
+            builder.append(components.size());
+        }
+        builder.append(", remaining=").append(remaining())
+            .append(", lockCount=").append(lockCount).append(']');
+        return builder.toString();
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.io.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A global allocator for direct byte buffers. Direct buffers
+ * avoid the copy into a temporary direct buffer that the JDK
+ * makes when a heap buffer is passed to a channel's read or write
+ * method. Allocating and freeing direct buffers is expensive, however,
+ * and their memory is only returned when the garbage collector
+ * gets around to collecting them.
+ * 
+ * The slab therefore allocates direct memory in large chunks and
+ * splits the chunks into buffers of fixed sizes ("size classes",
+ * the powers of two from {@link #MIN_SIZE_CLASS} to 
+ * {@link #MAX_SIZE_CLASS} and {@link #RECORD_SIZE_CLASS}, which
+ * avoids doubling the memory used for buffers that must hold a
+ * complete TLS record). Released buffers are put back in a
+ * free list for their size class and handed out again by the next
+ * allocation. Requests for buffers larger than the largest size 
+ * class are satisfied with individually allocated buffers that are 
+ * not recycled.
+ * 
+ * The slab is usually used together with a {@link ManagedBufferPool}:
+ * ```java
+ * DirectBufferSlab.Quota quota = DirectBufferSlab.global().newQuota(0);
+ * new ManagedBufferPool<>(ManagedBuffer::new, 
+ *     () -> quota.allocate(bufferSize), 2)
+ *     .setBufferReleaser(quota::release);
+ * ```
+ */
+public final class DirectBufferSlab {
+
+    /** The smallest size class. */
+    public static final int MIN_SIZE_CLASS = 1024;
+    /** The largest size class. */
+    public static final int MAX_SIZE_CLASS = 1024 * 1024;
+    /**
+     * The size class for buffers with more than 16 KiB that hold
+     * a TLS record (16 KiB of data and the protocol's overhead).
+     */
+    public static final int RECORD_SIZE_CLASS = 17 * 1024;
+    private static final int MIN_SHIFT
+        = Integer.numberOfTrailingZeros(MIN_SIZE_CLASS);
+    private static final int MAX_SHIFT
+        = Integer.numberOfTrailingZeros(MAX_SIZE_CLASS);
+
+    @SuppressWarnings("PMD.FieldNamingConventions")
+    private static final DirectBufferSlab global
+        = new DirectBufferSlab(MAX_SIZE_CLASS);
+
+    private final int chunkSize;
+    private final List<Queue<ByteBuffer>> freeLists;
+    private final AtomicLong reserved = new AtomicLong();
+    private final AtomicLong inUse = new AtomicLong();
+
+    /**
+     * Creates a new slab that allocates the direct memory in chunks
+     * of (at least) the given size.
+     *
+     * @param chunkSize the chunk size
+     */
+    public DirectBufferSlab(int chunkSize) {
+        this.chunkSize = chunkSize;
+        List<Queue<ByteBuffer>> lists = new ArrayList<>();
+        // One more for the record size class
+        for (int i = MIN_SHIFT; i <= MAX_SHIFT + 1; i++) {
+            lists.add(new ConcurrentLinkedQueue<>());
+        }
+        freeLists = List.copyOf(lists);
+    }
+
+    /**
+     * Returns the slab shared by all users in the VM.
+     *
+     * @return the slab
+     */
+    public static DirectBufferSlab global() {
+        return global;
+    }
+
+    /**
+     * Returns the size class used for buffers with at least the
+     * given capacity or -1 if the capacity exceeds the largest
+     * size class. 
+     *
+     * @param capacity the capacity
+     * @return the size class
+     */
+    public static int sizeClass(int capacity) {
+        if (capacity > MAX_SIZE_CLASS) {
+            return -1;
+        }
+        if (capacity <= MIN_SIZE_CLASS) {
+            return MIN_SIZE_CLASS;
+        }
+        int sizeClass = Integer.highestOneBit(capacity - 1) << 1;
+        if (sizeClass > RECORD_SIZE_CLASS && capacity <= RECORD_SIZE_CLASS) {
+            return RECORD_SIZE_CLASS;
+        }
+        return sizeClass;
+    }
+
+    private static int classIndex(int sizeClass) {
+        if (sizeClass == RECORD_SIZE_CLASS) {
+            return MAX_SHIFT - MIN_SHIFT + 1;
+        }
+        return Integer.numberOfTrailingZeros(sizeClass) - MIN_SHIFT;
+    }
+
+    /**
+     * Allocates a direct buffer with (at least) the given capacity. 
+     * The capacity of the returned buffer is the size class 
+     * for `capacity`, its limit is set to its capacity. 
+     *
+     * @param capacity the requested capacity
+     * @return the buffer
+     */
+    public ByteBuffer allocate(int capacity) {
+        int size = sizeClass(capacity);
+        if (size < 0) {
+            inUse.addAndGet(capacity);
+            return ByteBuffer.allocateDirect(capacity);
+        }
+        inUse.addAndGet(size);
+        Queue<ByteBuffer> freeList = freeLists.get(classIndex(size));
+        ByteBuffer buffer = freeList.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        // Carve a new chunk
+        int chunk = Math.max(chunkSize, size);
+        ByteBuffer memory = ByteBuffer.allocateDirect(chunk);
+        reserved.addAndGet(chunk);
+        for (int offset = size; offset + size <= chunk; offset += size) {
+            freeList.add(memory.slice(offset, size));
+        }
+        return memory.slice(0, size);
+    }
+
+    /**
+     * Returns a buffer to the slab. The buffer must have been 
+     * obtained from {@link #allocate(int)} and must no longer be 
+     * used by the caller. Heap buffers are ignored, which allows
+     * the method to be used as releaser for a pool that falls back
+     * to heap buffers.
+     *
+     * @param buffer the buffer
+     */
+    public void release(ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        inUse.addAndGet(-capacity);
+        if (capacity > MAX_SIZE_CLASS
+            || sizeClass(capacity) != capacity) {
+            // Not from a chunk, leave to GC.
+            return;
+        }
+        buffer.clear();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        freeLists.get(classIndex(capacity)).add(buffer);
+    }
+
+    /**
+     * Returns the number of bytes of direct memory allocated
+     * for the chunks.
+     *
+     * @return the value
+     */
+    public long reserved() {
+        return reserved.get();
+    }
+
+    /**
+     * Returns the number of bytes handed out and not released yet.
+     *
+     * @return the value
+     */
+    public long inUse() {
+        return inUse.get();
+    }
+
+    /**
+     * Creates a new quota for allocating buffers from this slab.
+     *
+     * @param limit the maximum number of bytes that may be
+     * allocated from the slab using the quota or 0 for no limit
+     * @return the quota
+     */
+    public Quota newQuota(long limit) {
+        return new Quota(limit);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "DirectBufferSlab [reserved=" + reserved.get()
+            + ", inUse=" + inUse.get() + "]";
+    }
+
+    /**
+     * Limits the amount of direct memory that a single user 
+     * (typically a connection) obtains from the slab. Allocations that 
+     * would exceed the limit are satisfied with heap buffers, so 
+     * a user that exceeds its quota is slowed down but does not fail.
+     */
+    public final class Quota {
+
+        private final long limit;
+        private final AtomicLong used = new AtomicLong();
+
+        private Quota(long limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * Allocates a buffer with (at least) the given capacity.
+         * The buffer is taken from the slab if the limit permits,
+         * else a heap buffer with exactly the requested capacity
+         * is returned.
+         *
+         * @param capacity the capacity
+         * @return the buffer
+         */
+        public ByteBuffer allocate(int capacity) {
+            int size = sizeClass(capacity);
+            long charged = size < 0 ? capacity : size;
+            if (used.addAndGet(charged) > limit && limit > 0) {
+                used.addAndGet(-charged);
+                return ByteBuffer.allocate(capacity);
+            }
+            return DirectBufferSlab.this.allocate(capacity);
+        }
+
+        /**
+         * Returns a buffer obtained from {@link #allocate(int)}.
+         *
+         * @param buffer the buffer
+         */
+        public void release(ByteBuffer buffer) {
+            if (!buffer.isDirect()) {
+                return;
+            }
+            used.addAndGet(-buffer.capacity());
+            DirectBufferSlab.this.release(buffer);
+        }
+
+        /**
+         * Returns the number of bytes currently allocated using
+         * this quota.
+         *
+         * @return the value
+         */
+        public long used() {
+            return used.get();
+        }
+
+        /**
+         * Returns the limit.
+         *
+         * @return the limit
+         */
+        public long limit() {
+            return limit;
+        }
+    }
+}
@@ -147,8 +147,19 @@ public class InputStreamPipeline implements Runnable {
             try {
                 buffer = channel.byteBufferPool().acquire();
                 var backing = buffer.backing;
-                int recvd = inStream.read(backing.array(),
-                    backing.position(), backing.remaining());
+                int recvd;
+                if (backing.hasArray()) {
+                    recvd = inStream.read(backing.array(),
+                        backing.arrayOffset() + backing.position(),
+                        backing.remaining());
+                } else {
+                    // Direct buffer, read into temporary array
+                    byte[] data = new byte[backing.remaining()];
+                    recvd = inStream.read(data);
+                    if (recvd > 0) {
+                        backing.duplicate().put(data, 0, recvd);
+                    }
+                }
                 if (recvd > 0) {
                     boolean eof
                         = availableIsRemaining && inStream.available() == 0;
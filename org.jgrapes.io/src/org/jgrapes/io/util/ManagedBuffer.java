@@ -49,6 +49,23 @@ public class ManagedBuffer<T extends Buffer> {
     protected T savedBacking;
     private final BufferCollector<ManagedBuffer<T>> manager;
     private final AtomicInteger lockCount = new AtomicInteger(1);
+    // Used by ManagedBufferPool
+    private LockTracker tracker;
+    /* default */ long reserved;
+
+    /**
+     * Notified about changes of the lock count of buffers that
+     * are tracked by a {@link ManagedBufferPool}.
+     */
+    /* default */ interface LockTracker {
+
+        /**
+         * Called when the buffer has been locked or unlocked.
+         *
+         * @param locked true if locked
+         */
+        void lockChanged(boolean locked);
+    }
 
     /**
      * Create a new Managed buffer, backed by the given buffer,
@@ -88,7 +105,10 @@ public class ManagedBuffer<T extends Buffer> {
     }
 
     /**
-     * Replace the backing buffer.
+     * Replace the backing buffer. If the buffer has been obtained
+     * from a {@link ManagedBufferPool} with a {@link BufferBudget},
+     * use {@link ManagedBufferPool#replaceBackingBuffer} for
+     * replacing the backing buffer with a buffer of different size.
      * 
      * @param buffer the new buffer
      * @return the managed buffer for easy chaining
@@ -128,6 +148,53 @@ public class ManagedBuffer<T extends Buffer> {
         return this;
     }
 
+    /**
+     * Creates a slice of the remaining data in the backing buffer.
+     * Short for `slice(position(), remaining())`.
+     *
+     * @return the slice
+     * @see #slice(int, int)
+     */
+    public ManagedBuffer<T> slice() {
+        return slice(backing.position(), backing.remaining());
+    }
+
+    /**
+     * Creates a new managed buffer that shares the given region
+     * of this buffer's backing buffer, without copying the data.
+     * The slice has its own position and limit (initially 0 and
+     * `length`) and a lock count of one. It holds a lock on this
+     * buffer that is released when the slice is recollected,
+     * i.e. this buffer is not reused as long as the slice is in use.
+     *
+     * Slices can be used to pass parts of the data downstream
+     * (e.g. as payload of an event) while continuing to process
+     * the rest of the data in this buffer.
+     *
+     * @param index the index in the backing buffer where the
+     * slice starts
+     * @param length the number of elements in the slice
+     * @return the slice
+     * @throws IndexOutOfBoundsException if the region is not
+     * within the backing buffer's limit
+     */
+    @SuppressWarnings({ "unchecked",
+        "PMD.AvoidUncheckedExceptionsInSignatures" })
+    public ManagedBuffer<T> slice(int index, int length)
+            throws IndexOutOfBoundsException {
+        T sliced = (T) backing.slice(index, length);
+        lockBuffer();
+        return new ManagedBuffer<>(sliced, slice -> unlockBuffer());
+    }
+
+    /* default */ void setTracker(LockTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    /* default */ LockTracker tracker() {
+        return tracker;
+    }
+
     /**
      * Return the buffer's manager.
      * 
@@ -144,6 +211,9 @@ public class ManagedBuffer<T extends Buffer> {
      */
     public ManagedBuffer<T> lockBuffer() {
         lockCount.incrementAndGet();
+        if (tracker != null) {
+            tracker.lockChanged(true);
+        }
         return this;
     }
 
@@ -157,6 +227,9 @@ public class ManagedBuffer<T extends Buffer> {
      */
     @SuppressWarnings("PMD.AvoidUncheckedExceptionsInSignatures")
     public void unlockBuffer() throws IllegalStateException {
+        if (tracker != null) {
+            tracker.lockChanged(false);
+        }
         int locks = lockCount.decrementAndGet();
         if (locks < 0) {
             throw new IllegalStateException(
@@ -23,22 +23,33 @@ import java.lang.management.ManagementFactory;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.IntSummaryStatistics;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.WeakHashMap;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -70,43 +81,91 @@ import org.jgrapes.io.events.Output;
  * without delay, because the data has already been prepared and enqueued
  * as the next event.
  * 
+ * The pooled buffers are kept in a lock-free stack, a lock is
+ * used only if a thread has to wait for a buffer. Pools that
+ * are shared by many threads can additionally keep a few buffers
+ * in a cache for each thread (see {@link #setThreadCacheSize(int)}),
+ * which avoids the contention on the shared stack.
+ * 
+ * Pooled buffers are removed from the pool if the pool hasn't been 
+ * used for some time (see {@link #setDrainDelay(long)}). The idle
+ * time is measured in ticks of a coarse clock that is shared by
+ * all pools, so buffers are removed up to 
+ * {@value #DRAIN_TICK} ms earlier than specified.
+ * 
+ * The memory used by the buffers of several pools can be limited
+ * with a {@link BufferBudget} (see {@link #setBudget(BufferBudget)}).
+ * 
  * One of the biggest problems when using a pool can be to identify 
  * leaking buffers, i.e. buffers that are not properly returned to the pool.
- * This implementation therefore tracks all created buffers 
+ * This implementation therefore tracks created buffers 
  * (with a small overhead) and logs a warning if a buffer is no longer
- * used (referenced) but has not been returned to the pool. If the
- * log level for {@link ManagedBufferPool} is set to {@link Level#FINE},
- * the warning also includes a stack trace of the call to {@link #acquire()}
- * that handed out the buffer. Providing this information in addition 
- * obviously requires a larger overhead and is therefore limited to the
- * finer log levels.
+ * used (referenced) but has not been returned to the pool. The buffer
+ * is then no longer counted as created by the pool. By default, all 
+ * buffers are tracked. The overhead can be reduced by tracking only
+ * a sample of the buffers (see {@link #setLeakSampling(int)}). Leaked 
+ * buffers that aren't tracked remain counted as created.
+ * 
+ * If leak traces are enabled (see {@link #setLeakTraces(boolean)}) 
+ * or the log level for {@link ManagedBufferPool} is set to 
+ * {@link Level#FINE}, the warning also includes the stack trace of
+ * the buffer's creation and of the last calls to
+ * {@link ManagedBuffer#lockBuffer()} and {@link ManagedBuffer#unlockBuffer()}
+ * (including the calls made by {@link #acquire()}). Recording 
+ * this information obviously requires a larger overhead. Combined
+ * with sampling, it can nevertheless be used in production.
  *
  * @param <W> the type of the wrapped (managed) buffer
  * @param <T> the type of the content buffer that is wrapped
  */
 @SuppressWarnings({ "PMD.ExcessiveImports", "PMD.NcssCount",
-    "PMD.EmptyCatchBlock" })
+    "PMD.EmptyCatchBlock", "PMD.GodClass", "PMD.TooManyFields" })
 public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
         implements BufferCollector<W> {
 
+    /** The duration of a tick of the clock used for draining in ms. */
+    public static final long DRAIN_TICK = 100;
+
+    /** The number of lock changes reported for a leaked buffer. */
+    private static final int LEAK_HISTORY = 4;
+
     @SuppressWarnings("PMD.FieldNamingConventions")
     protected final Logger logger
         = Logger.getLogger(ManagedBufferPool.class.getName());
 
     private static long defaultDrainDelay = 1500;
     private static long acquireWarningLimit = 1000;
+    @SuppressWarnings("PMD.AvoidUsingVolatile")
+    private static volatile int leakSampling = 1;
+    @SuppressWarnings("PMD.AvoidUsingVolatile")
+    private static volatile boolean leakTraces;
 
     private String name = Components.objectName(this);
     private BiFunction<T, BufferCollector<W>, W> wrapper;
     private Supplier<T> bufferFactory;
-    private BufferMonitor bufferMonitor;
-    private BlockingQueue<W> queue;
+    private Consumer<T> bufferReleaser;
+    private BufferBudget budget;
+    private long bufferBytes;
+    private final AtomicLong reservedBytes = new AtomicLong();
+    private final AtomicBoolean awaitingBudget = new AtomicBoolean();
+    private final Set<Tracker> trackers = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<W> orphaned = new ReferenceQueue<>();
+    private final AtomicInteger leakedBufs = new AtomicInteger();
+    private final AtomicReference<Node<W>> pooled = new AtomicReference<>();
+    private final AtomicInteger pooledBufs = new AtomicInteger();
     private int bufferSize = -1;
     private int preservedBufs;
     private int maximumBufs;
     private AtomicInteger createdBufs;
     private long drainDelay = -1;
-    private final AtomicReference<Timer> idleTimer
+    private volatile long lastUsed;
+    private final AtomicBoolean drainable = new AtomicBoolean();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Object waitLock = new Object();
+    private ThreadLocal<ThreadCache<W>> threadCache;
+    private final Queue<ThreadCache<W>> threadCaches
+        = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Runnable> availabilityCallback
         = new AtomicReference<>(null);
 
     /**
@@ -128,6 +187,49 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
         return defaultDrainDelay;
     }
 
+    /**
+     * Sets the sampling of the buffers tracked for detecting leaks.
+     * A value of 1 (the default) tracks all buffers, a value of 
+     * `n` about every n-th buffer and 0 disables the tracking.
+     * Affects the buffers created after the invocation. Buffers
+     * reserved against a {@link BufferBudget} are always tracked,
+     * because the reservations of leaked buffers must be released.
+     *
+     * @param interval the sampling interval
+     */
+    public static void setLeakSampling(int interval) {
+        leakSampling = interval;
+    }
+
+    /**
+     * Returns the sampling interval for leak detection.
+     *
+     * @return the interval
+     */
+    public static int leakSampling() {
+        return leakSampling;
+    }
+
+    /**
+     * Sets whether stack traces are recorded for tracked buffers
+     * (see class description). Affects the buffers created after 
+     * the invocation.
+     *
+     * @param enabled whether stack traces are recorded
+     */
+    public static void setLeakTraces(boolean enabled) {
+        leakTraces = enabled;
+    }
+
+    /**
+     * Checks if stack traces are recorded for tracked buffers.
+     *
+     * @return true, if enabled
+     */
+    public static boolean leakTraces() {
+        return leakTraces;
+    }
+
     /**
      * Create a pool that contains a varying number of (wrapped) buffers.
      * The pool is initially empty. When buffers are requested and none 
@@ -148,8 +250,6 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
         preservedBufs = lowerThreshold;
         maximumBufs = upperLimit;
         createdBufs = new AtomicInteger();
-        queue = new ArrayBlockingQueue<>(lowerThreshold);
-        bufferMonitor = new BufferMonitor(upperLimit);
         MBeanView.addPool(this);
     }
 
@@ -198,14 +298,235 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
         return this;
     }
 
+    /**
+     * Sets a function that is invoked with the content buffer
+     * when a managed buffer is discarded by the pool. This allows
+     * the content buffers to be returned to an allocator such
+     * as the {@link DirectBufferSlab} instead of leaving them
+     * to the garbage collector.
+     * 
+     * Content buffers of managed buffers that have not been 
+     * recollected properly (see the class description) are not
+     * passed to the releaser, because they may still be in use.
+     * 
+     * @param releaser the releaser
+     * @return the object for easy chaining
+     */
+    public ManagedBufferPool<W, T> setBufferReleaser(Consumer<T> releaser) {
+        this.bufferReleaser = releaser;
+        return this;
+    }
+
+    /**
+     * Lets the pool keep up to the given number of recollected buffers
+     * in a cache for the recollecting thread. A thread that acquires
+     * a buffer takes it from its cache before it tries the buffers
+     * shared by all threads.
+     * 
+     * This is intended for pools that are shared by many threads.
+     * The cached buffers are kept in addition to the number of
+     * buffers specified as lower threshold, but count towards the
+     * upper limit. If neither the thread's cache nor the shared 
+     * buffers provide a buffer, the buffers are taken from the
+     * caches of the other threads before a new buffer is created.
+     * The caches of terminated threads are removed by the drainer.
+     * Must be invoked before the pool is used.
+     *
+     * @param size the number of buffers cached per thread
+     * @return the object for easy chaining
+     */
+    public ManagedBufferPool<W, T> setThreadCacheSize(int size) {
+        threadCache = size <= 0 ? null : ThreadLocal.withInitial(() -> {
+            ThreadCache<W> cache = new ThreadCache<>(size);
+            threadCaches.add(cache);
+            return cache;
+        });
+        return this;
+    }
+
+    /**
+     * Lets the pool reserve the memory for its buffers against 
+     * the given budget. Must be invoked before the pool is used.
+     *
+     * @param budget the budget
+     * @return the object for easy chaining
+     */
+    public ManagedBufferPool<W, T> setBudget(BufferBudget budget) {
+        this.budget = budget;
+        return this;
+    }
+
+    /**
+     * Returns the budget.
+     *
+     * @return the budget or `null` if none has been set
+     */
+    public BufferBudget budget() {
+        return budget;
+    }
+
+    /**
+     * The size of the buffer in bytes. Buffer types other than 
+     * {@link ByteBuffer} and {@link CharBuffer} are counted in items. 
+     *
+     * @param buffer the buffer
+     * @return the size
+     */
+    private static long bytes(Buffer buffer) {
+        if (buffer instanceof CharBuffer) {
+            return (long) buffer.capacity() * Character.BYTES;
+        }
+        return buffer.capacity();
+    }
+
     private W createBuffer() {
         createdBufs.incrementAndGet();
         W buffer = wrapper.apply(this.bufferFactory.get(), this);
-        bufferMonitor.put(buffer, new BufferProperties());
+        if (budget != null) {
+            // Needed e.g. for determining the buffer size, don't deny
+            long reserved = bytes(buffer.backingBuffer());
+            if (budget.reserve(reserved)) {
+                buffer.reserved = reserved;
+                addReserved(reserved);
+            }
+        }
+        track(buffer);
         bufferSize = buffer.capacity();
         return buffer;
     }
 
+    /**
+     * Creates a new buffer if the maximum number of buffers
+     * has not been reached yet.
+     *
+     * @return the buffer or `null`
+     */
+    private W tryCreateBuffer() {
+        while (true) {
+            int created = createdBufs.get();
+            if (created >= maximumBufs) {
+                // Maybe some have leaked
+                checkOrphaned();
+                if (createdBufs.get() >= maximumBufs) {
+                    return null;
+                }
+                continue;
+            }
+            if (createdBufs.compareAndSet(created, created + 1)) {
+                break;
+            }
+        }
+        if (budget == null) {
+            W buffer = wrapper.apply(this.bufferFactory.get(), this);
+            track(buffer);
+            bufferSize = buffer.capacity();
+            return buffer;
+        }
+        // Reserve the size of the last buffer created before creating
+        // a new one, then correct the reservation for the actual size
+        // (which may differ, e.g. with adaptive buffer sizes).
+        long estimated = bufferBytes;
+        if (estimated > 0 && !budget.reserve(estimated)) {
+            createdBufs.decrementAndGet();
+            awaitBudget();
+            return null;
+        }
+        T backing = this.bufferFactory.get();
+        long reserved = bytes(backing);
+        if (reserved > estimated
+            && !budget.reserve(reserved - estimated)) {
+            createdBufs.decrementAndGet();
+            budget.release(estimated);
+            if (bufferReleaser != null) {
+                bufferReleaser.accept(backing);
+            }
+            awaitBudget();
+            return null;
+        }
+        if (reserved < estimated) {
+            budget.release(estimated - reserved);
+        }
+        bufferBytes = reserved;
+        W buffer = wrapper.apply(backing, this);
+        buffer.reserved = reserved;
+        addReserved(reserved);
+        track(buffer);
+        bufferSize = buffer.capacity();
+        return buffer;
+    }
+
+    /**
+     * Replaces the backing buffer of a buffer obtained from this pool
+     * with a new buffer of (usually) different size. The previous 
+     * backing buffer is passed to the buffer releaser (see 
+     * {@link #setBufferReleaser(Consumer)}). 
+     * 
+     * If the pool uses a budget, the difference between the given 
+     * size and the size of the current backing buffer is reserved 
+     * before the new backing buffer is created. If the reservation 
+     * fails, the buffer is left unchanged. Should the new backing buffer
+     * turn out to have a size other than `size`, the reservation
+     * is corrected.
+     *
+     * @param buffer the buffer
+     * @param size the size of the new backing buffer in bytes
+     * @param factory creates the new backing buffer
+     * @return `true` if the backing buffer has been replaced
+     */
+    public boolean replaceBackingBuffer(W buffer, long size,
+            Supplier<T> factory) {
+        if (budget != null && buffer.reserved > 0) {
+            if (size > buffer.reserved
+                && !budget.reserve(size - buffer.reserved)) {
+                return false;
+            }
+            if (size < buffer.reserved) {
+                budget.release(buffer.reserved - size);
+            }
+        }
+        T previous = buffer.backingBuffer();
+        T backing = factory.get();
+        if (budget != null && buffer.reserved > 0) {
+            long actual = bytes(backing);
+            if (actual > size) {
+                // Don't deny, buffer exists already
+                budget.reserve(actual - size);
+            } else if (actual < size) {
+                budget.release(size - actual);
+            }
+            updateReserved(buffer, actual);
+        }
+        buffer.replaceBackingBuffer(backing);
+        if (bufferReleaser != null) {
+            bufferReleaser.accept(previous);
+        }
+        bufferSize = buffer.capacity();
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void updateReserved(W buffer, long reserved) {
+        addReserved(reserved - buffer.reserved);
+        buffer.reserved = reserved;
+        Tracker tracker = (Tracker) buffer.tracker();
+        if (tracker != null) {
+            tracker.reserved = reserved;
+        }
+    }
+
+    /**
+     * Resumes waiting acquisitions when the budget allows the creation
+     * of a buffer again.
+     */
+    private void awaitBudget() {
+        if (awaitingBudget.compareAndSet(false, true)) {
+            budget.whenAvailable(() -> {
+                awaitingBudget.set(false);
+                notifyAvailable();
+            });
+        }
+    }
+
     /**
      * Removes the buffer from the pool.
      * 
@@ -213,7 +534,7 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
      */
     private void removeBuffer(W buffer) {
         createdBufs.decrementAndGet();
-        if (bufferMonitor.remove(buffer) == null) {
+        if (!untrack(buffer)) {
             if (logger.isLoggable(Level.FINE)) {
                 logger.log(Level.WARNING,
                     "Attempt to remove unknown buffer from pool.",
@@ -221,6 +542,28 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
             } else {
                 logger.warning("Attempt to remove unknown buffer from pool.");
             }
+            return;
+        }
+        if (bufferReleaser != null) {
+            bufferReleaser.accept(buffer.backingBuffer());
+        }
+        if (buffer.reserved > 0) {
+            budget.release(buffer.reserved);
+            addReserved(-buffer.reserved);
+        }
+    }
+
+    /**
+     * Adjusts the bytes reserved by the pool's buffers. A pool
+     * with reservations is registered with the {@link Drainer},
+     * which releases the reservations of orphaned buffers even if
+     * the pool isn't used any more.
+     *
+     * @param delta the change
+     */
+    private void addReserved(long delta) {
+        if (reservedBytes.addAndGet(delta) > 0) {
+            registerForDrain();
         }
     }
 
@@ -236,6 +579,40 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
         return bufferSize;
     }
 
+    private void push(W buffer) {
+        Node<W> node = new Node<>(buffer);
+        while (true) {
+            Node<W> head = pooled.get();
+            node.next = head;
+            if (pooled.compareAndSet(head, node)) {
+                return;
+            }
+        }
+    }
+
+    private W pop() {
+        while (true) {
+            Node<W> head = pooled.get();
+            if (head == null) {
+                return null;
+            }
+            if (pooled.compareAndSet(head, head.next)) {
+                pooledBufs.decrementAndGet();
+                return head.buffer;
+            }
+        }
+    }
+
+    /**
+     * Records the usage of the pool for draining.
+     */
+    private void touch() {
+        long now = Drainer.epoch;
+        if (lastUsed != now) {
+            lastUsed = now;
+        }
+    }
+
     /**
      * Acquires a managed buffer from the pool. If the pool is empty,
      * waits for a buffer to become available. The acquired buffer has 
@@ -246,36 +623,125 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
      */
     @SuppressWarnings("PMD.GuardLogStatement")
     public W acquire() throws InterruptedException {
-        // Stop draining, because we obviously need this kind of buffers
-        Optional.ofNullable(idleTimer.getAndSet(null)).ifPresent(
-            timer -> timer.cancel());
-        if (createdBufs.get() < maximumBufs) {
-            // Haven't reached maximum, so if no buffer is queued, create one.
-            W buffer = queue.poll();
-            if (buffer != null) {
-                buffer.lockBuffer();
-                return buffer;
-            }
-            return createBuffer();
+        W buffer = tryAcquire();
+        if (buffer != null) {
+            return buffer;
         }
         // Wait for buffer to become available.
-        if (logger.isLoggable(Level.FINE)) {
-            // If configured, log message after waiting some time.
-            W buffer = queue.poll(acquireWarningLimit, TimeUnit.MILLISECONDS);
+        waiting.incrementAndGet();
+        try {
+            long warnAt = logger.isLoggable(Level.FINE)
+                ? System.currentTimeMillis() + acquireWarningLimit : 0;
+            synchronized (waitLock) {
+                while (true) {
+                    buffer = tryAcquire();
+                    if (buffer != null) {
+                        return buffer;
+                    }
+                    if (warnAt == 0) {
+                        waitLock.wait();
+                        continue;
+                    }
+                    long timeout = warnAt - System.currentTimeMillis();
+                    if (timeout > 0) {
+                        waitLock.wait(timeout);
+                        continue;
+                    }
+                    // If configured, log message after waiting some time.
+                    logger.log(Level.FINE, Thread.currentThread().getName()
+                        + " waiting > " + acquireWarningLimit
+                        + "ms for buffer, while executing:", new Throwable());
+                    warnAt = 0;
+                }
+            }
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Acquires a managed buffer from the pool if one is available
+     * without waiting. The acquired buffer has a lock count of one.
+     * 
+     * @return the acquired buffer or `null` if no buffer is available
+     */
+    public W tryAcquire() {
+        // Stop draining, because we obviously need this kind of buffers
+        touch();
+        W buffer = null;
+        if (threadCache != null) {
+            buffer = threadCache.get().poll();
+        }
+        if (buffer == null) {
+            buffer = pop();
+        }
+        if (buffer != null) {
+            buffer.lockBuffer();
+            return buffer;
+        }
+        // Prefer unused buffers over creating a new one
+        buffer = stealFromCaches();
+        if (buffer != null) {
+            return buffer;
+        }
+        return tryCreateBuffer();
+    }
+
+    private W stealFromCaches() {
+        for (ThreadCache<W> cache : threadCaches) {
+            W buffer = cache.poll();
             if (buffer != null) {
                 buffer.lockBuffer();
                 return buffer;
             }
-            logger.log(Level.FINE,
-                Thread.currentThread().getName() + " waiting > "
-                    + acquireWarningLimit + "ms for buffer, while executing:",
-                new Throwable());
         }
-        W buffer = queue.take();
-        buffer.lockBuffer();
+        return null;
+    }
+
+    /**
+     * Like {@link #tryAcquire()}, but if no buffer is available,
+     * the given function is invoked once as soon as a buffer is
+     * recollected. 
+     * 
+     * The function is invoked by the thread that recollects the buffer
+     * and must therefore not block. It may (rarely) be invoked even
+     * if the buffer has already been taken by another thread, so the
+     * consumer must be prepared that a subsequent acquisition fails 
+     * again. Only one such function can be pending, which is
+     * sufficient for the typical pool with a single consumer. 
+     *
+     * @param whenAvailable the function to invoke
+     * @return the acquired buffer or `null` if no buffer is available
+     */
+    public W tryAcquire(Runnable whenAvailable) {
+        W buffer = tryAcquire();
+        if (buffer != null) {
+            return buffer;
+        }
+        availabilityCallback.set(whenAvailable);
+        // Buffer may have been recollected before the function was set.
+        buffer = tryAcquire();
+        if (buffer != null) {
+            availabilityCallback.compareAndSet(whenAvailable, null);
+        }
         return buffer;
     }
 
+    private void notifyAvailable() {
+        if (waiting.get() > 0) {
+            synchronized (waitLock) {
+                waitLock.notifyAll();
+            }
+        }
+        if (availabilityCallback.get() == null) {
+            return;
+        }
+        Runnable callback = availabilityCallback.getAndSet(null);
+        if (callback != null) {
+            callback.run();
+        }
+    }
+
     /**
      * Re-adds the buffer to the pool. The buffer is cleared.
      *
@@ -284,35 +750,111 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
      */
     @Override
     public void recollect(W buffer) {
-        if (queue.size() < preservedBufs) {
-            long effectiveDrainDelay
-                = drainDelay > 0 ? drainDelay : defaultDrainDelay;
-            if (effectiveDrainDelay > 0) {
-                // Enqueue
-                buffer.clear();
-                queue.add(buffer);
-                Timer old = idleTimer.getAndSet(Components.schedule(this::drain,
-                    Duration.ofMillis(effectiveDrainDelay)));
-                if (old != null) {
-                    old.cancel();
-                }
+        long effectiveDrainDelay
+            = drainDelay > 0 ? drainDelay : defaultDrainDelay;
+        if (effectiveDrainDelay > 0) {
+            buffer.clear();
+            touch();
+            // Waiting threads cannot take buffers from the cache.
+            if (threadCache != null && waiting.get() == 0
+                && threadCache.get().offer(buffer)) {
+                registerForDrain();
+                notifyAvailable();
+                return;
+            }
+            if (pooledBufs.incrementAndGet() <= preservedBufs) {
+                push(buffer);
+                registerForDrain();
+                notifyAvailable();
                 return;
             }
+            pooledBufs.decrementAndGet();
         }
         // Discard
         removeBuffer(buffer);
+        notifyAvailable();
     }
 
-    @SuppressWarnings("PMD.UnusedFormalParameter")
-    private void drain(Timer timer) {
-        idleTimer.set(null);
+    private void registerForDrain() {
+        if (!drainable.get() && drainable.compareAndSet(false, true)) {
+            Drainer.register(this);
+        }
+    }
+
+    /**
+     * Invoked by the {@link Drainer}. Releases the reservations
+     * of orphaned buffers and drains the pool if it has not been
+     * used for the given time.
+     *
+     * @param minIdle the minimum idle time in ms
+     * @return true, if the pool has been drained and has no
+     * reservations left, i.e. needn't be checked any more
+     */
+    private boolean drainIfIdle(long minIdle) {
+        checkOrphaned();
+        pruneCaches();
+        // The current tick has just started
+        long idle = (Drainer.epoch - lastUsed - 1) * DRAIN_TICK;
+        if (idle < minIdle) {
+            return false;
+        }
+        drainable.set(false);
         while (true) {
-            W buffer = queue.poll();
+            W buffer = pop();
             if (buffer == null) {
                 break;
             }
             removeBuffer(buffer);
         }
+        for (ThreadCache<W> cache : threadCaches) {
+            while (true) {
+                W buffer = cache.poll();
+                if (buffer == null) {
+                    break;
+                }
+                removeBuffer(buffer);
+            }
+        }
+        // Keep checking buffers in use for orphans (unless the pool
+        // has been registered again in the meantime)
+        return reservedBytes.get() <= 0
+            || !drainable.compareAndSet(false, true);
+    }
+
+    /**
+     * Removes the caches of threads that have terminated.
+     */
+    private void pruneCaches() {
+        for (Iterator<ThreadCache<W>> iter = threadCaches.iterator();
+                iter.hasNext();) {
+            ThreadCache<W> cache = iter.next();
+            if (cache.isOrphaned()) {
+                iter.remove();
+                while (true) {
+                    W buffer = cache.poll();
+                    if (buffer == null) {
+                        break;
+                    }
+                    removeBuffer(buffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases the buffers of all pools that haven't been used
+     * recently. Invoked when a {@link BufferBudget} runs out.
+     */
+    /* default */ static void drainIdle() {
+        Drainer.drainIdle();
+    }
+
+    private int pooledBuffers() {
+        int result = pooledBufs.get();
+        for (ThreadCache<W> cache : threadCaches) {
+            result += cache.size();
+        }
+        return result;
     }
 
     /*
@@ -323,253 +865,283 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder(50);
-        builder.append("ManagedBufferPool [");
-        if (queue != null) {
-            builder.append("queue=");
-            builder.append(queue);
-        }
-        builder.append(']');
+        builder.append("ManagedBufferPool [pooled=").append(pooledBuffers())
+            .append(", created=").append(createdBufs.get()).append(']');
         return builder.toString();
     }
 
     /**
-     * Buffer properties.
+     * A node of the stack with the pooled buffers.
+     *
+     * @param <W> the type of the managed buffer
      */
-    private class BufferProperties {
+    private static final class Node<W> {
+        private final W buffer;
+        private Node<W> next;
 
-        private final StackTraceElement[] createdBy;
-
-        /**
-         * Instantiates new buffer properties.
-         */
-        public BufferProperties() {
-            if (logger.isLoggable(Level.FINE)) {
-                createdBy = Thread.currentThread().getStackTrace();
-            } else {
-                createdBy = new StackTraceElement[0];
-            }
-        }
-
-        /**
-         * Returns where the buffer was created.
-         *
-         * @return the stack trace element[]
-         */
-        @SuppressWarnings("PMD.MethodReturnsInternalArray")
-        public StackTraceElement[] createdBy() {
-            return createdBy;
+        private Node(W buffer) {
+            this.buffer = buffer;
         }
     }
 
     /**
-     * This is basically a WeakHashMap. We cannot use WeakHashMap
-     * because there is no "hook" into the collection of orphaned
-     * references, which is what we want here.
+     * The buffers cached for a thread. Slots are only contended
+     * when buffers are taken by other threads, i.e. if a thread has
+     * to wait for a buffer or when the pool is drained.
+     *
+     * @param <W> the type of the managed buffer
      */
-    @SuppressWarnings("PMD.DataflowAnomalyAnalysis")
-    private class BufferMonitor {
+    private static final class ThreadCache<W> {
+        private final AtomicReferenceArray<W> slots;
+        private final WeakReference<Thread> owner;
 
-        private Entry<W>[] data;
-        private int indexMask;
-        private final ReferenceQueue<W> orphanedEntries
-            = new ReferenceQueue<>();
+        private ThreadCache(int size) {
+            slots = new AtomicReferenceArray<>(size);
+            owner = new WeakReference<>(Thread.currentThread());
+        }
 
-        /**
-         * An Entry.
-         *
-         * @param <B> the generic type
-         */
-        private class Entry<B extends ManagedBuffer<?>> extends WeakReference<B>
-                implements Map.Entry<B, BufferProperties> {
-            /* default */ final int index;
-            /* default */ BufferProperties props;
-            /* default */ Entry<B> next;
+        private boolean isOrphaned() {
+            Thread thread = owner.get();
+            return thread == null || !thread.isAlive();
+        }
 
-            /**
-             * Instantiates a new entry.
-             *
-             * @param buffer the buffer
-             * @param props the props
-             * @param queue the queue
-             * @param index the index
-             * @param next the next
-             */
-            /* default */ Entry(B buffer, BufferProperties props,
-                    ReferenceQueue<B> queue, int index, Entry<B> next) {
-                super(buffer, queue);
-                this.index = index;
-                this.props = props;
-                this.next = next;
+        private boolean offer(W buffer) {
+            for (int i = 0; i < slots.length(); i++) {
+                if (slots.get(i) == null
+                    && slots.compareAndSet(i, null, buffer)) {
+                    return true;
+                }
             }
+            return false;
+        }
 
-            @Override
-            public B getKey() {
-                return get();
+        private W poll() {
+            for (int i = slots.length() - 1; i >= 0; i--) {
+                W buffer = slots.get(i);
+                if (buffer != null && slots.compareAndSet(i, buffer, null)) {
+                    return buffer;
+                }
             }
+            return null;
+        }
 
-            @Override
-            public BufferProperties getValue() {
-                return props;
+        private int size() {
+            int size = 0;
+            for (int i = 0; i < slots.length(); i++) {
+                if (slots.get(i) != null) {
+                    size += 1;
+                }
             }
+            return size;
+        }
+    }
 
-            @Override
-            public BufferProperties setValue(BufferProperties props) {
-                return this.props = props;
-            }
+    /**
+     * Drains the pools. A single timer, running only while there are
+     * pools with pooled buffers or reservations, advances a coarse 
+     * clock and checks the pools that have been registered when 
+     * buffers were pooled or reserved. Using the pools therefore 
+     * requires no timer operations.
+     */
+    private static final class Drainer {
+
+        @SuppressWarnings("PMD.AvoidUsingVolatile")
+        private static volatile long epoch;
+        private static final Queue<ManagedBufferPool<?, ?>> POOLS
+            = new ConcurrentLinkedQueue<>();
+        private static final AtomicBoolean RUNNING = new AtomicBoolean();
+        private static final AtomicBoolean DRAINING = new AtomicBoolean();
+
+        private Drainer() {
         }
 
-        /**
-         * @param data
-         */
-        @SuppressWarnings("unchecked")
-        public BufferMonitor(int maxBuffers) {
-            int lists = 1;
-            while (lists < maxBuffers) {
-                lists <<= 1;
-                indexMask = (indexMask << 1) + 1;
+        private static void register(ManagedBufferPool<?, ?> pool) {
+            POOLS.add(pool);
+            if (RUNNING.compareAndSet(false, true)) {
+                Components.schedule(Drainer::sweep,
+                    Duration.ofMillis(DRAIN_TICK));
             }
-            data = new Entry[lists];
         }
 
         /**
-         * Put an entry in the map.
-         *
-         * @param buffer the buffer
-         * @param properties the properties
-         * @return the buffer properties
+         * Drains the pools that haven't been used during the last tick,
+         * see {@link BufferBudget#reserve(long)}.
          */
-        @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
-        public BufferProperties put(W buffer, BufferProperties properties) {
-            check();
-            int index = buffer.hashCode() & indexMask;
-            synchronized (data) {
-                Entry<W> entry = data[index];
-                Entry<W> prev = null;
-                while (true) {
-                    if (entry == null) {
-                        // Not found, create new.
-                        entry = new Entry<>(buffer, properties,
-                            orphanedEntries, index, null);
-                        if (prev == null) {
-                            data[index] = entry; // Is first.
-                        } else {
-                            prev.next = entry; // Is next (last).
-                        }
-                        return properties;
-                    }
-                    if (entry.getKey() == buffer) {
-                        // Found, update.
-                        BufferProperties old = entry.getValue();
-                        entry.setValue(properties);
-                        return old;
+        private static void drainIdle() {
+            if (!DRAINING.compareAndSet(false, true)) {
+                // Already being done by another thread
+                return;
+            }
+            try {
+                for (Iterator<ManagedBufferPool<?, ?>> iter
+                    = POOLS.iterator(); iter.hasNext();) {
+                    if (iter.next().drainIfIdle(DRAIN_TICK)) {
+                        iter.remove();
                     }
-                    prev = entry;
-                    entry = entry.next;
+                }
+            } finally {
+                DRAINING.set(false);
+            }
+        }
+
+        @SuppressWarnings({ "PMD.UnusedFormalParameter",
+            "PMD.AssignmentToNonFinalStatic" })
+        private static void sweep(Timer timer) {
+            epoch += 1;
+            for (Iterator<ManagedBufferPool<?, ?>> iter = POOLS.iterator();
+                    iter.hasNext();) {
+                ManagedBufferPool<?, ?> pool = iter.next();
+                if (pool.drainIfIdle(pool.drainDelay > 0 ? pool.drainDelay
+                    : defaultDrainDelay)) {
+                    iter.remove();
+                }
+            }
+            if (POOLS.isEmpty()) {
+                RUNNING.set(false);
+                // A pool may have been registered in the meantime
+                if (POOLS.isEmpty() || !RUNNING.compareAndSet(false, true)) {
+                    return;
                 }
             }
+            Components.schedule(Drainer::sweep, Duration.ofMillis(DRAIN_TICK));
         }
+    }
+
+    /**
+     * Tracks a buffer for detecting leaks. The tracker is referenced
+     * by the buffer and references the buffer weakly. If the buffer
+     * is garbage collected without having been removed from the pool
+     * (i.e. without having been recollected), the tracker is enqueued
+     * as orphaned.
+     */
+    private final class Tracker extends WeakReference<W>
+            implements ManagedBuffer.LockTracker {
+
+        @SuppressWarnings("PMD.AvoidUsingVolatile")
+        private volatile long reserved;
+        private final Throwable createdBy;
+        private final Deque<Throwable> history;
 
         /**
-         * Returns the properties for the given buffer.
+         * Instantiates a new tracker.
          *
          * @param buffer the buffer
-         * @return the buffer properties
+         * @param traces whether to record stack traces
          */
-        @SuppressWarnings("unused")
-        public BufferProperties get(ManagedBuffer<?> buffer) {
-            check();
-            int index = buffer.hashCode() & indexMask;
-            synchronized (data) {
-                Entry<W> entry = data[index];
-                while (entry != null) {
-                    if (entry.getKey() == buffer) {
-                        return entry.getValue();
-                    }
-                    entry = entry.next;
+        private Tracker(W buffer, boolean traces) {
+            super(buffer, orphaned);
+            reserved = buffer.reserved;
+            if (traces) {
+                createdBy = new Throwable("Created");
+                history = new ArrayDeque<>(LEAK_HISTORY);
+            } else {
+                createdBy = null;
+                history = null;
+            }
+        }
+
+        @Override
+        public void lockChanged(boolean locked) {
+            if (history == null) {
+                return;
+            }
+            Throwable site = new Throwable(
+                locked ? "Last lockBuffer" : "Last unlockBuffer");
+            synchronized (history) {
+                if (history.size() >= LEAK_HISTORY) {
+                    history.removeFirst();
                 }
-                return null;
+                history.addLast(site);
             }
         }
 
         /**
-         * Removes the given buffer.
+         * Creates the message reporting the leak.
          *
-         * @param buffer the buffer
-         * @return the buffer properties
+         * @return the message
          */
-        public BufferProperties remove(ManagedBuffer<?> buffer) {
-            check();
-            int index = buffer.hashCode() & indexMask;
-            synchronized (data) {
-                Entry<W> entry = data[index];
-                Entry<W> prev = null;
-                while (entry != null) {
-                    if (entry.getKey() == buffer) {
-                        if (prev == null) {
-                            data[index] = entry.next; // Was first.
-                        } else {
-                            prev.next = entry.next;
-                        }
-                        return entry.getValue();
-                    }
-                    prev = entry;
-                    entry = entry.next;
+        private String report() {
+            final StringBuilder msg = new StringBuilder(
+                "Orphaned buffer from pool ").append(name());
+            if (createdBy == null) {
+                msg.append(" (enable leak traces for details)");
+                return msg.toString();
+            }
+            List<Throwable> sites = new ArrayList<>();
+            sites.add(createdBy);
+            synchronized (history) {
+                sites.addAll(history);
+            }
+            for (Throwable site : sites) {
+                msg.append(System.lineSeparator()).append(site.getMessage())
+                    .append(':');
+                for (StackTraceElement e : site.getStackTrace()) {
+                    msg.append(System.lineSeparator()).append("\tat ")
+                        .append(e.toString());
                 }
-                return null;
             }
+            return msg.toString();
         }
+    }
 
-        @SuppressWarnings("PMD.CompareObjectsWithEquals")
-        private BufferProperties remove(Entry<W> toBeRemoved) {
-            synchronized (data) {
-                Entry<W> entry = data[toBeRemoved.index];
-                Entry<W> prev = null;
-                while (entry != null) {
-                    if (entry == toBeRemoved) {
-                        if (prev == null) {
-                            data[toBeRemoved.index] = entry.next; // Was first.
-                        } else {
-                            prev.next = entry.next;
-                        }
-                        return entry.getValue();
-                    }
-                    prev = entry;
-                    entry = entry.next;
-                }
-                return null;
-            }
+    /**
+     * Starts tracking the buffer if it is sampled or has a reservation.
+     *
+     * @param buffer the buffer
+     */
+    private void track(W buffer) {
+        checkOrphaned();
+        int sampling = leakSampling;
+        if (buffer.reserved == 0 && (sampling <= 0 || sampling > 1
+            && ThreadLocalRandom.current().nextInt(sampling) != 0)) {
+            return;
         }
+        Tracker tracker = new Tracker(buffer,
+            leakTraces || logger.isLoggable(Level.FINE));
+        trackers.add(tracker);
+        buffer.setTracker(tracker);
+    }
 
-        private void check() {
-            while (true) {
-                @SuppressWarnings("unchecked")
-                Entry<W> entry = (Entry<W>) orphanedEntries.poll();
-                if (entry == null) {
-                    return;
-                }
-                // Managed buffer has not been properly recollected, fix.
-                BufferProperties props = remove(entry);
-                if (props == null) {
-                    return;
-                }
-                createdBufs.decrementAndGet();
-                // Create warning
-                if (logger.isLoggable(Level.WARNING)) {
-                    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
-                    final StringBuilder msg = new StringBuilder(
-                        "Orphaned buffer from pool ");
-                    msg.append(name());
-                    StackTraceElement[] trace = props.createdBy();
-                    if (trace != null) {
-                        msg.append(", created");
-                        for (StackTraceElement e : trace) {
-                            msg.append(System.lineSeparator());
-                            msg.append("\tat ");
-                            msg.append(e.toString());
-                        }
-                    }
-                    logger.warning(msg.toString());
-                }
+    /**
+     * Stops tracking the buffer.
+     *
+     * @param buffer the buffer
+     * @return false if the buffer was tracked, but is unknown
+     */
+    @SuppressWarnings("unchecked")
+    private boolean untrack(W buffer) {
+        checkOrphaned();
+        Tracker tracker = (Tracker) buffer.tracker();
+        if (tracker == null) {
+            return true;
+        }
+        buffer.setTracker(null);
+        tracker.clear();
+        return trackers.remove(tracker);
+    }
+
+    /**
+     * Handles the trackers of buffers that have not been recollected.
+     */
+    private void checkOrphaned() {
+        while (true) {
+            @SuppressWarnings("unchecked")
+            Tracker tracker = (Tracker) orphaned.poll();
+            if (tracker == null) {
+                return;
+            }
+            if (!trackers.remove(tracker)) {
+                continue;
+            }
+            // Managed buffer has not been properly recollected, fix.
+            createdBufs.decrementAndGet();
+            leakedBufs.incrementAndGet();
+            if (tracker.reserved > 0) {
+                budget.release(tracker.reserved);
+                addReserved(-tracker.reserved);
+            }
+            if (logger.isLoggable(Level.WARNING)) {
+                logger.warning(tracker.report());
             }
         }
     }
@@ -592,6 +1164,7 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
             private final int preserved;
             private final int maximum;
             private final int bufferSize;
+            private final int leaked;
 
             /**
              * Instantiates a new pool info.
@@ -601,16 +1174,19 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
              * @param preserved the preserved
              * @param maximum the maximum
              * @param bufferSize the buffer size
+             * @param leaked the leaked
              */
             @ConstructorProperties({ "created", "pooled",
-                "preserved", "maximum", "bufferSize" })
-            public PoolInfo(int created, int pooled,
-                    int preserved, int maximum, int bufferSize) {
+                "preserved", "maximum", "bufferSize", "leaked" })
+            @SuppressWarnings("PMD.ExcessiveParameterList")
+            public PoolInfo(int created, int pooled, int preserved,
+                    int maximum, int bufferSize, int leaked) {
                 this.created = created;
                 this.pooled = pooled;
                 this.preserved = preserved;
                 this.maximum = maximum;
                 this.bufferSize = bufferSize;
+                this.leaked = leaked;
             }
 
             /**
@@ -657,6 +1233,67 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
             public int getBufferSize() {
                 return bufferSize;
             }
+
+            /**
+             * The number of tracked buffers that have been detected
+             * as leaked.
+             * 
+             * @return the value
+             */
+            public int getLeaked() {
+                return leaked;
+            }
+        }
+
+        /**
+         * Information about a {@link BufferBudget}.
+         */
+        @SuppressWarnings("PMD.DataClass")
+        class BudgetInfo {
+            private final long limit;
+            private final long used;
+            private final boolean low;
+
+            /**
+             * Instantiates a new budget info.
+             *
+             * @param limit the limit
+             * @param used the used
+             * @param low the low
+             */
+            @ConstructorProperties({ "limit", "used", "low" })
+            public BudgetInfo(long limit, long used, boolean low) {
+                this.limit = limit;
+                this.used = used;
+                this.low = low;
+            }
+
+            /**
+             * The limit in bytes (0 if there is no limit).
+             * 
+             * @return the value
+             */
+            public long getLimit() {
+                return limit;
+            }
+
+            /**
+             * The bytes reserved by the buffers.
+             * 
+             * @return the value
+             */
+            public long getUsed() {
+                return used;
+            }
+
+            /**
+             * Whether the budget is running low.
+             * 
+             * @return the value
+             */
+            public boolean isLow() {
+                return low;
+            }
         }
 
         /**
@@ -683,9 +1320,9 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
                     String key = mbp.name();
                     @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
                     PoolInfo infos = new PoolInfo(
-                        mbp.createdBufs.get(), mbp.queue.size(),
+                        mbp.createdBufs.get(), mbp.pooledBuffers(),
                         mbp.preservedBufs, mbp.maximumBufs,
-                        mbp.bufferSize());
+                        mbp.bufferSize(), mbp.leakedBufs.get());
                     if (allPools.containsKey(key)
                         || dupsNext.containsKey(key)) {
                         if (allPools.containsKey(key)) {
@@ -770,6 +1407,36 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
          */
         long getAcquireWarningLimit();
 
+        /**
+         * Sets the sampling interval for leak detection.
+         * 
+         * @param interval the interval
+         * @see ManagedBufferPool#setLeakSampling(int)
+         */
+        void setLeakSampling(int interval);
+
+        /**
+         * Returns the sampling interval for leak detection.
+         * 
+         * @return the value
+         */
+        int getLeakSampling();
+
+        /**
+         * Sets whether stack traces are recorded for tracked buffers.
+         * 
+         * @param enabled whether enabled
+         * @see ManagedBufferPool#setLeakTraces(boolean)
+         */
+        void setLeakTraces(boolean enabled);
+
+        /**
+         * Checks if stack traces are recorded for tracked buffers.
+         * 
+         * @return the value
+         */
+        boolean isLeakTraces();
+
         /**
          * Informations about the pools.
          * 
@@ -777,6 +1444,13 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
          */
         PoolInfos getPoolInfos();
 
+        /**
+         * Informations about the {@link BufferBudget}s.
+         * 
+         * @return the map
+         */
+        SortedMap<String, BudgetInfo> getBudgets();
+
         /**
          * Summary information about the pooled buffers.
          * 
@@ -831,15 +1505,45 @@ public class ManagedBufferPool<W extends ManagedBuffer<T>, T extends Buffer>
             return ManagedBufferPool.acquireWarningLimit;
         }
 
+        @Override
+        public void setLeakSampling(int interval) {
+            ManagedBufferPool.setLeakSampling(interval);
+        }
+
+        @Override
+        public int getLeakSampling() {
+            return ManagedBufferPool.leakSampling();
+        }
+
+        @Override
+        public void setLeakTraces(boolean enabled) {
+            ManagedBufferPool.setLeakTraces(enabled);
+        }
+
+        @Override
+        public boolean isLeakTraces() {
+            return ManagedBufferPool.leakTraces();
+        }
+
         @Override
         public PoolInfos getPoolInfos() {
             return new PoolInfos(allPools);
         }
 
+        @Override
+        public SortedMap<String, BudgetInfo> getBudgets() {
+            SortedMap<String, BudgetInfo> result = new TreeMap<>();
+            for (BufferBudget budget : BufferBudget.budgets()) {
+                result.put(budget.name(), new BudgetInfo(budget.limit(),
+                    budget.used(), budget.isLow()));
+            }
+            return result;
+        }
+
         @Override
         public IntSummaryStatistics getPooledPerPoolStatistics() {
             return allPools.stream().collect(
-                Collectors.summarizingInt(mbp -> mbp.queue.size()));
+                Collectors.summarizingInt(mbp -> mbp.pooledBuffers()));
         }
 
         @Override
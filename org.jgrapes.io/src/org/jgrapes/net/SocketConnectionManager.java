@@ -20,18 +20,32 @@ package org.jgrapes.net;
 
 import java.io.IOException;
 import java.net.SocketAddress;
+import java.net.SocketOption;
+import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.jgrapes.core.Channel;
 import org.jgrapes.core.Component;
 import org.jgrapes.core.Components;
+import org.jgrapes.core.Event;
 import org.jgrapes.core.EventPipeline;
 import org.jgrapes.core.Manager;
 import org.jgrapes.core.Subchannel;
@@ -39,18 +53,34 @@ import org.jgrapes.core.annotation.Handler;
 import org.jgrapes.io.IOSubchannel.DefaultIOSubchannel;
 import org.jgrapes.io.NioHandler;
 import org.jgrapes.io.events.Closed;
+import org.jgrapes.io.events.FileRegion;
 import org.jgrapes.io.events.HalfClosed;
 import org.jgrapes.io.events.Input;
 import org.jgrapes.io.events.NioRegistration;
 import org.jgrapes.io.events.NioRegistration.Registration;
 import org.jgrapes.io.events.OpenSocketConnection;
 import org.jgrapes.io.events.Output;
+import org.jgrapes.io.util.BufferBudget;
+import org.jgrapes.io.util.DirectBufferSlab;
 import org.jgrapes.io.util.ManagedBuffer;
 import org.jgrapes.io.util.ManagedBufferPool;
+import org.jgrapes.util.events.ConfigurationUpdate;
 
 /**
  * Provides a base class for the {@link SocketServer} and the 
  * {@link SocketConnector}.
+ * 
+ * By default, every connection has its own event pipelines for
+ * the events sent downstream (from the network to the application)
+ * and upstream. This allows the events of different connections
+ * to be processed concurrently, but costs about 1.1 KiB of Java 
+ * objects per connection. Servers with many mostly idle connections
+ * can let the connections share a fixed number of pipelines
+ * (see {@link #setSharedPipelines(int)}), which reduces the memory
+ * used by an idle connection to about 0.3 KiB. These figures
+ * exclude the objects of the JDK's socket implementation (about
+ * 1 KiB per connection). The buffer pools of a connection are 
+ * created when they are first used.
  */
 @SuppressWarnings({ "PMD.ExcessiveImports", "PMD.ExcessivePublicCount",
     "PMD.NcssCount", "PMD.EmptyCatchBlock", "PMD.AvoidDuplicateLiterals",
@@ -58,8 +88,26 @@ import org.jgrapes.io.util.ManagedBufferPool;
 public abstract class SocketConnectionManager extends Component {
 
     private int bufferSize = 32_768;
+    private long bufferQuota;
+    private BufferBudget bufferBudget = BufferBudget.global();
+    private int readBudget = 65_536;
+    private int minReadBufferSize;
+    private int maxReadBufferSize;
     protected final Set<SocketChannelImpl> channels = new HashSet<>();
+    // Ordered by the time when the channels became purgeable
+    private final ConcurrentSkipListMap<Long,
+            SocketChannelImpl> purgeables = new ConcurrentSkipListMap<>();
+    private final AtomicLong purgeableSeq = new AtomicLong();
     private ExecutorService executorService;
+    private final Map<SocketOption<?>, Object> socketOptions
+        = new ConcurrentHashMap<>();
+    private boolean corkOutput;
+    private int sharedPipelines;
+    private final Object sharedPipelinesLock = new Object();
+    private EventPipeline[] sharedUpPipelines;
+    private EventPipeline[] sharedDownPipelines;
+    private final AtomicInteger nextUpPipeline = new AtomicInteger();
+    private final AtomicInteger nextDownPipeline = new AtomicInteger();
 
     /**
      * Creates a new server using the given channel.
@@ -91,6 +139,252 @@ public abstract class SocketConnectionManager extends Component {
         return bufferSize;
     }
 
+    /**
+     * Sets the maximum number of bytes that a single connection may
+     * allocate for its send and receive buffers from the
+     * {@link DirectBufferSlab}. Buffers requested beyond the quota
+     * are allocated on the heap. The default value of 0 means that
+     * there is no limit (besides the number of buffers in the
+     * connection's buffer pools).
+     * 
+     * @param bufferQuota the quota in bytes
+     * @return the socket connection manager for easy chaining
+     */
+    public SocketConnectionManager setBufferQuota(long bufferQuota) {
+        this.bufferQuota = bufferQuota;
+        return this;
+    }
+
+    /**
+     * Return the configured buffer quota.
+     *
+     * @return the buffer quota
+     */
+    public long bufferQuota() {
+        return bufferQuota;
+    }
+
+    /**
+     * Sets the budget that limits the memory used by the send
+     * and receive buffers of all connections. Defaults to
+     * {@link BufferBudget#global()}. If the budget is exhausted,
+     * reading from connections is suspended until buffers have
+     * been released.
+     *
+     * @param bufferBudget the budget
+     * @return the socket connection manager for easy chaining
+     */
+    public SocketConnectionManager setBufferBudget(BufferBudget bufferBudget) {
+        this.bufferBudget = bufferBudget;
+        return this;
+    }
+
+    /**
+     * Return the buffer budget.
+     *
+     * @return the buffer budget
+     */
+    public BufferBudget bufferBudget() {
+        return bufferBudget;
+    }
+
+    /**
+     * Sets the number of bytes that are read from a connection
+     * each time the selector reports data to be available. Reading 
+     * continues until either no more data is available, the budget 
+     * is used up or no more read buffers are available. A value of 0 
+     * restricts reading to a single buffer. Defaults to 64 KiB.
+     *
+     * @param readBudget the read budget
+     * @return the socket connection manager for easy chaining
+     */
+    public SocketConnectionManager setReadBudget(int readBudget) {
+        this.readBudget = readBudget;
+        return this;
+    }
+
+    /**
+     * Returns the read budget.
+     *
+     * @return the read budget
+     */
+    public int readBudget() {
+        return readBudget;
+    }
+
+    /**
+     * Enables the adaptive sizing of the buffers used for reading 
+     * from a connection. Every connection starts with buffers of
+     * the size set with {@link #setBufferSize(int)}. If a read fills
+     * the buffer completely, the size of subsequently used buffers 
+     * is doubled, up to `maxSize`. If consecutive reads use less 
+     * than half of the buffer, the size is halved, down to `minSize`.
+     * 
+     * This reduces the memory used by connections with small 
+     * messages while reducing the number of reads for bulk transfers.
+     * Adaptive sizing is disabled by default and can be disabled
+     * again by passing 0 for both values.
+     *
+     * @param minSize the minimum buffer size
+     * @param maxSize the maximum buffer size
+     * @return the socket connection manager for easy chaining
+     */
+    public SocketConnectionManager setAdaptiveReadBufferSize(int minSize,
+            int maxSize) {
+        this.minReadBufferSize = minSize;
+        this.maxReadBufferSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Returns the minimum size of read buffers if adaptive sizing
+     * is enabled, else 0.
+     *
+     * @return the size
+     */
+    public int minReadBufferSize() {
+        return minReadBufferSize;
+    }
+
+    /**
+     * Returns the maximum size of read buffers if adaptive sizing
+     * is enabled, else 0.
+     *
+     * @return the size
+     */
+    public int maxReadBufferSize() {
+        return maxReadBufferSize;
+    }
+
+    /**
+     * Sets a socket option for the connections, e.g. 
+     * {@link StandardSocketOptions#TCP_NODELAY}. The option is set
+     * for connections created subsequently and for the open 
+     * connections. Options that are not supported by a connection's
+     * socket (e.g. `TCP_NODELAY` for a Unix domain socket) are
+     * ignored for that connection. Passing `null` as value removes 
+     * the option, i.e. new connections use the system's default. 
+     * 
+     * {@link StandardSocketOptions#SO_LINGER} can only be set to
+     * 0 (abortive close, i.e. the connection is reset and unsent data
+     * is discarded) or to a negative value (disabled, the default).
+     * The connections use non-blocking sockets, for which the 
+     * behavior of a positive linger interval is not specified. 
+     * Closing a connection might even block the thread that 
+     * closes it.
+     *
+     * @param <T> the option's type
+     * @param option the option
+     * @param value the value
+     * @return the socket connection manager for easy chaining
+     * @throws IllegalArgumentException if `SO_LINGER` is set to
+     * a positive value
+     */
+    public <T> SocketConnectionManager setSocketOption(
+            SocketOption<T> option, T value) {
+        if (option == StandardSocketOptions.SO_LINGER && value != null
+            && (Integer) value > 0) {
+            throw new IllegalArgumentException("Only abortive close "
+                + "(0) is supported for SO_LINGER.");
+        }
+        if (value == null) {
+            socketOptions.remove(option);
+            return this;
+        }
+        socketOptions.put(option, value);
+        List<SocketChannelImpl> open;
+        synchronized (channels) {
+            open = new ArrayList<>(channels);
+        }
+        for (SocketChannelImpl channel : open) {
+            try {
+                channel.setSocketOption(option, value);
+            } catch (IOException e) {
+                // Closed concurrently
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns the value set for a socket option.
+     *
+     * @param <T> the option's type
+     * @param option the option
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> socketOption(SocketOption<T> option) {
+        return Optional.ofNullable((T) socketOptions.get(option));
+    }
+
+    /**
+     * Sets the socket options from the values of a 
+     * {@link ConfigurationUpdate} event. The supported keys are:
+     * 
+     * `tcpNoDelay`
+     * : Sets {@link StandardSocketOptions#TCP_NODELAY}.
+     * 
+     * `sendBufferSize`
+     * : Sets {@link StandardSocketOptions#SO_SNDBUF}.
+     * 
+     * `receiveBufferSize`
+     * : Sets {@link StandardSocketOptions#SO_RCVBUF}.
+     * 
+     * `keepAlive`
+     * : Sets {@link StandardSocketOptions#SO_KEEPALIVE}.
+     * 
+     * `linger`
+     * : Sets {@link StandardSocketOptions#SO_LINGER}. Only 0 
+     *   (abortive close) and -1 (disabled) are supported, see 
+     *   {@link #setSocketOption(SocketOption, Object)}.
+     * 
+     * `corkOutput`
+     * : See {@link #setCorkOutput(boolean)}.
+     *
+     * @param values the values
+     */
+    protected void configureSocketOptions(Map<String, String> values) {
+        Optional.ofNullable(values.get("tcpNoDelay")).map(Boolean::valueOf)
+            .ifPresent(value -> setSocketOption(
+                StandardSocketOptions.TCP_NODELAY, value));
+        Optional.ofNullable(values.get("sendBufferSize"))
+            .map(Integer::valueOf).ifPresent(value -> setSocketOption(
+                StandardSocketOptions.SO_SNDBUF, value));
+        Optional.ofNullable(values.get("receiveBufferSize"))
+            .map(Integer::valueOf).ifPresent(value -> setSocketOption(
+                StandardSocketOptions.SO_RCVBUF, value));
+        Optional.ofNullable(values.get("keepAlive")).map(Boolean::valueOf)
+            .ifPresent(value -> setSocketOption(
+                StandardSocketOptions.SO_KEEPALIVE, value));
+        Optional.ofNullable(values.get("linger")).map(Integer::valueOf)
+            .ifPresent(value -> setSocketOption(
+                StandardSocketOptions.SO_LINGER, value));
+        Optional.ofNullable(values.get("corkOutput")).map(Boolean::valueOf)
+            .ifPresent(this::setCorkOutput);
+    }
+
+    /**
+     * Sets the initial cork state of new connections (see
+     * {@link SocketIOChannel#setCorked(boolean)}). Defaults to `false`.
+     *
+     * @param corkOutput the initial state
+     * @return the socket connection manager for easy chaining
+     */
+    public SocketConnectionManager setCorkOutput(boolean corkOutput) {
+        this.corkOutput = corkOutput;
+        return this;
+    }
+
+    /**
+     * Returns the initial cork state of new connections.
+     *
+     * @return the state
+     */
+    public boolean corkOutput() {
+        return corkOutput;
+    }
+
     /**
      * Sets an executor service to be used by the event pipelines
      * that process the data from the network. Setting this
@@ -116,6 +410,73 @@ public abstract class SocketConnectionManager extends Component {
         return executorService;
     }
 
+    /**
+     * Lets the connections share the given number of event pipelines
+     * for each direction instead of creating two pipelines for each
+     * connection. The pipelines are assigned to the connections 
+     * round robin when they are created, so the events of a connection
+     * are still processed in order. However, a handler that blocks
+     * delays the events of all connections that use the same pipeline.
+     * 
+     * Setting the value affects connections created subsequently
+     * only. The default value of 0 means that every connection uses 
+     * its own pipelines.
+     *
+     * @param pipelines the number of pipelines per direction
+     * @return the socket connection manager for easy chaining
+     */
+    public SocketConnectionManager setSharedPipelines(int pipelines) {
+        synchronized (sharedPipelinesLock) {
+            sharedPipelines = Math.max(0, pipelines);
+            sharedUpPipelines = null;
+            sharedDownPipelines = null;
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of shared pipelines per direction.
+     *
+     * @return the number of pipelines
+     */
+    public int sharedPipelines() {
+        return sharedPipelines;
+    }
+
+    /**
+     * Returns the pipeline to be used by a new connection for the
+     * events sent in the given direction.
+     *
+     * @param downstream the direction
+     * @return the pipeline
+     */
+    private EventPipeline connectionPipeline(boolean downstream) {
+        EventPipeline[] shared;
+        synchronized (sharedPipelinesLock) {
+            if (sharedPipelines > 0 && sharedUpPipelines == null) {
+                sharedUpPipelines = new EventPipeline[sharedPipelines];
+                sharedDownPipelines = new EventPipeline[sharedPipelines];
+                for (int i = 0; i < sharedPipelines; i++) {
+                    sharedUpPipelines[i] = newEventPipeline();
+                    sharedDownPipelines[i] = newDownPipeline();
+                }
+            }
+            shared = downstream ? sharedDownPipelines : sharedUpPipelines;
+        }
+        if (shared == null) {
+            return downstream ? newDownPipeline() : newEventPipeline();
+        }
+        return shared[Math.floorMod((downstream ? nextDownPipeline
+            : nextUpPipeline).getAndIncrement(), shared.length)];
+    }
+
+    private EventPipeline newDownPipeline() {
+        if (executorService == null) {
+            return newEventPipeline();
+        }
+        return newEventPipeline(executorService);
+    }
+
     /**
      * Writes the data passed in the event. 
      * 
@@ -137,6 +498,23 @@ public abstract class SocketConnectionManager extends Component {
         }
     }
 
+    /**
+     * Sends the file region on the channel. The data is transferred 
+     * from the file to the socket without being copied to buffers
+     * (see {@link FileChannel#transferTo}).
+     *
+     * @param event the event
+     * @param channel the channel
+     * @throws InterruptedException if the execution was interrupted
+     */
+    @Handler
+    public void onFileRegion(FileRegion event, SocketChannelImpl channel)
+            throws InterruptedException {
+        if (channels.contains(channel)) {
+            channel.write(event);
+        }
+    }
+
     /**
      * Removes the channel from the set of registered channels.
      *
@@ -144,11 +522,38 @@ public abstract class SocketConnectionManager extends Component {
      * @return true, if channel was registered
      */
     protected boolean removeChannel(SocketChannelImpl channel) {
+        channel.unindex();
         synchronized (channels) {
             return channels.remove(channel);
         }
     }
 
+    /**
+     * Returns the purgeable channels, ordered by the time when they
+     * became purgeable (longest purgeable first). The collection
+     * is maintained when the channels' states change, so retrieving
+     * the channels that are purgeable for at least a given time
+     * requires visiting these channels only. The returned view is
+     * weakly consistent, i.e. it may be iterated concurrently with 
+     * updates.
+     *
+     * @return the channels
+     */
+    protected Collection<SocketChannelImpl> purgeableChannels() {
+        return purgeables.values();
+    }
+
+    /**
+     * Invoked when a channel has become purgeable. Does nothing
+     * by default. Invoked by the thread that has changed the
+     * state and must therefore return quickly.
+     *
+     * @param channel the channel
+     */
+    protected void becamePurgeable(SocketChannelImpl channel) {
+        // Hook for derived classes
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -183,21 +588,38 @@ public abstract class SocketConnectionManager extends Component {
     protected class SocketChannelImpl
             extends DefaultIOSubchannel implements NioHandler, SocketIOChannel {
 
+        /** The maximum number of buffers written with a single call. */
+        public static final int MAX_GATHER_BUFFERS = 16;
+        /** The number of bytes that, when reached, stops gathering. */
+        public static final int MAX_GATHER_BYTES = 256 * 1024;
+
         private final OpenSocketConnection openEvent;
         private final SocketChannel nioChannel;
         private final SocketAddress localAddress;
         private final SocketAddress remoteAddress;
         private final EventPipeline downPipeline;
-        private final ManagedBufferPool<ManagedBuffer<ByteBuffer>,
+        private ManagedBufferPool<ManagedBuffer<ByteBuffer>,
                 ByteBuffer> readBuffers;
+        private ManagedBufferPool<ManagedBuffer<ByteBuffer>,
+                ByteBuffer> writeBuffers;
         private Registration registration;
+        private final Object interestLock = new Object();
         private int selectionKeys;
-        private final Queue<
-                ManagedBuffer<ByteBuffer>.ByteBufferView> pendingWrites
-                    = new ArrayDeque<>();
+        private boolean readSuspended;
+        private DirectBufferSlab.Quota bufferQuota;
+        private int readBufferSize;
+        private int smallReads;
+        /** Holds {@link ManagedBuffer.ByteBufferView}s and 
+         * {@link PendingTransfer}s. */
+        private final Queue<Object> pendingWrites = new ArrayDeque<>(2);
+        private ByteBuffer[] gatherBuffers;
         private ConnectionState connState = ConnectionState.OPEN;
-        private PurgeableState purgeable = PurgeableState.NO;
+        private boolean corked;
+        private boolean writeScheduled;
+        private volatile PurgeableState purgeable = PurgeableState.NO;
         private long becamePurgeableAt;
+        private long purgeableKey = -1;
+        private boolean purged;
 
         /**
          * @param nioChannel the channel
@@ -205,36 +627,18 @@ public abstract class SocketConnectionManager extends Component {
          */
         public SocketChannelImpl(OpenSocketConnection openEvent,
                 SocketChannel nioChannel) throws IOException {
-            super(channel(), newEventPipeline());
+            super(channel(), connectionPipeline(false));
             this.openEvent = openEvent;
             this.nioChannel = nioChannel;
             // Copy, because they are only available while channel is open.
             localAddress = nioChannel.getLocalAddress();
             remoteAddress = nioChannel.getRemoteAddress();
-            if (executorService == null) {
-                downPipeline = newEventPipeline();
-            } else {
-                downPipeline = newEventPipeline(executorService);
-            }
-            String channelName
-                = Components.objectName(SocketConnectionManager.this)
-                    + "." + Components.objectName(this);
-
-            // Prepare write buffers
-            int writeBufferSize = bufferSize < 1500 ? 1500 : bufferSize;
-            setByteBufferPool(new ManagedBufferPool<>(ManagedBuffer::new,
-                () -> {
-                    return ByteBuffer.allocate(writeBufferSize);
-                }, 2)
-                    .setName(channelName + ".upstream.buffers"));
-
-            // Prepare read buffers
-            int readBufferSize = bufferSize < 1500 ? 1500 : bufferSize;
-            readBuffers = new ManagedBufferPool<>(ManagedBuffer::new,
-                () -> {
-                    return ByteBuffer.allocate(readBufferSize);
-                }, 2)
-                    .setName(channelName + ".downstream.buffers");
+            downPipeline = connectionPipeline(true);
+            readBufferSize = bufferSize < 1500 ? 1500 : bufferSize;
+            corked = corkOutput;
+            for (var option : socketOptions.entrySet()) {
+                setSocketOption(option.getKey(), option.getValue());
+            }
 
             // Register with dispatcher
             nioChannel.configureBlocking(false);
@@ -276,13 +680,120 @@ public abstract class SocketConnectionManager extends Component {
         }
 
         /**
-         * Gets the read buffers.
+         * Returns the quota for the buffers of this connection.
+         * Buffers are taken from the slab, so they are direct
+         * (no copying by the JDK) and recycled when discarded.
+         *
+         * @return the quota
+         */
+        private DirectBufferSlab.Quota bufferQuota() {
+            synchronized (this) {
+                if (bufferQuota == null) {
+                    bufferQuota = DirectBufferSlab.global().newQuota(
+                        SocketConnectionManager.this.bufferQuota);
+                }
+                return bufferQuota;
+            }
+        }
+
+        private String poolName(String suffix) {
+            return Components.objectName(SocketConnectionManager.this)
+                + "." + Components.objectName(this) + suffix;
+        }
+
+        /**
+         * Returns the name of the pool with the read buffers 
+         * without creating the pool.
+         *
+         * @return the name
+         */
+        /* default */ String readBuffersName() {
+            return poolName(".downstream.buffers");
+        }
+
+        /**
+         * Returns the name of the pool with the buffers for writing
+         * without creating the pool.
+         *
+         * @return the name
+         */
+        /* default */ String writeBuffersName() {
+            return poolName(".upstream.buffers");
+        }
+
+        /**
+         * Sets the socket option if supported by the socket.
+         *
+         * @param option the option
+         * @param value the value
+         * @throws IOException Signals that an I/O exception has occurred.
+         */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private void setSocketOption(SocketOption option, Object value)
+                throws IOException {
+            if (nioChannel.supportedOptions().contains(option)) {
+                nioChannel.setOption(option, value);
+            }
+        }
+
+        @Override
+        public <T> Optional<T> socketOption(SocketOption<T> option) {
+            if (!nioChannel.supportedOptions().contains(option)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.ofNullable(nioChannel.getOption(option));
+            } catch (IOException e) {
+                return Optional.empty();
+            }
+        }
+
+        /**
+         * Gets the read buffers. The pool is created when 
+         * this method is invoked for the first time.
          *
          * @return the readBuffers
          */
         public ManagedBufferPool<ManagedBuffer<ByteBuffer>, ByteBuffer>
                 readBuffers() {
-            return readBuffers;
+            synchronized (this) {
+                if (readBuffers == null) {
+                    DirectBufferSlab.Quota quota = bufferQuota();
+                    readBuffers = new ManagedBufferPool<>(ManagedBuffer::new,
+                        () -> {
+                            return quota.allocate(readBufferSize);
+                        }, 2).setBufferReleaser(quota::release)
+                            .setBudget(bufferBudget)
+                            .setName(readBuffersName());
+                }
+                return readBuffers;
+            }
+        }
+
+        /**
+         * Returns the pool with the buffers for writing. The pool
+         * is created when this method is invoked for the first time.
+         *
+         * @return the pool
+         */
+        @Override
+        public ManagedBufferPool<ManagedBuffer<ByteBuffer>, ByteBuffer>
+                byteBufferPool() {
+            synchronized (this) {
+                if (writeBuffers == null) {
+                    DirectBufferSlab.Quota quota = bufferQuota();
+                    int writeBufferSize
+                        = bufferSize < 1500 ? 1500 : bufferSize;
+                    writeBuffers = new ManagedBufferPool<>(ManagedBuffer::new,
+                        () -> {
+                            return quota.allocate(writeBufferSize);
+                        }, 2).setBufferReleaser(quota::release)
+                            .setBudget(bufferBudget)
+                            .setName(writeBuffersName());
+                    setByteBufferPool(writeBuffers);
+                }
+                return writeBuffers;
+            }
         }
 
         /**
@@ -302,8 +813,41 @@ public abstract class SocketConnectionManager extends Component {
          */
         public void registrationComplete(Registration registration) {
             this.registration = registration;
-            selectionKeys |= SelectionKey.OP_READ;
-            registration.updateInterested(selectionKeys);
+            updateInterested(SelectionKey.OP_READ, 0);
+        }
+
+        /**
+         * Adds and removes operations from the set of operations that
+         * the selector watches for.
+         *
+         * @param add the operations to add
+         * @param remove the operations to remove
+         */
+        private void updateInterested(int add, int remove) {
+            synchronized (interestLock) {
+                selectionKeys = (selectionKeys | add) & ~remove;
+                registration.updateInterested(selectionKeys);
+            }
+        }
+
+        /**
+         * Invoked by the read buffer pool when a buffer has become 
+         * available after reading has been suspended because no buffer
+         * was available.
+         */
+        @SuppressWarnings("PMD.EmptyCatchBlock")
+        private void resumeReading() {
+            synchronized (interestLock) {
+                if (!readSuspended || !nioChannel.isOpen()) {
+                    return;
+                }
+                readSuspended = false;
+                try {
+                    updateInterested(SelectionKey.OP_READ, 0);
+                } catch (CancelledKeyException e) {
+                    // Closed concurrently
+                }
+            }
         }
 
         /**
@@ -324,6 +868,68 @@ public abstract class SocketConnectionManager extends Component {
             return becamePurgeableAt;
         }
 
+        /**
+         * Sets the purgeable state and maintains the index of 
+         * purgeable channels. Becoming purgeable (again) updates the
+         * time returned by {@link #purgeableSince()} and moves the
+         * channel to the end of the index.
+         *
+         * @param state the state
+         */
+        private void setPurgeable(PurgeableState state) {
+            synchronized (this) {
+                unindex();
+                purgeable = state;
+                purged = false;
+                if (state != PurgeableState.YES) {
+                    return;
+                }
+                becamePurgeableAt = System.currentTimeMillis();
+                purgeableKey = purgeableSeq.getAndIncrement();
+                purgeables.put(purgeableKey, this);
+            }
+            becamePurgeable(this);
+        }
+
+        /**
+         * Records that a {@link org.jgrapes.io.events.Purge} event has
+         * been fired for the channel. The mark is cleared when the
+         * purgeable state changes.
+         *
+         * @return `false` if the channel has been marked already
+         */
+        /* default */ synchronized boolean markPurged() {
+            if (purged) {
+                return false;
+            }
+            purged = true;
+            return true;
+        }
+
+        /**
+         * Checks if a {@link org.jgrapes.io.events.Purge} event has
+         * been fired for the channel since it became purgeable.
+         *
+         * @return true, if purged
+         */
+        /* default */ synchronized boolean isPurged() {
+            return purged;
+        }
+
+        /**
+         * Removes the channel from the index of purgeable channels.
+         * The state is not changed, i.e. the channel is indexed again
+         * when it becomes purgeable the next time.
+         */
+        /* default */ void unindex() {
+            synchronized (this) {
+                if (purgeableKey >= 0) {
+                    purgeables.remove(purgeableKey);
+                    purgeableKey = -1;
+                }
+            }
+        }
+
         /**
          * Write the data on this channel.
          * 
@@ -337,11 +943,15 @@ public abstract class SocketConnectionManager extends Component {
                 }
                 ManagedBuffer<ByteBuffer>.ByteBufferView reader
                     = event.buffer().newByteBufferView();
-                if (!pendingWrites.isEmpty()) {
+                boolean hold = corked && !event.isEndOfRecord();
+                if (!pendingWrites.isEmpty() || hold) {
                     reader.managedBuffer().lockBuffer();
-                    purgeable = event.isEndOfRecord() ? PurgeableState.PENDING
-                        : PurgeableState.NO;
+                    setPurgeable(event.isEndOfRecord()
+                        ? PurgeableState.PENDING : PurgeableState.NO);
                     pendingWrites.add(reader);
+                    if (!writeScheduled && !(hold && holdMore())) {
+                        flushPending();
+                    }
                     return;
                 }
                 try {
@@ -351,20 +961,180 @@ public abstract class SocketConnectionManager extends Component {
                     return;
                 }
                 if (!reader.get().hasRemaining()) {
-                    if (event.isEndOfRecord()) {
-                        becamePurgeableAt = System.currentTimeMillis();
-                        purgeable = PurgeableState.YES;
-                    } else {
-                        purgeable = PurgeableState.NO;
-                    }
+                    setPurgeable(event.isEndOfRecord() ? PurgeableState.YES
+                        : PurgeableState.NO);
                     return;
                 }
                 reader.managedBuffer().lockBuffer();
-                purgeable = event.isEndOfRecord() ? PurgeableState.PENDING
-                    : PurgeableState.NO;
+                setPurgeable(event.isEndOfRecord()
+                    ? PurgeableState.PENDING : PurgeableState.NO);
                 pendingWrites.add(reader);
-                selectionKeys |= SelectionKey.OP_WRITE;
-                registration.updateInterested(selectionKeys);
+                scheduleWrite();
+            }
+        }
+
+        /**
+         * Write the file region on this channel.
+         * 
+         * @param event the event
+         */
+        public void write(FileRegion event) throws InterruptedException {
+            synchronized (pendingWrites) {
+                if (!nioChannel.isOpen()) {
+                    return;
+                }
+                PendingTransfer transfer = new PendingTransfer(event);
+                if (!pendingWrites.isEmpty()) {
+                    event.lockRegion();
+                    setPurgeable(event.isEndOfRecord()
+                        ? PurgeableState.PENDING : PurgeableState.NO);
+                    pendingWrites.add(transfer);
+                    if (!writeScheduled) {
+                        // Held back data must be written first
+                        scheduleWrite();
+                    }
+                    return;
+                }
+                try {
+                    transfer.transfer();
+                } catch (IOException e) {
+                    forceClose(e);
+                    return;
+                }
+                if (transfer.remaining == 0) {
+                    setPurgeable(event.isEndOfRecord() ? PurgeableState.YES
+                        : PurgeableState.NO);
+                    return;
+                }
+                event.lockRegion();
+                setPurgeable(event.isEndOfRecord()
+                    ? PurgeableState.PENDING : PurgeableState.NO);
+                pendingWrites.add(transfer);
+                scheduleWrite();
+            }
+        }
+
+        /**
+         * Corks or uncorks the connection. Uncorking writes the data
+         * that has been held back.
+         *
+         * @param corked the new state
+         * @throws InterruptedException the interrupted exception
+         */
+        @Override
+        public void setCorked(boolean corked) throws InterruptedException {
+            synchronized (pendingWrites) {
+                this.corked = corked;
+                if (!corked && !pendingWrites.isEmpty() && !writeScheduled
+                    && nioChannel.isOpen()) {
+                    flushPending();
+                }
+            }
+        }
+
+        @Override
+        public boolean isCorked() {
+            return corked;
+        }
+
+        /**
+         * Checks if more data may be held back while the connection
+         * is corked, i.e. if the held back data can be written with a 
+         * single gathering write. Must be invoked with the lock on the 
+         * pending writes held.
+         *
+         * @return true, if more data may be held back
+         */
+        private boolean holdMore() {
+            if (pendingWrites.size() >= MAX_GATHER_BUFFERS) {
+                return false;
+            }
+            long held = 0;
+            for (var pending : pendingWrites) {
+                held += ((ManagedBuffer<?>.ByteBufferView) pending).get()
+                    .remaining();
+            }
+            return held < MAX_GATHER_BYTES;
+        }
+
+        /**
+         * Writes the pending data (held back because the connection is
+         * corked) with a single gathering write. If not everything can
+         * be written, the rest is written when the socket becomes 
+         * writable again. Must be invoked with the lock on the pending
+         * writes held and while no write is scheduled. 
+         *
+         * @throws InterruptedException the interrupted exception
+         */
+        private void flushPending() throws InterruptedException {
+            int count = gatherPending();
+            try {
+                nioChannel.write(gatherBuffers, 0, count);
+            } catch (IOException e) {
+                forceClose(e);
+                return;
+            } finally {
+                Arrays.fill(gatherBuffers, 0, count, null);
+            }
+            releaseCompletedWrites();
+            if (!pendingWrites.isEmpty()) {
+                scheduleWrite();
+                return;
+            }
+            if (purgeable == PurgeableState.PENDING) {
+                setPurgeable(PurgeableState.YES);
+            }
+        }
+
+        /**
+         * Makes the selector report when the socket is writable, in
+         * order to write the pending data. Must be invoked with the
+         * lock on the pending writes held.
+         */
+        private void scheduleWrite() {
+            writeScheduled = true;
+            updateInterested(SelectionKey.OP_WRITE, 0);
+        }
+
+        /**
+         * A file region that is being transferred.
+         */
+        private class PendingTransfer {
+            private final FileRegion region;
+            private long position;
+            private long remaining;
+
+            /**
+             * Instantiates a new pending transfer.
+             *
+             * @param region the region
+             */
+            public PendingTransfer(FileRegion region) {
+                this.region = region;
+                position = region.position();
+                remaining = region.count();
+            }
+
+            /**
+             * Transfers data until either the complete region has been
+             * transferred or the socket doesn't accept more data.
+             *
+             * @throws IOException Signals that an I/O exception has occurred.
+             */
+            public void transfer() throws IOException {
+                while (remaining > 0) {
+                    long transferred = region.file().transferTo(
+                        position, remaining, nioChannel);
+                    if (transferred <= 0) {
+                        if (position >= region.file().size()) {
+                            // File has shrunk, nothing more to send.
+                            remaining = 0;
+                        }
+                        return;
+                    }
+                    position += transferred;
+                    remaining -= transferred;
+                }
             }
         }
 
@@ -379,34 +1149,123 @@ public abstract class SocketConnectionManager extends Component {
         }
 
         /**
-         * Gets a buffer from the pool and reads available data into it.
-         * Sends the result as event. 
+         * Gets buffers from the pool and reads available data into them.
+         * Sends the results as events. Reading continues as long as 
+         * data is available, the read budget (see 
+         * {@link SocketConnectionManager#setReadBudget(int)}) isn't used 
+         * up and buffers are available.
          * 
          * @throws InterruptedException
          * @throws IOException
          */
         @SuppressWarnings("PMD.EmptyCatchBlock")
         private void handleReadOp() throws InterruptedException {
-            ManagedBuffer<ByteBuffer> buffer;
-            buffer = readBuffers.acquire();
-            try {
-                int bytes = buffer.fillFromChannel(nioChannel);
+            int budget = readBudget;
+            while (true) {
+                ManagedBuffer<ByteBuffer> buffer = acquireReadBuffer();
+                if (buffer == null) {
+                    return;
+                }
+                int capacity = buffer.capacity();
+                int bytes;
+                try {
+                    bytes = buffer.fillFromChannel(nioChannel);
+                } catch (IOException e) {
+                    // Buffer already unlocked by fillFromChannel
+                    forceClose(e);
+                    return;
+                }
                 if (bytes == 0) {
                     buffer.unlockBuffer();
                     return;
                 }
-                if (bytes > 0) {
-                    purgeable = PurgeableState.NO;
-                    downPipeline.fire(Input.fromSink(buffer, false), this);
+                if (bytes < 0) {
+                    buffer.unlockBuffer();
+                    handleEof();
                     return;
                 }
-            } catch (IOException e) {
-                // Buffer already unlocked by fillFromChannel
-                forceClose(e);
+                if (purgeable != PurgeableState.NO) {
+                    setPurgeable(PurgeableState.NO);
+                }
+                downPipeline.fire(Input.fromSink(buffer, false), this);
+                if (maxReadBufferSize > 0) {
+                    adaptReadBufferSize(bytes, capacity);
+                }
+                budget -= bytes;
+                if (bytes < capacity || budget <= 0) {
+                    // Drained (most likely) or budget used up.
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Gets a buffer from the pool.
+         * 
+         * If no buffer is available (because the consumers haven't
+         * processed the previously read data yet), reading is suspended
+         * until a buffer is recollected. This avoids blocking the 
+         * selector's thread and lets TCP flow control slow down 
+         * the sender.
+         *
+         * @return the managed buffer or `null`
+         */
+        private ManagedBuffer<ByteBuffer> acquireReadBuffer() {
+            var readBuffers = readBuffers();
+            ManagedBuffer<ByteBuffer> buffer = readBuffers.tryAcquire();
+            if (buffer == null) {
+                synchronized (interestLock) {
+                    updateInterested(0, SelectionKey.OP_READ);
+                    readSuspended = true;
+                }
+                buffer = readBuffers.tryAcquire(this::resumeReading);
+                if (buffer == null) {
+                    return null;
+                }
+                resumeReading();
+            }
+            if (maxReadBufferSize > 0
+                && DirectBufferSlab.sizeClass(buffer.capacity())
+                    != DirectBufferSlab.sizeClass(readBufferSize)) {
+                // Pooled buffer with outdated size. Keeps its size
+                // if the budget doesn't permit a larger buffer.
+                int size = readBufferSize;
+                readBuffers.replaceBackingBuffer(buffer,
+                    Math.max(DirectBufferSlab.sizeClass(size), size),
+                    () -> bufferQuota().allocate(size));
+            }
+            return buffer;
+        }
+
+        /**
+         * Adapts the size of the read buffers to the number of bytes
+         * read recently.
+         *
+         * @param bytes the bytes read
+         * @param capacity the capacity of the buffer used
+         */
+        private void adaptReadBufferSize(int bytes, int capacity) {
+            if (bytes >= capacity) {
+                smallReads = 0;
+                readBufferSize = Math.min(capacity * 2, maxReadBufferSize);
+                return;
+            }
+            if (bytes > capacity / 2) {
+                smallReads = 0;
                 return;
             }
+            if (++smallReads >= 2) {
+                smallReads = 0;
+                readBufferSize = Math.max(capacity / 2, minReadBufferSize);
+            }
+        }
+
+        /**
+         * Handles the end of the input from the other end.
+         */
+        @SuppressWarnings("PMD.EmptyCatchBlock")
+        private void handleEof() {
             // EOF (-1) from other end
-            buffer.unlockBuffer();
             synchronized (nioChannel) {
                 if (connState == ConnectionState.HALF_CLOSED) {
                     // Other end confirms our close, complete close
@@ -421,57 +1280,61 @@ public abstract class SocketConnectionManager extends Component {
                 }
             }
             // Other end initiates close
-            selectionKeys &= ~SelectionKey.OP_READ;
-            registration.updateInterested(selectionKeys);
-            downPipeline.submit("SendHalfClosed", () -> {
-                try {
-                    // Inform downstream and wait until everything has settled.
-                    newEventPipeline().fire(new HalfClosed(), this).get();
-                    // All settled.
-                    removeChannel(this);
-                    downPipeline.fire(new Closed<Void>(), this);
-                    // Close our end if everything has been written.
-                    synchronized (pendingWrites) {
-                        synchronized (nioChannel) {
-                            try {
-                                if (!pendingWrites.isEmpty()) {
-                                    // Pending writes, delay close
-                                    connState = ConnectionState.DELAYED_REQUEST;
-                                    return;
+            updateInterested(0, SelectionKey.OP_READ);
+            // Inform downstream and proceed when everything has settled.
+            downPipeline.fire(Event.onCompletion(new HalfClosed(), evt -> {
+                removeChannel(this);
+                downPipeline.fire(new Closed<Void>(), this);
+                // Close our end if everything has been written.
+                synchronized (pendingWrites) {
+                    synchronized (nioChannel) {
+                        try {
+                            if (!pendingWrites.isEmpty()) {
+                                // Pending writes, delay close
+                                connState = ConnectionState.DELAYED_REQUEST;
+                                if (!writeScheduled) {
+                                    // Write data held back by cork
+                                    scheduleWrite();
                                 }
-                                // Nothing left to do, close
-                                nioChannel.close();
-                                connState = ConnectionState.CLOSED;
-                            } catch (IOException e) {
-                                // Ignored for close
+                                return;
                             }
+                            // Nothing left to do, close
+                            nioChannel.close();
+                            connState = ConnectionState.CLOSED;
+                        } catch (IOException e) {
+                            // Ignored for close
                         }
                     }
-                } catch (InterruptedException e) {
-                    // Nothing to do about this
                 }
-            });
+            }), this);
         }
 
         /**
          * Checks if there is still data to be written. This may be
-         * a left over in an incompletely written buffer or a complete
-         * pending buffer. 
+         * a left over in an incompletely written buffer or complete
+         * pending buffers. Several pending buffers are written 
+         * with a single (gathering) write, up to
+         * {@link #MAX_GATHER_BUFFERS} buffers or until 
+         * {@link #MAX_GATHER_BYTES} have been collected. Pending file 
+         * regions are transferred from the file to the socket.
          * 
          * @throws IOException
          * @throws InterruptedException 
          */
         @SuppressWarnings({ "PMD.DataflowAnomalyAnalysis",
             "PMD.EmptyCatchBlock", "PMD.AvoidBranchingStatementAsLastInLoop",
-            "PMD.CognitiveComplexity" })
+            "PMD.CognitiveComplexity", "PMD.NcssCount" })
         private void handleWriteOp() throws InterruptedException {
             while (true) {
-                ManagedBuffer<ByteBuffer>.ByteBufferView head;
+                int count = 0;
+                long gathered = 0;
+                PendingTransfer transfer = null;
                 synchronized (pendingWrites) {
+                    releaseCompletedWrites();
                     if (pendingWrites.isEmpty()) {
                         // Nothing left to write, stop getting ops
-                        selectionKeys &= ~SelectionKey.OP_WRITE;
-                        registration.updateInterested(selectionKeys);
+                        updateInterested(0, SelectionKey.OP_WRITE);
+                        writeScheduled = false;
                         // Was the connection closed while we were writing?
                         if (connState == ConnectionState.DELAYED_REQUEST
                             || connState == ConnectionState.DELAYED_EVENT) {
@@ -494,29 +1357,98 @@ public abstract class SocketConnectionManager extends Component {
                             }
                         } else {
                             if (purgeable == PurgeableState.PENDING) {
-                                purgeable = PurgeableState.YES;
+                                setPurgeable(PurgeableState.YES);
                             }
                         }
                         break; // Nothing left to do
                     }
-                    head = pendingWrites.peek();
-                    if (!head.get().hasRemaining()) {
-                        // Nothing left in head buffer, try next
-                        head.managedBuffer().unlockBuffer();
-                        pendingWrites.remove();
-                        continue;
+                    if (pendingWrites.peek() instanceof PendingTransfer head) {
+                        transfer = head;
+                    } else {
+                        count = gatherPending();
+                        for (int i = 0; i < count; i++) {
+                            gathered += gatherBuffers[i].remaining();
+                        }
+                    }
+                }
+                if (transfer != null) {
+                    try {
+                        transfer.transfer();
+                    } catch (IOException e) {
+                        forceClose(e);
+                        return;
+                    }
+                    if (transfer.remaining > 0) {
+                        break; // Wait for next op
                     }
+                    continue;
                 }
+                long written;
                 try {
-                    nioChannel.write(head.get()); // write...
+                    written = nioChannel.write(gatherBuffers, 0, count);
                 } catch (IOException e) {
                     forceClose(e);
                     return;
+                } finally {
+                    Arrays.fill(gatherBuffers, 0, count, null);
+                }
+                if (written < gathered) {
+                    break; // Wait for next op
                 }
-                break; // ... and wait for next op
+                // Everything written, maybe there's more
             }
         }
 
+        /**
+         * Removes completely written buffers and completely transferred
+         * file regions from the head of the pending writes.
+         */
+        private void releaseCompletedWrites() {
+            while (!pendingWrites.isEmpty()) {
+                Object head = pendingWrites.peek();
+                if (head instanceof PendingTransfer transfer) {
+                    if (transfer.remaining > 0) {
+                        return;
+                    }
+                    transfer.region.unlockRegion();
+                } else {
+                    var view = (ManagedBuffer<?>.ByteBufferView) head;
+                    if (view.get().hasRemaining()) {
+                        return;
+                    }
+                    view.managedBuffer().unlockBuffer();
+                }
+                pendingWrites.remove();
+            }
+        }
+
+        /**
+         * Copies buffers from the head of the pending writes to
+         * {@link #gatherBuffers}, stopping at a pending file region.
+         *
+         * @return the number of buffers
+         */
+        private int gatherPending() {
+            if (gatherBuffers == null) {
+                gatherBuffers = new ByteBuffer[MAX_GATHER_BUFFERS];
+            }
+            int count = 0;
+            long gathered = 0;
+            for (var pending : pendingWrites) {
+                if (!(pending instanceof ManagedBuffer<?>.ByteBufferView view)) {
+                    break;
+                }
+                ByteBuffer data = view.get();
+                gatherBuffers[count++] = data;
+                gathered += data.remaining();
+                if (count == MAX_GATHER_BUFFERS
+                    || gathered >= MAX_GATHER_BYTES) {
+                    break;
+                }
+            }
+            return count;
+        }
+
         /**
          * Closes this channel.
          * 
@@ -531,6 +1463,10 @@ public abstract class SocketConnectionManager extends Component {
                 if (!pendingWrites.isEmpty()) {
                     // Pending writes, delay close until done
                     connState = ConnectionState.DELAYED_EVENT;
+                    if (!writeScheduled) {
+                        // Write data held back by cork
+                        scheduleWrite();
+                    }
                     return;
                 }
                 // Nothing left to do, proceed
@@ -552,6 +1488,18 @@ public abstract class SocketConnectionManager extends Component {
             } catch (IOException e) {
                 // Closed only to make sure, any failure can be ignored.
             }
+            synchronized (pendingWrites) {
+                // Nothing will be written any more, release resources
+                while (!pendingWrites.isEmpty()) {
+                    Object pending = pendingWrites.remove();
+                    if (pending instanceof PendingTransfer transfer) {
+                        transfer.region.unlockRegion();
+                    } else {
+                        ((ManagedBuffer<?>.ByteBufferView) pending)
+                            .managedBuffer().unlockBuffer();
+                    }
+                }
+            }
             if (removeChannel(this)) {
                 var evt = new Closed<Void>(error);
                 downPipeline.fire(evt, this);
@@ -20,9 +20,12 @@ package org.jgrapes.net;
 
 import java.io.IOException;
 import java.net.ConnectException;
+import java.net.SocketOption;
 import java.nio.channels.SocketChannel;
+import java.util.Map;
 import org.jgrapes.core.Channel;
 import org.jgrapes.core.Event;
+import org.jgrapes.core.Manager;
 import org.jgrapes.core.Self;
 import org.jgrapes.core.annotation.Handler;
 import org.jgrapes.core.events.Error;
@@ -32,8 +35,10 @@ import org.jgrapes.io.events.ConnectError;
 import org.jgrapes.io.events.NioRegistration;
 import org.jgrapes.io.events.OpenSocketConnection;
 import org.jgrapes.io.events.Opening;
+import org.jgrapes.io.util.BufferBudget;
 import org.jgrapes.net.events.ClientConnected;
 import org.jgrapes.net.events.Connected;
+import org.jgrapes.util.events.ConfigurationUpdate;
 
 /**
  * A component that reads from or write to a socket connection.
@@ -62,6 +67,64 @@ public class SocketConnector extends SocketConnectionManager {
         return this;
     }
 
+    @Override
+    public SocketConnector setBufferQuota(long bufferQuota) {
+        super.setBufferQuota(bufferQuota);
+        return this;
+    }
+
+    @Override
+    public SocketConnector setBufferBudget(BufferBudget bufferBudget) {
+        super.setBufferBudget(bufferBudget);
+        return this;
+    }
+
+    @Override
+    public SocketConnector setReadBudget(int readBudget) {
+        super.setReadBudget(readBudget);
+        return this;
+    }
+
+    @Override
+    public SocketConnector setAdaptiveReadBufferSize(int minSize, int maxSize) {
+        super.setAdaptiveReadBufferSize(minSize, maxSize);
+        return this;
+    }
+
+    @Override
+    public SocketConnector setSharedPipelines(int pipelines) {
+        super.setSharedPipelines(pipelines);
+        return this;
+    }
+
+    @Override
+    public <T> SocketConnector setSocketOption(SocketOption<T> option,
+            T value) {
+        super.setSocketOption(option, value);
+        return this;
+    }
+
+    @Override
+    public SocketConnector setCorkOutput(boolean corkOutput) {
+        super.setCorkOutput(corkOutput);
+        return this;
+    }
+
+    /**
+     * The component can be configured with events that include
+     * a path (see @link {@link ConfigurationUpdate#paths()})
+     * that matches this components path (see {@link Manager#componentPath()}).
+     * 
+     * The socket options can be set with the keys listed in
+     * {@link #configureSocketOptions(Map)}.
+     * 
+     * @param event the event
+     */
+    @Handler
+    public void onConfigurationUpdate(ConfigurationUpdate event) {
+        event.values(componentPath()).ifPresent(this::configureSocketOptions);
+    }
+
     /**
      * Opens a connection to the end point specified in the event.
      *
@@ -19,6 +19,8 @@
 package org.jgrapes.net;
 
 import java.net.SocketAddress;
+import java.net.SocketOption;
+import java.util.Optional;
 import org.jgrapes.io.IOSubchannel;
 
 /**
@@ -34,7 +36,10 @@ public interface SocketIOChannel extends IOSubchannel {
     SocketAddress localAddress();
 
     /**
-     * Returns the remote address.
+     * Returns the remote address. For connections to a Unix domain 
+     * socket, the remote address of the accepted connection is usually
+     * unnamed, i.e. a {@link java.net.UnixDomainSocketAddress} with an 
+     * empty path, because clients don't bind their sockets.
      *
      * @return the socket address
      */
@@ -53,4 +58,37 @@ public interface SocketIOChannel extends IOSubchannel {
      * @return the timestamp
      */
     long purgeableSince();
+
+    /**
+     * Corks or uncorks the connection. While the connection is
+     * corked, the data from {@link org.jgrapes.io.events.Output} 
+     * events without the end of record flag is held back. It is 
+     * written together with the data of subsequent events when an
+     * event with the end of record flag is received, when the 
+     * held back data reaches the size that can be written with
+     * a single (gathering) write or when the connection is uncorked.
+     * This reduces the number of segments sent if the data is
+     * produced in small chunks.
+     *
+     * @param corked the new state
+     * @throws InterruptedException if the execution was interrupted
+     */
+    void setCorked(boolean corked) throws InterruptedException;
+
+    /**
+     * Checks if the connection is corked.
+     *
+     * @return true, if corked
+     */
+    boolean isCorked();
+
+    /**
+     * Returns the value of a socket option of the connection. 
+     *
+     * @param <T> the option's type
+     * @param option the option
+     * @return the value or empty if the option is not supported
+     * or the connection has been closed
+     */
+    <T> Optional<T> socketOption(SocketOption<T> option);
 }
@@ -21,23 +21,30 @@ package org.jgrapes.net;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.lang.ref.WeakReference;
+import java.net.ConnectException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.net.SocketOption;
 import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
 import java.net.UnixDomainSocketAddress;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.IntSummaryStatistics;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 import javax.management.InstanceAlreadyExistsException;
 import javax.management.MBeanRegistrationException;
@@ -53,6 +60,8 @@ import org.jgrapes.core.Self;
 import org.jgrapes.core.Subchannel;
 import org.jgrapes.core.annotation.Handler;
 import org.jgrapes.core.events.Error;
+import org.jgrapes.core.events.Overloaded;
+import org.jgrapes.core.events.Recovered;
 import org.jgrapes.core.events.Start;
 import org.jgrapes.core.events.Stop;
 import org.jgrapes.io.NioHandler;
@@ -66,6 +75,8 @@ import org.jgrapes.io.events.Opening;
 import org.jgrapes.io.events.Output;
 import org.jgrapes.io.events.Purge;
 import org.jgrapes.io.util.AvailabilityListener;
+import org.jgrapes.io.util.BufferBudget;
+import org.jgrapes.io.util.DirectBufferSlab;
 import org.jgrapes.io.util.LinkedIOSubchannel;
 import org.jgrapes.io.util.PermitsPool;
 import org.jgrapes.net.events.Accepted;
@@ -78,6 +89,13 @@ import org.jgrapes.util.events.ConfigurationUpdate;
  * The port may be overwritten by a configuration event
  * (see {@link #onConfigurationUpdate(ConfigurationUpdate)}).
  * 
+ * If the address is a {@link UnixDomainSocketAddress}, the server
+ * listens on a Unix domain socket. A socket file left over from a 
+ * server that has terminated without cleaning up is removed when 
+ * the server starts. The socket file is deleted when the server 
+ * is closed. Note that connections to Unix domain sockets usually 
+ * have an unnamed remote address (i.e. an address with an empty path).
+ * 
  * For each established connection, the server creates a new
  * {@link LinkedIOSubchannel}. The servers basic operation is to
  * fire {@link Input} (and {@link Closed}) events on the
@@ -98,6 +116,29 @@ import org.jgrapes.util.events.ConfigurationUpdate;
  * make sure that connections are either short lived or the application
  * level components support the {@link Purge} event. Else, it may become
  * impossible to establish new connections.
+ * 
+ * Independent of the connection limiter, connections that have been
+ * purgeable for longer than the time span set with 
+ * {@link #setIdleTimeout(long)} are closed. This can be used to
+ * evict idle keep-alive connections.
+ * 
+ * The server stops accepting new connections when it receives an
+ * {@link Overloaded} event for the global state (as fired by an
+ * {@link org.jgrapes.core.OverloadDetector}) and resumes accepting
+ * connections with the corresponding {@link Recovered} event.
+ * It also stops accepting new connections while the budget for
+ * the connections' buffers is running low (see 
+ * {@link #setBufferBudget(BufferBudget)}).
+ * 
+ * When a connection request is signaled, the server accepts all
+ * pending requests up to a limit (see {@link #setAcceptBatch(int)}).
+ * If supported by the platform, the server can open several 
+ * listening sockets that share the same port, using the socket
+ * option {@link StandardSocketOptions#SO_REUSEPORT} (see
+ * {@link #setAcceptors(int)}). The operating system distributes
+ * the incoming connection requests across these sockets. Combined 
+ * with a {@link org.jgrapes.io.NioDispatcher} that uses several 
+ * selectors, this allows connections to be accepted in parallel.
  */
 @SuppressWarnings({ "PMD.ExcessiveImports", "PMD.ExcessivePublicCount",
     "PMD.NcssCount", "PMD.EmptyCatchBlock", "PMD.AvoidDuplicateLiterals",
@@ -111,15 +152,30 @@ public class SocketServer extends SocketConnectionManager
     private int backlog;
     private PermitsPool connLimiter;
     private Registration registration;
-    private Purger purger;
+    private volatile Purger purger;
     private long minimumPurgeableTime;
+    private volatile long idleTimeout;
+    private volatile boolean overloaded;
+    private int acceptorCount = 1;
+    private int acceptBatch = 16;
+    private final List<Acceptor> acceptors = new CopyOnWriteArrayList<>();
+    // Referenced here, because budgets keep weak references only
+    private final BufferBudget.Listener budgetListener
+        = (budget, low) -> updateAcceptInterest();
+    private BufferBudget configuredBudget;
 
     /**
-     * The purger thread.
+     * The purger thread. Purges connections while no permits are
+     * available and closes connections that have been idle for
+     * longer than the idle timeout. Both only visit the channels
+     * that are eligible, using the index of purgeable channels.
      */
     private class Purger extends Thread implements AvailabilityListener {
 
-        private boolean permitsAvailable = true;
+        private volatile boolean permitsAvailable = true;
+        // Set while no check is scheduled
+        private volatile boolean waitingForChannel;
+        private boolean changed;
 
         /**
          * Instantiates a new purger.
@@ -134,78 +190,146 @@ public class SocketServer extends SocketConnectionManager
             if (registration == null) {
                 return;
             }
+            permitsAvailable = available;
+            updateAcceptInterest();
+            if (!available) {
+                wakeUp();
+            }
+        }
+
+        /**
+         * Causes the purger to re-evaluate the purgeable channels.
+         */
+        public void wakeUp() {
             synchronized (this) {
-                permitsAvailable = available;
-                registration.updateInterested(
-                    permitsAvailable ? SelectionKey.OP_ACCEPT : 0);
-                if (!permitsAvailable) {
-                    this.notifyAll();
-                }
+                changed = true;
+                notifyAll();
+            }
+        }
+
+        /**
+         * Invoked when a channel has become purgeable. The purger is
+         * woken up only if no check is scheduled. Else, the channel
+         * is handled in time anyway, because it is the most recently
+         * purgeable channel.
+         */
+        public void channelBecamePurgeable() {
+            if (waitingForChannel
+                && (idleTimeout > 0 || !permitsAvailable)) {
+                wakeUp();
             }
         }
 
         @Override
-        @SuppressWarnings({ "PMD.AvoidInstantiatingObjectsInLoops",
-            "PMD.DataflowAnomalyAnalysis", "PMD.CognitiveComplexity" })
+        @SuppressWarnings("PMD.DataflowAnomalyAnalysis")
         public void run() {
-            if (connLimiter == null) {
-                return;
+            if (connLimiter != null) {
+                connLimiter.addListener(this);
             }
             try {
-                connLimiter.addListener(this);
                 while (serverSocketChannel.isOpen()) {
+                    waitingForChannel = true;
+                    long nextCheck = processPurgeables();
                     synchronized (this) {
-                        while (permitsAvailable) {
-                            wait();
+                        if (nextCheck < Long.MAX_VALUE) {
+                            waitingForChannel = false;
                         }
-                    }
-                    // Copy to avoid ConcurrentModificationException
-                    List<SocketChannelImpl> candidates;
-                    synchronized (channels) {
-                        candidates = new ArrayList<>(channels);
-                    }
-                    long purgeableSince
-                        = System.currentTimeMillis() - minimumPurgeableTime;
-                    candidates = candidates.stream()
-                        .filter(channel -> channel.isPurgeable()
-                            && channel.purgeableSince() < purgeableSince)
-                        .sorted(new Comparator<SocketChannelImpl>() {
-                            @Override
-                            @SuppressWarnings("PMD.ShortVariable")
-                            public int compare(SocketChannelImpl c1,
-                                    SocketChannelImpl c2) {
-                                if (c1.purgeableSince() < c2
-                                    .purgeableSince()) {
-                                    return 1;
-                                }
-                                if (c1.purgeableSince() > c2
-                                    .purgeableSince()) {
-                                    return -1;
-                                }
-                                return 0;
+                        if (!changed) {
+                            if (waitingForChannel) {
+                                wait();
+                            } else {
+                                wait(Math.max(1, nextCheck
+                                    - System.currentTimeMillis()));
                             }
-                        })
-                        .collect(Collectors.toList());
-                    for (SocketChannelImpl channel : candidates) {
-                        // Sorting may have taken time...
-                        if (!channel.isPurgeable()) {
-                            continue;
-                        }
-                        channel.downPipeline().fire(new Purge(), channel);
-                        // Continue only as long as necessary
-                        if (permitsAvailable) {
-                            break;
                         }
+                        changed = false;
                     }
-                    sleep(1000);
                 }
             } catch (InterruptedException e) {
                 // Fall through
             } finally {
-                connLimiter.removeListener(this);
+                if (connLimiter != null) {
+                    connLimiter.removeListener(this);
+                }
             }
         }
 
+        /**
+         * Purges the channels that are purgeable for at least the 
+         * minimal purgeable time if no permits are available and 
+         * closes the channels that have been idle for longer than the
+         * idle timeout. A channel is purged only once while it
+         * remains purgeable.
+         *
+         * @return the time when the next channel becomes eligible
+         * or {@link Long#MAX_VALUE}
+         */
+        @SuppressWarnings("PMD.CognitiveComplexity")
+        private long processPurgeables() {
+            long now = System.currentTimeMillis();
+            boolean purging = connLimiter != null && !permitsAvailable;
+            long timeout = idleTimeout;
+            long next = Long.MAX_VALUE;
+            for (SocketChannelImpl channel : purgeableChannels()) {
+                if (!purging && timeout <= 0) {
+                    break;
+                }
+                if (!channel.isPurgeable()) {
+                    // Changed concurrently
+                    continue;
+                }
+                long since = channel.purgeableSince();
+                if (timeout > 0) {
+                    if (now - since >= timeout) {
+                        channel.unindex();
+                        channel.respond(new Close());
+                        continue;
+                    }
+                    next = Math.min(next, since + timeout);
+                }
+                if (!purging) {
+                    // Ordered, the remaining channels time out later
+                    return next;
+                }
+                if (channel.isPurged()) {
+                    // Remains indexed for the idle timeout, but
+                    // later channels may have to be purged.
+                    continue;
+                }
+                if (now - since >= minimumPurgeableTime) {
+                    if (channel.markPurged()) {
+                        channel.downPipeline().fire(new Purge(), channel);
+                    }
+                    continue;
+                }
+                // Ordered, the remaining channels become eligible later
+                return Math.min(next, since + minimumPurgeableTime);
+            }
+            return next;
+        }
+    }
+
+    /**
+     * An additional listening socket that shares the server's port.
+     */
+    private class Acceptor implements NioHandler {
+
+        private final ServerSocketChannel serverChannel;
+        private Registration registration;
+
+        /**
+         * Instantiates a new acceptor.
+         *
+         * @param serverChannel the server channel
+         */
+        public Acceptor(ServerSocketChannel serverChannel) {
+            this.serverChannel = serverChannel;
+        }
+
+        @Override
+        public void handleOps(int ops) {
+            accept(serverChannel, ops);
+        }
     }
 
     /**
@@ -242,6 +366,78 @@ public class SocketServer extends SocketConnectionManager
         return this;
     }
 
+    @Override
+    public SocketServer setBufferQuota(long bufferQuota) {
+        super.setBufferQuota(bufferQuota);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * Connections that have been established before the invocation
+     * continue to use the previous budget. Use 
+     * {@link BufferBudget#setLimit(long)} to change the limit for
+     * all connections.
+     */
+    @Override
+    public SocketServer setBufferBudget(BufferBudget bufferBudget) {
+        boolean running = registration != null && serverSocketChannel.isOpen();
+        if (running) {
+            bufferBudget().removeListener(budgetListener);
+        }
+        super.setBufferBudget(bufferBudget);
+        if (running) {
+            bufferBudget.addListener(budgetListener);
+            updateAcceptInterest();
+        }
+        return this;
+    }
+
+    @Override
+    public SocketServer setReadBudget(int readBudget) {
+        super.setReadBudget(readBudget);
+        return this;
+    }
+
+    @Override
+    public SocketServer setAdaptiveReadBufferSize(int minSize, int maxSize) {
+        super.setAdaptiveReadBufferSize(minSize, maxSize);
+        return this;
+    }
+
+    @Override
+    public SocketServer setSharedPipelines(int pipelines) {
+        super.setSharedPipelines(pipelines);
+        return this;
+    }
+
+    /**
+     * Sets a socket option for the connections (see 
+     * {@link SocketConnectionManager#setSocketOption(SocketOption, Object)}).
+     * {@link StandardSocketOptions#SO_RCVBUF} is also set for the
+     * listening sockets created subsequently, because a receive 
+     * buffer larger than 64 KiB must be requested before the 
+     * connection is established.
+     *
+     * @param <T> the option's type
+     * @param option the option
+     * @param value the value
+     * @return the socket server for easy chaining
+     */
+    @Override
+    public <T> SocketServer setSocketOption(SocketOption<T> option,
+            T value) {
+        super.setSocketOption(option, value);
+        return this;
+    }
+
+    @Override
+    public SocketServer setCorkOutput(boolean corkOutput) {
+        super.setCorkOutput(corkOutput);
+        return this;
+    }
+
     /**
      * The component can be configured with events that include
      * a path (see @link {@link ConfigurationUpdate#paths()})
@@ -265,6 +461,26 @@ public class SocketServer extends SocketConnectionManager
      * `bufferSize`
      * : See {@link #setBufferSize(int)}.
      * 
+     * `bufferQuota`
+     * : See {@link #setBufferQuota(long)}.
+     * 
+     * `bufferBudget`
+     * : Calls {@link #setBufferBudget(BufferBudget)} with a
+     *   budget of the specified size (in bytes) for this server.
+     *   If the budget has been created by a previous update, its
+     *   limit is changed instead.
+     * 
+     * `readBudget`
+     * : See {@link #setReadBudget(int)}.
+     * 
+     * `minReadBufferSize`, `maxReadBufferSize`
+     * : See {@link #setAdaptiveReadBufferSize(int, int)}. Adaptive sizing
+     *   is enabled if `maxReadBufferSize` is given, `minReadBufferSize`
+     *   defaults to {@link DirectBufferSlab#MIN_SIZE_CLASS}. 
+     * 
+     * `sharedPipelines`
+     * : See {@link #setSharedPipelines(int)}.
+     * 
      * `maxConnections`
      * : Calls {@link #setConnectionLimiter} with a
      *   {@link PermitsPool} of the specified size.
@@ -272,6 +488,18 @@ public class SocketServer extends SocketConnectionManager
      * `minimalPurgeableTime`
      * : See {@link #setMinimalPurgeableTime(long)}.
      * 
+     * `idleTimeout`
+     * : See {@link #setIdleTimeout(long)}.
+     * 
+     * `acceptors`
+     * : See {@link #setAcceptors(int)}.
+     * 
+     * `acceptBatch`
+     * : See {@link #setAcceptBatch(int)}.
+     * 
+     * Socket options can be set with the keys listed in
+     * {@link #configureSocketOptions(Map)}. 
+     * 
      * @param event the event
      */
     @Handler
@@ -290,11 +518,31 @@ public class SocketServer extends SocketConnectionManager
                 value -> setBacklog(Integer.parseInt(value)));
             Optional.ofNullable(values.get("bufferSize")).ifPresent(
                 value -> setBufferSize(Integer.parseInt(value)));
+            Optional.ofNullable(values.get("bufferQuota")).ifPresent(
+                value -> setBufferQuota(Long.parseLong(value)));
+            Optional.ofNullable(values.get("bufferBudget"))
+                .map(Long::parseLong).ifPresent(this::configureBufferBudget);
+            Optional.ofNullable(values.get("readBudget")).ifPresent(
+                value -> setReadBudget(Integer.parseInt(value)));
+            Optional.ofNullable(values.get("maxReadBufferSize")).ifPresent(
+                value -> setAdaptiveReadBufferSize(Integer.parseInt(
+                    values.getOrDefault("minReadBufferSize", Integer.toString(
+                        DirectBufferSlab.MIN_SIZE_CLASS))),
+                    Integer.parseInt(value)));
+            Optional.ofNullable(values.get("sharedPipelines"))
+                .map(Integer::parseInt).ifPresent(this::setSharedPipelines);
             Optional.ofNullable(values.get("maxConnections"))
                 .map(Integer::parseInt).map(PermitsPool::new)
                 .ifPresent(this::setConnectionLimiter);
             Optional.ofNullable(values.get("minimalPurgeableTime"))
                 .map(Long::parseLong).ifPresent(this::setMinimalPurgeableTime);
+            Optional.ofNullable(values.get("idleTimeout"))
+                .map(Long::parseLong).ifPresent(this::setIdleTimeout);
+            Optional.ofNullable(values.get("acceptors"))
+                .map(Integer::parseInt).ifPresent(this::setAcceptors);
+            Optional.ofNullable(values.get("acceptBatch"))
+                .map(Integer::parseInt).ifPresent(this::setAcceptBatch);
+            configureSocketOptions(values);
         });
     }
 
@@ -369,6 +617,80 @@ public class SocketServer extends SocketConnectionManager
         return this;
     }
 
+    /**
+     * Sets the time after which connections that are purgeable
+     * (idle) are closed. The default value of 0 means that
+     * idle connections are not closed.
+     *
+     * @param millis the idle timeout in milliseconds
+     * @return the socket server for easy chaining
+     */
+    public SocketServer setIdleTimeout(long millis) {
+        this.idleTimeout = millis;
+        Purger current = purger;
+        if (current != null) {
+            current.wakeUp();
+        }
+        return this;
+    }
+
+    /**
+     * Returns the idle timeout.
+     *
+     * @return the idle timeout in milliseconds
+     */
+    public long idleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets the number of listening sockets. If more than one
+     * socket is requested, the sockets share the server's port
+     * using the socket option {@link StandardSocketOptions#SO_REUSEPORT}.
+     * If the option isn't supported for the server's address,
+     * a single socket is used. Defaults to 1.
+     * 
+     * The value must be set before starting the component.
+     *
+     * @param acceptors the number of listening sockets
+     * @return the socket server for easy chaining
+     */
+    public SocketServer setAcceptors(int acceptors) {
+        this.acceptorCount = Math.max(1, acceptors);
+        return this;
+    }
+
+    /**
+     * Returns the number of listening sockets.
+     *
+     * @return the number
+     */
+    public int acceptors() {
+        return acceptorCount;
+    }
+
+    /**
+     * Sets the maximum number of connections accepted each time 
+     * when a listening socket signals pending connection requests.
+     * Defaults to 16.
+     *
+     * @param acceptBatch the maximum number of connections
+     * @return the socket server for easy chaining
+     */
+    public SocketServer setAcceptBatch(int acceptBatch) {
+        this.acceptBatch = Math.max(1, acceptBatch);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of connections accepted at once.
+     *
+     * @return the number
+     */
+    public int acceptBatch() {
+        return acceptBatch;
+    }
+
     /**
      * Gets the minimal purgeable time.
      *
@@ -387,16 +709,85 @@ public class SocketServer extends SocketConnectionManager
     @Handler
     public void onStart(Start event) throws IOException {
         closing = false;
-        if (serverAddress instanceof UnixDomainSocketAddress) {
+        if (serverAddress instanceof UnixDomainSocketAddress udsAddress) {
+            removeStaleSocket(udsAddress);
             serverSocketChannel
                 = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
         } else {
             serverSocketChannel = ServerSocketChannel.open();
         }
+        boolean reusePort = acceptorCount > 1 && serverSocketChannel
+            .supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        if (reusePort) {
+            serverSocketChannel.setOption(StandardSocketOptions.SO_REUSEPORT,
+                true);
+        }
+        setReceiveBufferSize(serverSocketChannel);
         serverSocketChannel.bind(serverAddress, backlog);
         MBeanView.addServer(this);
         fire(new NioRegistration(this, serverSocketChannel,
             SelectionKey.OP_ACCEPT, this), Channel.BROADCAST);
+        acceptors.clear();
+        if (!reusePort) {
+            return;
+        }
+        // Bind additional sockets to the actually used address and port
+        SocketAddress boundAddress = serverSocketChannel.getLocalAddress();
+        for (int i = 1; i < acceptorCount; i++) {
+            @SuppressWarnings("PMD.CloseResource")
+            ServerSocketChannel channel = ServerSocketChannel.open();
+            channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+            setReceiveBufferSize(channel);
+            channel.bind(boundAddress, backlog);
+            Acceptor acceptor = new Acceptor(channel);
+            acceptors.add(acceptor);
+            fire(new NioRegistration(acceptor, channel,
+                SelectionKey.OP_ACCEPT, this), Channel.BROADCAST);
+        }
+    }
+
+    private void setReceiveBufferSize(ServerSocketChannel channel)
+            throws IOException {
+        Optional<Integer> size
+            = socketOption(StandardSocketOptions.SO_RCVBUF);
+        if (size.isPresent() && channel.supportedOptions()
+            .contains(StandardSocketOptions.SO_RCVBUF)) {
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, size.get());
+        }
+    }
+
+    /**
+     * Removes the socket file if no server is listening on it.
+     * Files that are not sockets (i.e. regular files, directories 
+     * or symbolic links) are never removed, binding fails instead.
+     *
+     * @param address the address
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    private void removeStaleSocket(UnixDomainSocketAddress address)
+            throws IOException {
+        Path path = address.getPath();
+        if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)
+            || !Files.readAttributes(path, BasicFileAttributes.class,
+                LinkOption.NOFOLLOW_LINKS).isOther()) {
+            return;
+        }
+        try {
+            SocketChannel.open(address).close();
+            // Somebody is listening, let bind fail
+        } catch (ConnectException e) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private void configureBufferBudget(long limit) {
+        if (configuredBudget != null && configuredBudget == bufferBudget()) {
+            configuredBudget.setLimit(limit);
+            return;
+        }
+        configuredBudget
+            = new BufferBudget(Components.objectName(this), limit);
+        setBufferBudget(configuredBudget);
     }
 
     /**
@@ -417,11 +808,23 @@ public class SocketServer extends SocketConnectionManager
                 return;
             }
             registration = event.event().get();
+            bufferBudget().addListener(budgetListener);
             purger = new Purger();
             purger.start();
             fire(new Ready(serverSocketChannel.getLocalAddress()));
             return;
         }
+        if (handler instanceof Acceptor acceptor) {
+            if (event.event().get() == null) {
+                fire(new Error(event,
+                    "Registration failed, no NioDispatcher?"));
+                return;
+            }
+            acceptor.registration = event.event().get();
+            // May have changed while registering
+            updateAcceptInterest();
+            return;
+        }
         if (handler instanceof SocketChannelImpl channel) {
             var accepted = new Accepted(channel.nioChannel().getLocalAddress(),
                 channel.nioChannel().getRemoteAddress(), false,
@@ -436,6 +839,52 @@ public class SocketServer extends SocketConnectionManager
         }
     }
 
+    /**
+     * Stops accepting connections while the system is overloaded.
+     *
+     * @param event the event
+     */
+    @Handler
+    public void onOverloaded(Overloaded event) {
+        if (event.pipeline().isPresent()) {
+            return;
+        }
+        overloaded = true;
+        updateAcceptInterest();
+    }
+
+    /**
+     * Resumes accepting connections.
+     *
+     * @param event the event
+     */
+    @Handler
+    public void onRecovered(Recovered event) {
+        if (event.pipeline().isPresent()) {
+            return;
+        }
+        overloaded = false;
+        updateAcceptInterest();
+    }
+
+    private void updateAcceptInterest() {
+        if (registration == null) {
+            return;
+        }
+        Purger current = purger;
+        boolean permitsAvailable
+            = current == null || current.permitsAvailable;
+        int ops = permitsAvailable && !overloaded && !bufferBudget().isLow()
+            ? SelectionKey.OP_ACCEPT
+            : 0;
+        registration.updateInterested(ops);
+        for (Acceptor acceptor : acceptors) {
+            if (acceptor.registration != null) {
+                acceptor.registration.updateInterested(ops);
+            }
+        }
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -443,32 +892,55 @@ public class SocketServer extends SocketConnectionManager
      */
     @Override
     public void handleOps(int ops) {
-        if ((ops & SelectionKey.OP_ACCEPT) == 0 || closing) {
+        accept(serverSocketChannel, ops);
+    }
+
+    /**
+     * Accepts the pending connection requests up to the
+     * configured batch size.
+     *
+     * @param serverChannel the server channel
+     * @param ops the ops
+     */
+    private void accept(ServerSocketChannel serverChannel, int ops) {
+        if ((ops & SelectionKey.OP_ACCEPT) == 0) {
             return;
         }
-        synchronized (channels) {
-            if (connLimiter != null && !connLimiter.tryAcquire()) {
-                return;
-            }
-            try {
-                @SuppressWarnings("PMD.CloseResource")
-                SocketChannel socketChannel = serverSocketChannel.accept();
-                if (socketChannel == null) {
-                    // "False alarm"
-                    if (connLimiter != null) {
-                        connLimiter.release();
+        for (int i = 0; i < acceptBatch && !closing && !overloaded; i++) {
+            synchronized (channels) {
+                if (connLimiter != null && !connLimiter.tryAcquire()) {
+                    return;
+                }
+                try {
+                    @SuppressWarnings("PMD.CloseResource")
+                    SocketChannel socketChannel = serverChannel.accept();
+                    if (socketChannel == null) {
+                        // "False alarm" or no more pending requests
+                        if (connLimiter != null) {
+                            connLimiter.release();
+                        }
+                        return;
                     }
+                    channels.add(new SocketChannelImpl(null, socketChannel));
+                } catch (IOException e) {
+                    fire(new IOError(null, e));
                     return;
                 }
-                channels.add(new SocketChannelImpl(null, socketChannel));
-            } catch (IOException e) {
-                fire(new IOError(null, e));
             }
         }
     }
 
+    @Override
+    protected void becamePurgeable(SocketChannelImpl channel) {
+        Purger current = purger;
+        if (current != null) {
+            current.channelBecamePurgeable();
+        }
+    }
+
     @Override
     protected boolean removeChannel(SocketChannelImpl channel) {
+        channel.unindex();
         synchronized (channels) {
             if (!channels.remove(channel)) {
                 // Closed already
@@ -526,8 +998,21 @@ public class SocketServer extends SocketConnectionManager
                 channels.wait();
             }
         }
+        // Only remove the socket file if it has been created by binding
+        boolean bound = serverSocketChannel.getLocalAddress() != null;
         serverSocketChannel.close();
-        purger.interrupt();
+        for (Acceptor acceptor : acceptors) {
+            acceptor.serverChannel.close();
+        }
+        if (bound
+            && serverAddress instanceof UnixDomainSocketAddress udsAddress) {
+            Files.deleteIfExists(udsAddress.getPath());
+        }
+        Purger current = purger;
+        if (current != null) {
+            current.interrupt();
+        }
+        bufferBudget().removeListener(budgetListener);
         closing = false;
         fire(new Closed<Void>());
     }
@@ -570,6 +1055,15 @@ public class SocketServer extends SocketConnectionManager
                 this.channel = channel;
             }
 
+            /**
+             * Gets the remote address.
+             *
+             * @return the remote address
+             */
+            public String getRemoteAddress() {
+                return String.valueOf(channel.remoteAddress());
+            }
+
             /**
              * Checks if is purgeable.
              *
@@ -585,7 +1079,8 @@ public class SocketServer extends SocketConnectionManager
              * @return the downstream pool
              */
             public String getDownstreamPool() {
-                return channel.readBuffers().name();
+                // Don't create pools for idle connections
+                return channel.readBuffersName();
             }
 
             /**
@@ -594,7 +1089,7 @@ public class SocketServer extends SocketConnectionManager
              * @return the upstream pool
              */
             public String getUpstreamPool() {
-                return channel.byteBufferPool().name();
+                return channel.writeBuffersName();
             }
         }
 
@@ -704,9 +1199,10 @@ public class SocketServer extends SocketConnectionManager
         public SortedMap<String, ChannelInfo> getChannels() {
             return server().map(server -> {
                 SortedMap<String, ChannelInfo> result = new TreeMap<>();
+                // Remote addresses of Unix domain socket connections
+                // are usually unnamed, use the channels' names as keys.
                 for (SocketChannelImpl channel : server.channels) {
-                    result.put(channel.nioChannel().socket()
-                        .getRemoteSocketAddress().toString(),
+                    result.put(Components.objectName(channel),
                         new ChannelInfo(channel));
                 }
                 return result;
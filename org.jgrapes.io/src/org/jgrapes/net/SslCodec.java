@@ -18,6 +18,8 @@
 
 package org.jgrapes.net;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
@@ -28,8 +30,15 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
 import javax.net.ssl.ExtendedSSLSession;
 import javax.net.ssl.SNIServerName;
 import javax.net.ssl.SSLContext;
@@ -40,28 +49,35 @@ import javax.net.ssl.SSLEngineResult.Status;
 import javax.net.ssl.SSLException;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
+import org.jgrapes.core.Bulkhead;
 import org.jgrapes.core.Channel;
 import org.jgrapes.core.ClassChannel;
 import org.jgrapes.core.Component;
 import org.jgrapes.core.Components;
 import org.jgrapes.core.EventPipeline;
+import org.jgrapes.core.Manager;
 import org.jgrapes.core.annotation.Handler;
 import org.jgrapes.core.annotation.HandlerDefinition.ChannelReplacements;
+import org.jgrapes.core.events.Start;
+import org.jgrapes.core.events.Stop;
 import org.jgrapes.io.IOSubchannel;
 import org.jgrapes.io.events.Close;
 import org.jgrapes.io.events.Closed;
+import org.jgrapes.io.events.FileRegion;
 import org.jgrapes.io.events.HalfClosed;
 import org.jgrapes.io.events.IOError;
 import org.jgrapes.io.events.Input;
 import org.jgrapes.io.events.OpenSocketConnection;
 import org.jgrapes.io.events.Output;
 import org.jgrapes.io.events.Purge;
+import org.jgrapes.io.util.DirectBufferSlab;
 import org.jgrapes.io.util.LinkedIOSubchannel;
 import org.jgrapes.io.util.ManagedBuffer;
 import org.jgrapes.io.util.ManagedBufferPool;
 import org.jgrapes.net.events.Accepted;
 import org.jgrapes.net.events.ClientConnected;
 import org.jgrapes.net.events.Connected;
+import org.jgrapes.util.events.ConfigurationUpdate;
 
 /**
  * A component that receives and sends byte buffers on an
@@ -72,12 +88,54 @@ import org.jgrapes.net.events.Connected;
  * ("upstream") and therefore {@link Input} events represent
  * encrypted data and are decoded to {@link Output} events on
  * the plain channel ("downstream") and vice versa.
+ * 
+ * The tasks delegated by the {@link SSLEngine} during the handshake
+ * (mostly the expensive cryptographic operations) are executed by a
+ * {@link Bulkhead} (see {@link #setTaskBulkhead(Bulkhead)}). The 
+ * processing of the input from the connection is suspended until 
+ * the tasks have completed and then resumed by the bulkhead's thread.
+ * So a burst of handshakes doesn't block the event pipelines.
+ * 
+ * Sessions established by the codec in server mode are cached
+ * by the {@link SSLContext}'s server session context. Its size and
+ * the lifetime of the sessions can be configured with 
+ * {@link #setSessionCacheSize(int)} and {@link #setSessionTimeout(int)}.
+ * Clients can then resume a session with an abbreviated handshake.
+ * Stateless resumption with session tickets is controlled by the
+ * JDK's system property `jdk.tls.server.enableSessionTicketExtension`
+ * (enabled by default since JDK 13). The codec counts the full and 
+ * the resumed handshakes and reports them as MXBean.
+ * 
+ * The buffers used for the decrypted data are direct buffers taken
+ * from the {@link DirectBufferSlab}. They are sized to the engine's
+ * application buffer size, because the engine requires room for
+ * a record's inner content type, padding and authentication tag 
+ * in addition to the plain text (with TLS 1.3, a record with
+ * 16 KiB of plain text needs more than 16 KiB). Data is unwrapped
+ * directly into the buffer that is passed downstream. The buffers
+ * for data to be encrypted are sized to the maximum plain text
+ * of a record (16 KiB).
  */
-@SuppressWarnings({ "PMD.ExcessiveImports" })
+@SuppressWarnings({ "PMD.ExcessiveImports", "PMD.GodClass" })
 public class SslCodec extends Component {
 
+    /** The name of the bulkhead used by default. */
+    public static final String TASK_BULKHEAD = "SslCodec";
+
+    /** The maximum size of the plain text in a TLS record. */
+    private static final int MAX_PLAINTEXT = 16_384;
+
     private final Channel encryptedChannel;
     private final SSLContext sslContext;
+    private Bulkhead taskBulkhead;
+    private ManagedBufferPool<ManagedBuffer<ByteBuffer>,
+            ByteBuffer> carryOverPool;
+    private ManagedBufferPool<ManagedBuffer<ByteBuffer>,
+            ByteBuffer> packetPool;
+    private final AtomicLong fullHandshakes = new AtomicLong();
+    private final AtomicLong resumedHandshakes = new AtomicLong();
+    private final AtomicLong fallbackUnwraps = new AtomicLong();
+    private ObjectName mbeanName;
 
     /**
      * Represents the encrypted channel in annotations.
@@ -145,6 +203,192 @@ public class SslCodec extends Component {
         }
     }
 
+    /**
+     * Sets the bulkhead that executes the tasks delegated by the
+     * {@link SSLEngine}. Defaults to the bulkhead with the name
+     * {@link #TASK_BULKHEAD}, which can be configured with
+     * {@link Bulkhead#define(String, int, int)}. If the bulkhead
+     * rejects the tasks, they are executed by the thread that
+     * handles the input.
+     *
+     * @param bulkhead the bulkhead
+     * @return the SSL codec for easy chaining
+     */
+    public SslCodec setTaskBulkhead(Bulkhead bulkhead) {
+        this.taskBulkhead = bulkhead;
+        return this;
+    }
+
+    /**
+     * Returns the bulkhead that executes the delegated tasks.
+     *
+     * @return the bulkhead
+     */
+    public Bulkhead taskBulkhead() {
+        return taskBulkhead == null ? Bulkhead.get(TASK_BULKHEAD)
+            : taskBulkhead;
+    }
+
+    /**
+     * Sets the maximum number of sessions in the SSL context's 
+     * server session cache. Zero means no limit. Note that the cache
+     * is shared by all users of the SSL context.
+     *
+     * @param size the size
+     * @return the SSL codec for easy chaining
+     */
+    public SslCodec setSessionCacheSize(int size) {
+        sslContext.getServerSessionContext().setSessionCacheSize(size);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of sessions in the SSL context's 
+     * server session cache.
+     *
+     * @return the size
+     */
+    public int sessionCacheSize() {
+        return sslContext.getServerSessionContext().getSessionCacheSize();
+    }
+
+    /**
+     * Sets the time in seconds after which a session in the SSL
+     * context's server session cache can no longer be resumed. 
+     * Zero means no limit. Note that the cache is shared by all users 
+     * of the SSL context.
+     *
+     * @param seconds the timeout
+     * @return the SSL codec for easy chaining
+     */
+    public SslCodec setSessionTimeout(int seconds) {
+        sslContext.getServerSessionContext().setSessionTimeout(seconds);
+        return this;
+    }
+
+    /**
+     * Returns the time in seconds after which a session in the 
+     * SSL context's server session cache can no longer be resumed.
+     *
+     * @return the timeout
+     */
+    public int sessionTimeout() {
+        return sslContext.getServerSessionContext().getSessionTimeout();
+    }
+
+    /**
+     * Returns the number of completed handshakes that established
+     * a new session.
+     *
+     * @return the number
+     */
+    public long fullHandshakes() {
+        return fullHandshakes.get();
+    }
+
+    /**
+     * Returns the number of completed handshakes that resumed
+     * a session.
+     *
+     * @return the number
+     */
+    public long resumedHandshakes() {
+        return resumedHandshakes.get();
+    }
+
+    /**
+     * Returns the number of records that did not fit in a buffer
+     * from the pool and had to be unwrapped into a temporary heap 
+     * buffer.
+     *
+     * @return the number
+     */
+    public long fallbackUnwraps() {
+        return fallbackUnwraps.get();
+    }
+
+    /**
+     * The component can be configured with events that include
+     * a path (see @link {@link ConfigurationUpdate#paths()})
+     * that matches this components path (see {@link Manager#componentPath()}).
+     * 
+     * The following properties are recognized:
+     * 
+     * `sessionCacheSize`
+     * : See {@link #setSessionCacheSize(int)}.
+     * 
+     * `sessionTimeout`
+     * : See {@link #setSessionTimeout(int)}.
+     * 
+     * @param event the event
+     */
+    @Handler
+    public void onConfigurationUpdate(ConfigurationUpdate event) {
+        event.value(componentPath(), "sessionCacheSize")
+            .map(Integer::parseInt).ifPresent(this::setSessionCacheSize);
+        event.value(componentPath(), "sessionTimeout")
+            .map(Integer::parseInt).ifPresent(this::setSessionTimeout);
+    }
+
+    /**
+     * Registers the MXBean.
+     *
+     * @param event the event
+     */
+    @Handler
+    public void onStart(Start event) {
+        registerMBean();
+    }
+
+    /**
+     * Unregisters the MXBean.
+     *
+     * @param event the event
+     */
+    @Handler
+    public void onStop(Stop event) {
+        unregisterMBean();
+    }
+
+    /**
+     * Returns the pool with the buffers for incomplete TLS records.
+     * The pool is shared by all connections, a connection holds
+     * a buffer only while it has data from an incomplete record.
+     *
+     * @param packetSize the packet size
+     * @return the pool
+     */
+    private synchronized ManagedBufferPool<ManagedBuffer<ByteBuffer>,
+            ByteBuffer> carryOverPool(int packetSize) {
+        if (carryOverPool == null) {
+            carryOverPool = new ManagedBufferPool<>(ManagedBuffer::new,
+                () -> ByteBuffer.allocate(2 * packetSize + 50), 16,
+                1024).setThreadCacheSize(2).setName(
+                    Components.objectName(this) + ".carryOver.buffers");
+        }
+        return carryOverPool;
+    }
+
+    /**
+     * Returns the pool with the direct buffers for encrypted data. 
+     * The buffers are used only if the buffers provided by the upstream
+     * channel are too small to hold a TLS record.
+     *
+     * @param packetSize the packet size
+     * @return the pool
+     */
+    private synchronized ManagedBufferPool<ManagedBuffer<ByteBuffer>,
+            ByteBuffer> packetPool(int packetSize) {
+        if (packetPool == null) {
+            DirectBufferSlab slab = DirectBufferSlab.global();
+            packetPool = new ManagedBufferPool<>(ManagedBuffer::new,
+                () -> slab.allocate(packetSize + 50), 16, 1024)
+                    .setBufferReleaser(slab::release).setThreadCacheSize(2)
+                    .setName(Components.objectName(this) + ".packet.buffers");
+        }
+        return packetPool;
+    }
+
     /**
      * Creates a new downstream connection as {@link LinkedIOSubchannel} 
      * of the network connection together with an {@link SSLEngine}.
@@ -300,6 +544,27 @@ public class SslCodec extends Component {
         plainChannel.sendUpstream(event);
     }
 
+    /**
+     * Reads the file region and sends the data through the engine 
+     * and then upstream. The data cannot be transferred directly 
+     * from the file to the socket because it must be encrypted.
+     * 
+     * @param event the event with the file region
+     * @throws InterruptedException if the execution was interrupted
+     * @throws SSLException if some SSL related problem occurs
+     * @throws ExecutionException 
+     * @throws IOException if reading the file fails
+     */
+    @Handler
+    public void onFileRegion(FileRegion event, PlainChannel plainChannel)
+            throws InterruptedException, SSLException, ExecutionException,
+            IOException {
+        if (plainChannel.hub() != this) {
+            return;
+        }
+        plainChannel.sendUpstream(event);
+    }
+
     /**
      * Forwards a close event upstream.
      * 
@@ -328,8 +593,14 @@ public class SslCodec extends Component {
         private EventPipeline downPipeline;
         private ManagedBufferPool<ManagedBuffer<ByteBuffer>,
                 ByteBuffer> downstreamPool;
-        private ByteBuffer carryOver;
+        private ManagedBufferPool<ManagedBuffer<ByteBuffer>,
+                ByteBuffer> carryOverPool;
+        private final Object inputLock = new Object();
+        // Both guarded by inputLock
+        private ManagedBuffer<ByteBuffer> carryOver;
+        private boolean tasksPending;
         private boolean[] inputProcessed = { false };
+        private long handshakeStarted;
 
         /**
          * Instantiates a new plain channel from an accepted connection.
@@ -374,6 +645,7 @@ public class SslCodec extends Component {
         }
 
         private void init() {
+            handshakeStarted = System.currentTimeMillis();
             if (remoteAddress instanceof InetSocketAddress) {
                 sslEngine = sslContext.createSSLEngine(
                     ((InetSocketAddress) remoteAddress).getAddress()
@@ -384,22 +656,29 @@ public class SslCodec extends Component {
             }
             String channelName = Components.objectName(SslCodec.this)
                 + "." + Components.objectName(this);
-            // Create buffer pools, adding 50 to decoded application buffer
-            // size, see
-            // https://docs.oracle.com/javase/8/docs/technotes/guides/security/jsse/samples/sslengine/SSLEngineSimpleDemo.java
-            final int appBufSize
+            // Create buffer pools. The engine refuses to unwrap a
+            // record unless the buffer can hold the record's estimated
+            // fragment size, which exceeds the maximum plain text
+            // size for full TLS 1.3 records.
+            final DirectBufferSlab slab = DirectBufferSlab.global();
+            final int unwrapSize
                 = sslEngine.getSession().getApplicationBufferSize();
             downstreamPool = new ManagedBufferPool<>(ManagedBuffer::new,
-                () -> ByteBuffer.allocate(appBufSize + 50), 2)
+                () -> slab.allocate(unwrapSize), 2)
+                    .setBufferReleaser(slab::release)
                     .setName(channelName + ".downstream.buffers");
-            // Provide buffers with application buffer size
-            // for use by downstream components.
+            // Provide buffers for use by downstream components. Wrapping
+            // consumes at most a record's plain text at a time anyway.
             setByteBufferPool(new ManagedBufferPool<>(ManagedBuffer::new,
-                () -> ByteBuffer.allocate(appBufSize), 2)
+                () -> slab.allocate(MAX_PLAINTEXT), 2)
+                    .setBufferReleaser(slab::release)
                     .setName(channelName + ".upstream.buffers"));
             downPipeline = newEventPipeline();
+            carryOverPool = carryOverPool(
+                sslEngine.getSession().getPacketBufferSize());
             // Buffers for sending encrypted data upstream will be
-            // obtained from upstream() and resized if required.
+            // obtained from upstream() and linked to a larger
+            // buffer if required.
         }
 
         /**
@@ -408,37 +687,150 @@ public class SslCodec extends Component {
          * @param event the event
          * @throws SSLException the SSL exception
          * @throws InterruptedException the interrupted exception
-         * @throws ExecutionException the execution exception
          */
         public void sendDownstream(Input<ByteBuffer> event)
-                throws SSLException, InterruptedException, ExecutionException {
+                throws SSLException, InterruptedException {
             ByteBuffer input = event.buffer().duplicate();
-            if (carryOver != null) {
-                if (carryOver.remaining() < input.remaining()) {
-                    // Shouldn't happen with carryOver having packet size
-                    // bytes left, have seen it happen nevertheless.
-                    carryOver.flip();
-                    ByteBuffer extCarryOver = ByteBuffer.allocate(
-                        carryOver.remaining() + input.remaining());
-                    extCarryOver.put(carryOver);
-                    carryOver = extCarryOver;
+            synchronized (inputLock) {
+                if (carryOver == null && !tasksPending) {
+                    // Usual case, process the data from the event's buffer
+                    processInput(input);
+                    if (input.hasRemaining()) {
+                        // Incomplete record or processing suspended
+                        addToCarryOver(input);
+                    }
+                    return;
                 }
-                carryOver.put(input);
-                carryOver.flip();
-                input = carryOver;
-                carryOver = null;
+                addToCarryOver(input);
+                processCarryOver();
             }
+        }
 
-            // Main processing
-            processInput(input);
+        /**
+         * Appends the data to the carry over buffer, acquiring a 
+         * buffer if necessary.
+         *
+         * @param input the input
+         */
+        private void addToCarryOver(ByteBuffer input) {
+            if (carryOver == null) {
+                carryOver = carryOverPool.tryAcquire();
+                if (carryOver == null) {
+                    // Very many connections with incomplete records
+                    carryOver = ManagedBuffer.wrap(ByteBuffer.allocate(
+                        2 * sslEngine.getSession().getPacketBufferSize()
+                            + 50));
+                }
+            }
+            ByteBuffer data = carryOver.backingBuffer();
+            if (data.remaining() < input.remaining()) {
+                // Rarely needed, the buffer can hold two packets. But
+                // more may arrive while the delegated tasks are run.
+                ByteBuffer extended = ByteBuffer.allocate(data.position()
+                    + input.remaining()
+                    + sslEngine.getSession().getPacketBufferSize());
+                data.flip();
+                extended.put(data);
+                carryOver.replaceBackingBuffer(extended);
+                data = extended;
+            }
+            data.put(input);
+        }
 
-            // Check if data from incomplete packet remains in input buffer
+        /**
+         * Processes the data in the carry over buffer (if any) unless
+         * processing is suspended. Must be invoked with the input 
+         * lock held.
+         *
+         * @throws SSLException the SSL exception
+         * @throws InterruptedException the interrupted exception
+         */
+        private void processCarryOver()
+                throws SSLException, InterruptedException {
+            if (tasksPending) {
+                return;
+            }
+            if (carryOver == null) {
+                // Handshake may continue without input
+                processInput(ManagedBuffer.EMPTY_BYTE_BUFFER.backingBuffer()
+                    .duplicate());
+                return;
+            }
+            ByteBuffer input = carryOver.backingBuffer();
+            input.flip();
+            processInput(input);
             if (input.hasRemaining()) {
-                // Actually, packet buffer size should be sufficient,
-                // but since this is hard to test and doesn't really matter...
-                carryOver = ByteBuffer.allocate(input.remaining()
-                    + sslEngine.getSession().getPacketBufferSize() + 50);
-                carryOver.put(input);
+                input.compact();
+                return;
+            }
+            input.clear();
+            carryOver.unlockBuffer();
+            carryOver = null;
+        }
+
+        /**
+         * Passes the delegated tasks to the bulkhead. Must be invoked
+         * with the input lock held.
+         *
+         * @return `true` if the tasks are run asynchronously, `false`
+         * if they have been run by the invoking thread
+         */
+        private boolean runDelegatedTasks() {
+            tasksPending = true;
+            if (taskBulkhead().execute(this::runTasksAndResume)) {
+                return true;
+            }
+            // Rejected, must do it here.
+            tasksPending = false;
+            Runnable task;
+            while ((task = sslEngine.getDelegatedTask()) != null) {
+                task.run();
+            }
+            return false;
+        }
+
+        /**
+         * Runs the delegated tasks and resumes the processing of input
+         * on the channel's pipeline, where waiting for buffers doesn't
+         * block the bulkhead's threads.
+         */
+        @SuppressWarnings({ "PMD.GuardLogStatement",
+            "PMD.AvoidCatchingGenericException" })
+        private void runTasksAndResume() {
+            try {
+                Runnable task;
+                while ((task = sslEngine.getDelegatedTask()) != null) {
+                    task.run();
+                }
+            } catch (RuntimeException e) {
+                logger.log(Level.FINE, e.getMessage(), e);
+                synchronized (inputLock) {
+                    tasksPending = false;
+                }
+                downPipeline.fire(new IOError(null, e), this);
+                upstreamChannel().respond(new Close());
+                return;
+            }
+            downPipeline.submit("ResumeSslInput", this::resumeInput);
+        }
+
+        /**
+         * Resumes the processing of input after the delegated tasks
+         * have been run.
+         */
+        @SuppressWarnings("PMD.GuardLogStatement")
+        private void resumeInput() {
+            try {
+                synchronized (inputLock) {
+                    tasksPending = false;
+                    processCarryOver();
+                }
+            } catch (SSLException e) {
+                logger.log(Level.FINE, e.getMessage(), e);
+                downPipeline.fire(new IOError(null, e), this);
+                upstreamChannel().respond(new Close());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
         }
 
@@ -446,10 +838,11 @@ public class SslCodec extends Component {
             "PMD.AvoidInstantiatingObjectsInLoops", "PMD.ExcessiveMethodLength",
             "PMD.NPathComplexity", "PMD.CognitiveComplexity" })
         private SSLEngineResult processInput(ByteBuffer input)
-                throws SSLException, InterruptedException, ExecutionException {
+                throws SSLException, InterruptedException {
             SSLEngineResult unwrapResult;
             ManagedBuffer<ByteBuffer> unwrapped = downstreamPool.acquire();
             while (true) {
+                boolean suspended = false;
                 unwrapResult
                     = sslEngine.unwrap(input, unwrapped.backingBuffer());
                 synchronized (inputProcessed) {
@@ -459,20 +852,10 @@ public class SslCodec extends Component {
                 // Handle any handshaking procedures
                 switch (unwrapResult.getHandshakeStatus()) {
                 case NEED_TASK:
-                    while (true) {
-                        Runnable runnable = sslEngine.getDelegatedTask();
-                        if (runnable == null) {
-                            break;
-                        }
-                        // Having this handled by the response thread is
-                        // probably not really necessary, but as the delegated
-                        // task usually includes sending upstream...
-                        @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
-                        FutureTask<Boolean> task
-                            = new FutureTask<>(runnable, true);
-                        upstreamChannel().responsePipeline()
-                            .executorService().submit(task);
-                        task.get();
+                    if (runDelegatedTasks()) {
+                        // Resumed when tasks have completed
+                        suspended = true;
+                        break;
                     }
                     continue;
 
@@ -516,6 +899,12 @@ public class SslCodec extends Component {
                         sslEngine.isInboundDone()), this);
                     unwrapped = null;
                 }
+                if (suspended) {
+                    if (unwrapped != null) {
+                        unwrapped.unlockBuffer();
+                    }
+                    break;
+                }
 
                 // If we have a buffer overflow or everything was okay
                 // and there's data left, we try again, else we quit.
@@ -532,6 +921,13 @@ public class SslCodec extends Component {
                 // Make sure we have an output buffer.
                 if (unwrapped == null) {
                     unwrapped = downstreamPool.acquire();
+                } else if (unwrapResult.getStatus() == Status.BUFFER_OVERFLOW) {
+                    // Empty, but record exceeds the application buffer
+                    // size (should not happen after the handshake)
+                    fallbackUnwraps.incrementAndGet();
+                    unwrapped.unlockBuffer();
+                    unwrapped = ManagedBuffer.wrap(ByteBuffer.allocate(
+                        sslEngine.getSession().getApplicationBufferSize()));
                 }
             }
             return unwrapResult;
@@ -539,6 +935,12 @@ public class SslCodec extends Component {
 
         @SuppressWarnings("PMD.DataflowAnomalyAnalysis")
         private void fireAccepted() {
+            // A resumed session has been created before this handshake
+            if (sslEngine.getSession().getCreationTime() < handshakeStarted) {
+                resumedHandshakes.incrementAndGet();
+            } else {
+                fullHandshakes.incrementAndGet();
+            }
             List<SNIServerName> snis = Collections.emptyList();
             if (sslEngine.getSession() instanceof ExtendedSSLSession) {
                 snis = ((ExtendedSSLSession) sslEngine.getSession())
@@ -562,6 +964,43 @@ public class SslCodec extends Component {
             processOutput(output, event.isEndOfRecord());
         }
 
+        /**
+         * Sends the content of the file region upstream.
+         *
+         * @param event the event
+         * @throws SSLException the SSL exception
+         * @throws InterruptedException the interrupted exception
+         * @throws ExecutionException the execution exception
+         * @throws IOException Signals that an I/O exception has occurred.
+         */
+        public void sendUpstream(FileRegion event) throws SSLException,
+                InterruptedException, ExecutionException, IOException {
+            ManagedBuffer<ByteBuffer> chunk = byteBufferPool().acquire();
+            try {
+                ByteBuffer data = chunk.backingBuffer();
+                long position = event.position();
+                long remaining = event.count();
+                while (remaining > 0) {
+                    data.clear();
+                    if (data.remaining() > remaining) {
+                        data.limit((int) remaining);
+                    }
+                    int read = event.file().read(data, position);
+                    if (read < 0) {
+                        // File has shrunk
+                        remaining = 0;
+                    } else {
+                        position += read;
+                        remaining -= read;
+                    }
+                    data.flip();
+                    processOutput(data, event.isEndOfRecord() && remaining == 0);
+                }
+            } finally {
+                chunk.unlockBuffer();
+            }
+        }
+
         @SuppressWarnings({ "PMD.DataflowAnomalyAnalysis", "PMD.NcssCount",
             "PMD.CyclomaticComplexity", "PMD.NPathComplexity",
             "PMD.CognitiveComplexity" })
@@ -706,18 +1145,29 @@ public class SslCodec extends Component {
          */
         public void upstreamClosed()
                 throws SSLException, InterruptedException {
+            synchronized (inputLock) {
+                if (carryOver != null) {
+                    carryOver.unlockBuffer();
+                    carryOver = null;
+                }
+            }
             downPipeline.fire(new Closed<Void>(), this);
         }
 
         private ManagedBuffer<ByteBuffer> acquireUpstreamBuffer()
                 throws InterruptedException {
+            // Always acquire from upstream, this limits the number
+            // of records in flight.
             ManagedBuffer<ByteBuffer> feedback
                 = upstreamChannel().byteBufferPool().acquire();
-            int encSize
-                = sslEngine.getSession().getPacketBufferSize() + 50;
-            if (feedback.capacity() < encSize) {
-                feedback.replaceBackingBuffer(ByteBuffer.allocate(
-                    encSize));
+            int packetSize = sslEngine.getSession().getPacketBufferSize();
+            if (feedback.capacity() < packetSize + 50) {
+                // Too small, link to a buffer from the shared pool
+                // (restored and released when recollected).
+                ManagedBuffer<ByteBuffer> packet
+                    = packetPool(packetSize).acquire();
+                feedback.linkBackingBuffer(packet);
+                packet.unlockBuffer();
             }
             return feedback;
         }
@@ -729,4 +1179,128 @@ public class SslCodec extends Component {
             downPipeline.fire(new Purge(), this);
         }
     }
+
+    /**
+     * The Interface of the SslCodec MXBean.
+     */
+    public interface SslCodecMXBean {
+
+        /**
+         * Gets the component path.
+         *
+         * @return the component path
+         */
+        String getComponentPath();
+
+        /**
+         * Gets the number of handshakes that established a new session.
+         *
+         * @return the number
+         */
+        long getFullHandshakes();
+
+        /**
+         * Gets the number of handshakes that resumed a session.
+         *
+         * @return the number
+         */
+        long getResumedHandshakes();
+
+        /**
+         * Gets the number of records that had to be unwrapped into
+         * a temporary heap buffer.
+         *
+         * @return the number
+         */
+        long getFallbackUnwraps();
+
+        /**
+         * Gets the size of the server session cache.
+         *
+         * @return the size
+         */
+        int getSessionCacheSize();
+
+        /**
+         * Gets the timeout of the server session cache in seconds.
+         *
+         * @return the timeout
+         */
+        int getSessionTimeout();
+    }
+
+    /**
+     * The MBean view.
+     */
+    private class MBeanView implements SslCodecMXBean {
+
+        @Override
+        public String getComponentPath() {
+            return componentPath();
+        }
+
+        @Override
+        public long getFullHandshakes() {
+            return fullHandshakes();
+        }
+
+        @Override
+        public long getResumedHandshakes() {
+            return resumedHandshakes();
+        }
+
+        @Override
+        public long getFallbackUnwraps() {
+            return fallbackUnwraps();
+        }
+
+        @Override
+        public int getSessionCacheSize() {
+            return sessionCacheSize();
+        }
+
+        @Override
+        public int getSessionTimeout() {
+            return sessionTimeout();
+        }
+    }
+
+    @SuppressWarnings("PMD.EmptyCatchBlock")
+    private void registerMBean() {
+        synchronized (fullHandshakes) {
+            if (mbeanName != null) {
+                return;
+            }
+            try {
+                MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName("org.jgrapes.io:type="
+                    + SslCodec.class.getSimpleName() + ",name="
+                    + ObjectName.quote(Components.objectName(this)));
+                mbs.registerMBean(new MBeanView(), name);
+                mbeanName = name;
+            } catch (MalformedObjectNameException
+                    | InstanceAlreadyExistsException
+                    | MBeanRegistrationException
+                    | NotCompliantMBeanException e) {
+                // Have to live with that
+            }
+        }
+    }
+
+    @SuppressWarnings("PMD.EmptyCatchBlock")
+    private void unregisterMBean() {
+        synchronized (fullHandshakes) {
+            if (mbeanName == null) {
+                return;
+            }
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                    .unregisterMBean(mbeanName);
+            } catch (MBeanRegistrationException
+                    | InstanceNotFoundException e) {
+                // Should work
+            }
+            mbeanName = null;
+        }
+    }
 }
@@ -0,0 +1,135 @@
+package org.jgrapes.io.test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jgrapes.io.util.BufferBudget;
+import org.jgrapes.io.util.ManagedBuffer;
+import org.jgrapes.io.util.ManagedBufferPool;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class BufferBudgetTests {
+
+    private ManagedBufferPool<ManagedBuffer<ByteBuffer>, ByteBuffer>
+            newPool(BufferBudget budget) {
+        return new ManagedBufferPool<>(ManagedBuffer::new,
+            () -> ByteBuffer.allocate(4096), 2, 4).setBudget(budget)
+                .setDrainDelay(200);
+    }
+
+    @Test
+    public void testLimit() throws InterruptedException {
+        BufferBudget budget = new BufferBudget(8192);
+        StringBuffer changes = new StringBuffer();
+        BufferBudget.Listener listener
+            = (b, low) -> changes.append(low ? 'L' : 'R');
+        budget.addListener(listener);
+        var pool = newPool(budget);
+        var first = pool.acquire();
+        var second = pool.acquire();
+        assertEquals(8192, budget.used());
+        assertTrue(budget.isLow());
+        // Pool's limit not reached, but budget
+        assertNull(pool.tryAcquire());
+        first.unlockBuffer();
+        second.unlockBuffer();
+        // Still pooled
+        assertEquals(8192, budget.used());
+        Thread.sleep(200 + 3 * ManagedBufferPool.DRAIN_TICK);
+        assertEquals(0, budget.used());
+        assertFalse(budget.isLow());
+        assertEquals("LR", changes.toString());
+    }
+
+    @Test
+    public void testDrainIdle() throws InterruptedException {
+        BufferBudget budget = new BufferBudget(8192);
+        var idle = newPool(budget).setDrainDelay(60_000);
+        var first = idle.acquire();
+        var second = idle.acquire();
+        first.unlockBuffer();
+        second.unlockBuffer();
+        Thread.sleep(3 * ManagedBufferPool.DRAIN_TICK);
+        // Idle pool is drained although drain delay hasn't passed
+        var busy = newPool(budget);
+        var buffer = busy.tryAcquire();
+        assertNotNull(buffer);
+        assertEquals(4096, budget.used());
+        buffer.unlockBuffer();
+    }
+
+    @Test(timeout = 5000)
+    public void testResumeWaiting() throws InterruptedException {
+        BufferBudget budget = new BufferBudget(8192);
+        var holder = newPool(budget);
+        var first = holder.acquire();
+        var second = holder.acquire();
+        var waiter = newPool(budget);
+        AtomicReference<ManagedBuffer<ByteBuffer>> acquired
+            = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                acquired.set(waiter.acquire());
+            } catch (InterruptedException e) {
+                // Not expected
+            }
+        });
+        thread.start();
+        Thread.sleep(100);
+        assertNull(acquired.get());
+        // Released to budget after drain delay
+        first.unlockBuffer();
+        second.unlockBuffer();
+        thread.join();
+        assertNotNull(acquired.get());
+        acquired.get().unlockBuffer();
+    }
+
+    private void leak(BufferBudget budget) throws InterruptedException {
+        var pool = newPool(budget);
+        pool.acquire();
+        // Neither buffer nor pool are used any more
+    }
+
+    @Test
+    public void testAbandonedPool() throws InterruptedException {
+        BufferBudget budget = new BufferBudget(8192);
+        leak(budget);
+        assertEquals(4096, budget.used());
+        for (int i = 0; i < 100 && budget.used() > 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(0, budget.used());
+    }
+
+    @Test
+    public void testChangingSizes() throws InterruptedException {
+        BufferBudget budget = new BufferBudget(32_768);
+        AtomicInteger size = new AtomicInteger(4096);
+        var pool = new ManagedBufferPool<>(ManagedBuffer::new,
+            () -> ByteBuffer.allocate(size.get()), 2, 4).setBudget(budget);
+        var first = pool.acquire();
+        assertEquals(4096, budget.used());
+        // Created buffers are charged with their actual size
+        size.set(8192);
+        var second = pool.acquire();
+        assertEquals(4096 + 8192, budget.used());
+        // Replacing adjusts the reservation
+        assertTrue(pool.replaceBackingBuffer(first, 16_384,
+            () -> ByteBuffer.allocate(16_384)));
+        assertEquals(16_384, first.capacity());
+        assertEquals(16_384 + 8192, budget.used());
+        assertTrue(pool.replaceBackingBuffer(second, 2048,
+            () -> ByteBuffer.allocate(2048)));
+        assertEquals(16_384 + 2048, budget.used());
+        // Not permitted by the budget
+        assertFalse(pool.replaceBackingBuffer(second, 32_768,
+            () -> ByteBuffer.allocate(32_768)));
+        assertEquals(2048, second.capacity());
+        assertEquals(16_384 + 2048, budget.used());
+        first.unlockBuffer();
+        second.unlockBuffer();
+    }
+}
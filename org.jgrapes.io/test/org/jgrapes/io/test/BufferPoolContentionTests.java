@@ -0,0 +1,125 @@
+package org.jgrapes.io.test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jgrapes.io.util.ManagedBuffer;
+import org.jgrapes.io.util.ManagedBufferPool;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Measures the throughput of a pool shared by 1 to 64 threads,
+ * with and without thread caches.
+ */
+public class BufferPoolContentionTests {
+
+    private static final int OPERATIONS = 2_000_000;
+
+    private ManagedBufferPool<ManagedBuffer<ByteBuffer>, ByteBuffer>
+            newPool(int threadCache) {
+        return new ManagedBufferPool<>(ManagedBuffer::new,
+            () -> ByteBuffer.allocate(64), 64, 1024)
+                .setThreadCacheSize(threadCache);
+    }
+
+    private long run(ManagedBufferPool<ManagedBuffer<ByteBuffer>,
+            ByteBuffer> pool, int threads) throws InterruptedException {
+        int perThread = OPERATIONS / threads;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < perThread; j++) {
+                        ManagedBuffer<ByteBuffer> buffer = pool.acquire();
+                        buffer.backingBuffer().put((byte) j);
+                        buffer.unlockBuffer();
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long nanos = System.nanoTime() - started;
+        assertNull(failure.get());
+        return perThread * threads * 1_000_000_000L / Math.max(nanos, 1);
+    }
+
+    @Test
+    public void testContention() throws InterruptedException {
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            long shared = run(newPool(0), threads);
+            long cached = run(newPool(4), threads);
+            System.out.println(String.format(
+                "%2d threads: %,12d acquisitions/s shared, %,12d cached",
+                threads, shared, cached));
+        }
+    }
+
+    private void cacheInOtherThread(ManagedBufferPool<
+            ManagedBuffer<ByteBuffer>, ByteBuffer> pool)
+            throws InterruptedException {
+        Thread other = new Thread(() -> {
+            try {
+                pool.acquire().unlockBuffer();
+            } catch (InterruptedException e) {
+                // Not expected
+            }
+        });
+        other.start();
+        other.join();
+    }
+
+    @Test
+    public void testTakeCachedBuffer() throws InterruptedException {
+        var pool = new ManagedBufferPool<>(ManagedBuffer::new,
+            () -> ByteBuffer.allocate(64), 1, 1).setThreadCacheSize(2);
+        // Put the only buffer in the cache of another thread
+        cacheInOtherThread(pool);
+        // Taken from the other thread's cache
+        ManagedBuffer<ByteBuffer> buffer = pool.tryAcquire();
+        assertNotNull(buffer);
+        assertNull(pool.tryAcquire());
+        buffer.unlockBuffer();
+    }
+
+    @Test
+    public void testPruneCaches() throws InterruptedException {
+        var pool = new ManagedBufferPool<>(ManagedBuffer::new,
+            () -> ByteBuffer.allocate(64), 1, 1).setThreadCacheSize(2)
+                .setDrainDelay(60_000);
+        cacheInOtherThread(pool);
+        assertTrue(pool.toString().contains("pooled=1"));
+        // Thread has terminated, its cache is removed
+        Thread.sleep(3 * ManagedBufferPool.DRAIN_TICK);
+        assertTrue(pool.toString().contains("pooled=0, created=0"));
+    }
+
+    @Test
+    public void testDrain() throws InterruptedException {
+        var pool = new ManagedBufferPool<>(ManagedBuffer::new,
+            () -> ByteBuffer.allocate(64), 2, 4).setThreadCacheSize(1)
+                .setDrainDelay(200);
+        List<ManagedBuffer<ByteBuffer>> buffers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            buffers.add(pool.acquire());
+        }
+        buffers.forEach(ManagedBuffer::unlockBuffer);
+        // One cached, two pooled, one discarded
+        assertTrue(pool.toString().contains("pooled=3"));
+        Thread.sleep(200 + 3 * ManagedBufferPool.DRAIN_TICK);
+        assertTrue(pool.toString().contains("pooled=0, created=0"));
+    }
+}
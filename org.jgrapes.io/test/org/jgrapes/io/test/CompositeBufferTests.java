@@ -0,0 +1,84 @@
+package org.jgrapes.io.test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.jgrapes.io.util.CompositeBuffer;
+import org.jgrapes.io.util.ManagedBuffer;
+import org.jgrapes.io.util.ManagedBufferPool;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class CompositeBufferTests {
+
+    private ManagedBufferPool<ManagedBuffer<ByteBuffer>, ByteBuffer>
+            newPool() {
+        return new ManagedBufferPool<>(ManagedBuffer::new,
+            () -> ByteBuffer.allocate(64), 2, 2);
+    }
+
+    private ManagedBuffer<ByteBuffer> filled(
+            ManagedBufferPool<ManagedBuffer<ByteBuffer>, ByteBuffer> pool,
+            String data) throws InterruptedException {
+        ManagedBuffer<ByteBuffer> buffer = pool.acquire();
+        buffer.backingBuffer().put(data.getBytes(StandardCharsets.US_ASCII));
+        buffer.flip();
+        return buffer;
+    }
+
+    private String content(ByteBuffer buffer) {
+        return StandardCharsets.US_ASCII.decode(buffer.duplicate())
+            .toString();
+    }
+
+    @Test
+    public void testSlice() throws InterruptedException {
+        var pool = newPool();
+        var buffer = filled(pool, "Hello World");
+        var slice = buffer.slice(6, 5);
+        assertEquals("World", content(slice.backingBuffer()));
+        // Data is shared
+        buffer.backingBuffer().put(6, (byte) 'w');
+        assertEquals("world", content(slice.backingBuffer()));
+        // Slice keeps the buffer from being reused
+        buffer.unlockBuffer();
+        assertTrue(pool.toString().contains("pooled=0"));
+        var sliceOfSlice = slice.slice();
+        slice.unlockBuffer();
+        assertTrue(pool.toString().contains("pooled=0"));
+        sliceOfSlice.unlockBuffer();
+        assertTrue(pool.toString().contains("pooled=1"));
+    }
+
+    @Test
+    public void testComposite() throws InterruptedException {
+        var pool = newPool();
+        var first = filled(pool, "Hello ");
+        var second = filled(pool, "World");
+        var composite = new CompositeBuffer<ByteBuffer>().add(first)
+            .add(second);
+        first.unlockBuffer();
+        second.unlockBuffer();
+        assertEquals(11, composite.remaining());
+        var range = composite.slice(4, 4);
+        assertEquals(4, range.remaining());
+        assertEquals(2, range.components().size());
+        ByteBuffer joined = ByteBuffer.allocate(3);
+        assertEquals(3, range.transferTo(joined));
+        joined.flip();
+        assertEquals("o W", content(joined));
+        // Slicing doesn't consume data from the original
+        assertEquals(11, composite.remaining());
+        composite.unlockBuffer();
+        assertTrue(pool.toString().contains("pooled=0"));
+        range.unlockBuffer();
+        assertTrue(pool.toString().contains("pooled=2"));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSliceOutOfRange() throws InterruptedException {
+        var pool = newPool();
+        var composite = new CompositeBuffer<ByteBuffer>()
+            .add(filled(pool, "Hello"));
+        composite.slice(2, 4);
+    }
+}
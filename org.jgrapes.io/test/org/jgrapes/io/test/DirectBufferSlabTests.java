@@ -0,0 +1,82 @@
+package org.jgrapes.io.test;
+
+import java.nio.ByteBuffer;
+import org.jgrapes.io.util.DirectBufferSlab;
+import org.jgrapes.io.util.ManagedBuffer;
+import org.jgrapes.io.util.ManagedBufferPool;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class DirectBufferSlabTests {
+
+    @Test
+    public void testSizeClasses() {
+        assertEquals(1024, DirectBufferSlab.sizeClass(1));
+        assertEquals(2048, DirectBufferSlab.sizeClass(1500));
+        assertEquals(16_384, DirectBufferSlab.sizeClass(16_384));
+        // Fits a TLS record
+        assertEquals(DirectBufferSlab.RECORD_SIZE_CLASS,
+            DirectBufferSlab.sizeClass(16_709));
+        assertEquals(32_768, DirectBufferSlab.sizeClass(
+            DirectBufferSlab.RECORD_SIZE_CLASS + 1));
+        assertEquals(32_768, DirectBufferSlab.sizeClass(32_768));
+        assertEquals(65_536, DirectBufferSlab.sizeClass(32_769));
+        assertEquals(-1, DirectBufferSlab.sizeClass(
+            DirectBufferSlab.MAX_SIZE_CLASS + 1));
+    }
+
+    @Test
+    public void testRecycle() {
+        DirectBufferSlab slab = new DirectBufferSlab(64 * 1024);
+        ByteBuffer first = slab.allocate(4000);
+        assertTrue(first.isDirect());
+        assertEquals(4096, first.capacity());
+        assertEquals(64 * 1024, slab.reserved());
+        assertEquals(4096, slab.inUse());
+        first.putInt(42);
+        slab.release(first);
+        assertEquals(0, slab.inUse());
+        // Allocate all buffers from the chunk, no new chunk needed
+        for (int i = 0; i < 16; i++) {
+            ByteBuffer buffer = slab.allocate(4096);
+            assertEquals(0, buffer.position());
+            assertEquals(4096, buffer.limit());
+        }
+        assertEquals(64 * 1024, slab.reserved());
+        slab.allocate(4096);
+        assertEquals(128 * 1024, slab.reserved());
+    }
+
+    @Test
+    public void testQuota() {
+        DirectBufferSlab slab = new DirectBufferSlab(64 * 1024);
+        DirectBufferSlab.Quota quota = slab.newQuota(8192);
+        ByteBuffer first = quota.allocate(4096);
+        ByteBuffer second = quota.allocate(4096);
+        assertTrue(first.isDirect() && second.isDirect());
+        ByteBuffer third = quota.allocate(4096);
+        assertFalse(third.isDirect());
+        assertEquals(8192, quota.used());
+        quota.release(third);
+        quota.release(first);
+        assertEquals(4096, quota.used());
+        assertTrue(quota.allocate(4096).isDirect());
+    }
+
+    @Test
+    public void testPoolRelease() throws InterruptedException {
+        DirectBufferSlab slab = new DirectBufferSlab(64 * 1024);
+        DirectBufferSlab.Quota quota = slab.newQuota(0);
+        var pool = new ManagedBufferPool<>(ManagedBuffer::new,
+            () -> quota.allocate(4096), 1, 2)
+                .setBufferReleaser(quota::release);
+        var first = pool.acquire();
+        var second = pool.acquire();
+        assertEquals(8192, slab.inUse());
+        first.unlockBuffer();
+        second.unlockBuffer();
+        // One is kept in the pool, the other returned to the slab
+        assertEquals(4096, slab.inUse());
+        assertEquals(4096, quota.used());
+    }
+}
@@ -0,0 +1,94 @@
+package org.jgrapes.io.test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.channels.SelectionKey;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import org.jgrapes.core.Channel;
+import org.jgrapes.core.Component;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.events.Stop;
+import org.jgrapes.io.NioDispatcher;
+import org.jgrapes.io.NioHandler;
+import org.jgrapes.io.events.NioRegistration;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Measures the throughput of interest ops changes made by a thread
+ * other than the selector's thread.
+ */
+public class InterestFlipTests {
+
+    private static final int FLIPS = 1_000_000;
+
+    public static class App extends Component {
+    }
+
+    private long wakeups(NioDispatcher dispatcher) throws Exception {
+        ObjectName name = new ObjectName("org.jgrapes.io:type="
+            + NioDispatcher.class.getSimpleName() + ",name="
+            + ObjectName.quote(Components.objectName(dispatcher)));
+        TabularData selectors = (TabularData) ManagementFactory
+            .getPlatformMBeanServer().getAttribute(name, "Selectors");
+        long result = 0;
+        for (Object row : selectors.values()) {
+            CompositeData info
+                = (CompositeData) ((CompositeData) row).get("value");
+            result += (Long) info.get("wakeups");
+        }
+        return result;
+    }
+
+    @Test
+    public void testFlipThroughput() throws Exception {
+        App app = new App();
+        NioDispatcher dispatcher = app.attach(new NioDispatcher());
+        Components.start(app);
+        Pipe pipe = Pipe.open();
+        Semaphore readable = new Semaphore(0);
+        NioHandler handler = ops -> {
+            if ((ops & SelectionKey.OP_READ) != 0) {
+                readable.release();
+                try {
+                    pipe.source().read(ByteBuffer.allocate(16));
+                } catch (Exception e) {
+                    // Ignored
+                }
+            }
+        };
+        NioRegistration.Registration registration = app.fire(
+            new NioRegistration(handler, pipe.source(), 0, app),
+            Channel.BROADCAST).get();
+
+        long started = System.nanoTime();
+        for (int i = 0; i < FLIPS; i++) {
+            registration.updateInterested(
+                i % 2 == 0 ? SelectionKey.OP_READ : 0);
+        }
+        long nanos = System.nanoTime() - started;
+        long wakeups = wakeups(dispatcher);
+        System.out.println(String.format(
+            "%,d interest flips in %d ms (%,d/s), %d wakeups", FLIPS,
+            nanos / 1_000_000, FLIPS * 1_000_000_000L / Math.max(nanos, 1),
+            wakeups));
+        // Most changes are merged while the selector runs
+        assertTrue(wakeups < FLIPS / 2);
+
+        // Last change must become effective
+        registration.updateInterested(SelectionKey.OP_READ);
+        pipe.sink().write(ByteBuffer.wrap(new byte[] { 1 }));
+        assertTrue(readable.tryAcquire(3, TimeUnit.SECONDS));
+
+        pipe.sink().close();
+        pipe.source().close();
+        Components.manager(app).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        Components.checkAssertions();
+    }
+}
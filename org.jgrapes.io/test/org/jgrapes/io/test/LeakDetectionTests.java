@@ -0,0 +1,96 @@
+package org.jgrapes.io.test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import org.jgrapes.io.util.ManagedBuffer;
+import org.jgrapes.io.util.ManagedBufferPool;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Test;
+
+public class LeakDetectionTests {
+
+    private final List<String> warnings = new ArrayList<>();
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            synchronized (warnings) {
+                warnings.add(record.getMessage());
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @After
+    public void reset() {
+        ManagedBufferPool.setLeakSampling(1);
+        ManagedBufferPool.setLeakTraces(false);
+        Logger.getLogger(ManagedBufferPool.class.getName())
+            .removeHandler(handler);
+    }
+
+    private ManagedBufferPool<ManagedBuffer<ByteBuffer>, ByteBuffer>
+            newPool() {
+        return new ManagedBufferPool<>(ManagedBuffer::new,
+            () -> ByteBuffer.allocate(64), 1);
+    }
+
+    private void leak(ManagedBufferPool<ManagedBuffer<ByteBuffer>,
+            ByteBuffer> pool) throws InterruptedException {
+        ManagedBuffer<ByteBuffer> buffer = pool.acquire();
+        buffer.lockBuffer();
+        buffer.unlockBuffer();
+        // Not unlocked, reference dropped.
+    }
+
+    private ManagedBuffer<ByteBuffer> awaitRecovery(
+            ManagedBufferPool<ManagedBuffer<ByteBuffer>, ByteBuffer> pool)
+            throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            System.gc();
+            ManagedBuffer<ByteBuffer> buffer = pool.tryAcquire();
+            if (buffer != null) {
+                return buffer;
+            }
+            Thread.sleep(20);
+        }
+        return null;
+    }
+
+    @Test
+    public void testTraces() throws InterruptedException {
+        Logger.getLogger(ManagedBufferPool.class.getName())
+            .addHandler(handler);
+        ManagedBufferPool.setLeakTraces(true);
+        var pool = newPool().setName("leaky");
+        leak(pool);
+        assertNotNull(awaitRecovery(pool));
+        assertEquals(1, warnings.size());
+        String report = warnings.get(0);
+        assertTrue(report.startsWith("Orphaned buffer from pool leaky"));
+        assertTrue(report.contains("Created:"));
+        assertTrue(report.contains("Last lockBuffer:"));
+        assertTrue(report.contains("Last unlockBuffer:"));
+        assertTrue(report.contains("LeakDetectionTests.leak"));
+    }
+
+    @Test
+    public void testNoTracking() throws InterruptedException {
+        ManagedBufferPool.setLeakSampling(0);
+        var pool = newPool();
+        leak(pool);
+        // Not tracked, so not recovered
+        assertNull(awaitRecovery(pool));
+    }
+}
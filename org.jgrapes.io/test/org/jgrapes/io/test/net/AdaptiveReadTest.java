@@ -0,0 +1,104 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.io.test.net;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jgrapes.core.Channel;
+import org.jgrapes.core.Component;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.annotation.Handler;
+import org.jgrapes.core.events.Stop;
+import org.jgrapes.io.NioDispatcher;
+import org.jgrapes.io.events.Input;
+import org.jgrapes.io.test.WaitForTests;
+import org.jgrapes.net.SocketServer;
+import org.jgrapes.net.events.Ready;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class AdaptiveReadTest {
+
+    public class Consumer extends Component {
+
+        public final AtomicLong received = new AtomicLong();
+        public final AtomicInteger maxCapacity = new AtomicInteger();
+        public volatile int lastCapacity;
+
+        @Handler
+        public void onRead(Input<ByteBuffer> event) {
+            int capacity = event.buffer().capacity();
+            maxCapacity.accumulateAndGet(capacity, Math::max);
+            lastCapacity = capacity;
+            received.addAndGet(event.data().remaining());
+        }
+    }
+
+    private void awaitReceived(Consumer app, long expected)
+            throws InterruptedException {
+        long waitEnd = System.currentTimeMillis() + 5000;
+        while (app.received.get() < expected
+            && System.currentTimeMillis() < waitEnd) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, app.received.get());
+    }
+
+    @Test
+    public void testGrowAndShrink() throws Exception {
+        Consumer app = new Consumer();
+        app.attach(new SocketServer(app).setBufferSize(4096)
+            .setAdaptiveReadBufferSize(1024, 65_536));
+        app.attach(new NioDispatcher());
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            app, Ready.class, app.defaultCriterion());
+        Components.start(app);
+        Ready readyEvent = (Ready) wf.get();
+        InetSocketAddress serverAddr = new InetSocketAddress("localhost",
+            ((InetSocketAddress) readyEvent.listenAddress()).getPort());
+
+        try (Socket client = new Socket(serverAddr.getAddress(),
+            serverAddr.getPort())) {
+            OutputStream out = client.getOutputStream();
+
+            // Bulk data makes buffers grow
+            out.write(new byte[2 * 1024 * 1024]);
+            out.flush();
+            awaitReceived(app, 2 * 1024 * 1024);
+            assertEquals(65_536, app.maxCapacity.get());
+
+            // Small messages make buffers shrink
+            for (int i = 0; i < 20; i++) {
+                out.write(new byte[10]);
+                out.flush();
+                Thread.sleep(20);
+            }
+            awaitReceived(app, 2 * 1024 * 1024 + 200);
+            assertEquals(1024, app.lastCapacity);
+        }
+
+        Components.manager(app).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        Components.checkAssertions();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.io.test.net;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.jgrapes.core.Channel;
+import org.jgrapes.core.Component;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.annotation.Handler;
+import org.jgrapes.core.events.Stop;
+import org.jgrapes.io.IOSubchannel;
+import org.jgrapes.io.NioDispatcher;
+import org.jgrapes.io.events.Input;
+import org.jgrapes.io.events.Output;
+import org.jgrapes.io.test.WaitForTests;
+import org.jgrapes.io.util.BufferBudget;
+import org.jgrapes.io.util.ManagedBuffer;
+import org.jgrapes.net.SocketServer;
+import org.jgrapes.net.events.Ready;
+import org.jgrapes.util.events.ConfigurationUpdate;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class BufferBudgetTest {
+
+    public class EchoServer extends Component {
+
+        @Handler
+        public void onRead(Input<ByteBuffer> event, IOSubchannel channel)
+                throws InterruptedException {
+            ManagedBuffer<ByteBuffer> out = channel.byteBufferPool().acquire();
+            out.backingBuffer().put(event.data());
+            channel.respond(Output.fromSink(out, event.isEndOfRecord()));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testPauseAccepts() throws Exception {
+        BufferBudget budget = new BufferBudget(1024 * 1024);
+        EchoServer app = new EchoServer();
+        app.attach(new SocketServer(app).setBufferBudget(budget));
+        app.attach(new NioDispatcher());
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            app, Ready.class, app.defaultCriterion());
+        Components.start(app);
+        Ready readyEvent = (Ready) wf.get();
+        InetSocketAddress serverAddr = new InetSocketAddress("localhost",
+            ((InetSocketAddress) readyEvent.listenAddress()).getPort());
+        checkPaused(budget, serverAddr);
+
+        Components.manager(app).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        Components.checkAssertions();
+    }
+
+    @Test(timeout = 10000)
+    public void testReconfigure() throws Exception {
+        EchoServer app = new EchoServer();
+        SocketServer server = app.attach(new SocketServer(app));
+        app.attach(new NioDispatcher());
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            app, Ready.class, app.defaultCriterion());
+        Components.start(app);
+        Ready readyEvent = (Ready) wf.get();
+        InetSocketAddress serverAddr = new InetSocketAddress("localhost",
+            ((InetSocketAddress) readyEvent.listenAddress()).getPort());
+        Components.manager(app).fire(new ConfigurationUpdate()
+            .add(server.componentPath(), "bufferBudget", "2097152"),
+            Channel.BROADCAST).get();
+        BufferBudget budget = server.bufferBudget();
+        assertEquals(2 * 1024 * 1024, budget.limit());
+        // Updates change the limit of the server's budget
+        Components.manager(app).fire(new ConfigurationUpdate()
+            .add(server.componentPath(), "bufferBudget", "1048576"),
+            Channel.BROADCAST).get();
+        assertSame(budget, server.bufferBudget());
+        assertEquals(1024 * 1024, budget.limit());
+        checkPaused(budget, serverAddr);
+
+        Components.manager(app).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        Components.checkAssertions();
+    }
+
+    private void checkPaused(BufferBudget budget,
+            InetSocketAddress serverAddr) throws Exception {
+        // Simulate buffers used by other connections
+        assertTrue(budget.reserve(1000 * 1024));
+        assertTrue(budget.isLow());
+        try (Socket client = new Socket(serverAddr.getAddress(),
+            serverAddr.getPort())) {
+            client.setSoTimeout(300);
+            OutputStream out = client.getOutputStream();
+            out.write("Hello\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            BufferedReader in = new BufferedReader(new InputStreamReader(
+                client.getInputStream(), StandardCharsets.US_ASCII));
+            try {
+                in.readLine();
+                fail();
+            } catch (SocketTimeoutException e) {
+                // Not accepted
+            }
+            budget.release(1000 * 1024);
+            assertFalse(budget.isLow());
+            client.setSoTimeout(3000);
+            assertEquals("Hello", in.readLine());
+        }
+    }
+}
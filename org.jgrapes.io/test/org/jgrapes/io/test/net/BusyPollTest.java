@@ -0,0 +1,104 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.io.test.net;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import org.jgrapes.core.Channel;
+import org.jgrapes.core.Component;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.annotation.Handler;
+import org.jgrapes.core.events.Stop;
+import org.jgrapes.io.IOSubchannel;
+import org.jgrapes.io.NioDispatcher;
+import org.jgrapes.io.events.Input;
+import org.jgrapes.io.events.Output;
+import org.jgrapes.io.test.WaitForTests;
+import org.jgrapes.io.util.ManagedBuffer;
+import org.jgrapes.net.SocketServer;
+import org.jgrapes.net.events.Ready;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class BusyPollTest {
+
+    public class EchoServer extends Component {
+
+        @Handler
+        public void onRead(Input<ByteBuffer> event, IOSubchannel channel)
+                throws InterruptedException {
+            ManagedBuffer<ByteBuffer> out = channel.byteBufferPool().acquire();
+            out.backingBuffer().put(event.data());
+            channel.respond(Output.fromSink(out, event.isEndOfRecord()));
+        }
+    }
+
+    @Test
+    public void testBusyPoll() throws Exception {
+        EchoServer app = new EchoServer();
+        app.attach(new SocketServer(app));
+        NioDispatcher dispatcher = app.attach(
+            new NioDispatcher().setBusyPoll(Duration.ofMillis(5)));
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            app, Ready.class, app.defaultCriterion());
+        Components.start(app);
+        Ready readyEvent = (Ready) wf.get();
+        InetSocketAddress serverAddr = new InetSocketAddress("localhost",
+            ((InetSocketAddress) readyEvent.listenAddress()).getPort());
+        try (Socket client = new Socket(serverAddr.getAddress(),
+            serverAddr.getPort())) {
+            OutputStream out = client.getOutputStream();
+            BufferedReader in = new BufferedReader(new InputStreamReader(
+                client.getInputStream(), StandardCharsets.US_ASCII));
+            for (int i = 0; i < 100; i++) {
+                out.write(("Hello " + i + "\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                assertEquals("Hello " + i, in.readLine());
+            }
+        }
+
+        // Requests have been found by polling
+        ObjectName name = new ObjectName("org.jgrapes.io:type="
+            + NioDispatcher.class.getSimpleName() + ",name="
+            + ObjectName.quote(Components.objectName(dispatcher)));
+        assertEquals(5000L, ManagementFactory.getPlatformMBeanServer()
+            .getAttribute(name, "BusyPollTime"));
+        TabularData selectors = (TabularData) ManagementFactory
+            .getPlatformMBeanServer().getAttribute(name, "Selectors");
+        CompositeData info = (CompositeData) ((CompositeData) selectors
+            .values().iterator().next()).get("value");
+        assertTrue((Long) info.get("polls") > 0);
+        assertTrue((Double) info.get("pollHitRatio") > 0);
+
+        Components.manager(app).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        Components.checkAssertions();
+    }
+}
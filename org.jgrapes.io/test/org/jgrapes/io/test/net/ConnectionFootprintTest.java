@@ -0,0 +1,163 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.io.test.net;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jgrapes.core.Channel;
+import org.jgrapes.core.Component;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.annotation.Handler;
+import org.jgrapes.core.events.Stop;
+import org.jgrapes.io.NioDispatcher;
+import org.jgrapes.io.events.Closed;
+import org.jgrapes.io.test.WaitForTests;
+import org.jgrapes.net.SocketServer;
+import org.jgrapes.net.events.Accepted;
+import org.jgrapes.net.events.Ready;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Measures the heap used by idle connections. The objects of the
+ * JDK's socket implementation (on both ends) are measured separately
+ * and subtracted. Heap usage measured after garbage collection is
+ * noisy, so the results are mainly reported and only checked against
+ * a loose limit.
+ * The number of connections is kept low enough for the common limit
+ * of 4096 file descriptors (each connection uses two).
+ */
+public class ConnectionFootprintTest {
+
+    private static final int CONNECTIONS = 500;
+    private static final int ROUNDS = 3;
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    public class App extends Component {
+
+        public final AtomicInteger accepted = new AtomicInteger();
+        public final AtomicInteger closed = new AtomicInteger();
+
+        @Handler
+        public void onAccepted(Accepted event) {
+            accepted.incrementAndGet();
+        }
+
+        @Handler
+        public void onClosed(Closed<?> event) {
+            closed.incrementAndGet();
+        }
+    }
+
+    private long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private void close(List<SocketChannel> channels) throws Exception {
+        for (SocketChannel channel : channels) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Accepts connections with plain NIO and registers them with
+     * a selector, as the framework does.
+     *
+     * @return the bytes per connection
+     */
+    private long jdkFootprint() throws Exception {
+        List<SocketChannel> channels = new ArrayList<>();
+        try (ServerSocketChannel server = ServerSocketChannel.open();
+                Selector selector = Selector.open()) {
+            server.bind(new InetSocketAddress("localhost", 0));
+            long used = 0;
+            // First round warms up
+            for (int round = 0; round < ROUNDS; round++) {
+                long before = usedHeap();
+                for (int i = 0; i < CONNECTIONS; i++) {
+                    channels.add(SocketChannel.open(server.getLocalAddress()));
+                    SocketChannel channel = server.accept();
+                    channel.configureBlocking(false);
+                    channel.register(selector, SelectionKey.OP_READ);
+                    channels.add(channel);
+                }
+                used = usedHeap() - before;
+            }
+            return used / CONNECTIONS;
+        } finally {
+            close(channels);
+        }
+    }
+
+    private long serverFootprint(int sharedPipelines) throws Exception {
+        App app = new App();
+        app.attach(new SocketServer(app).setSharedPipelines(sharedPipelines)
+            .setServerAddress(new InetSocketAddress("localhost", 0)));
+        app.attach(new NioDispatcher());
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            app, Ready.class, app.defaultCriterion());
+        Components.start(app);
+        InetSocketAddress address
+            = (InetSocketAddress) ((Ready) wf.get()).listenAddress();
+        List<SocketChannel> clients = new ArrayList<>();
+        long used = 0;
+        // First round warms up (e.g. creates the threads)
+        for (int round = 1; round <= ROUNDS; round++) {
+            long before = usedHeap();
+            for (int i = 0; i < CONNECTIONS; i++) {
+                clients.add(SocketChannel.open(address));
+            }
+            while (app.accepted.get() < round * CONNECTIONS) {
+                Thread.sleep(10);
+            }
+            used = usedHeap() - before;
+        }
+        close(clients);
+        while (app.closed.get() < ROUNDS * CONNECTIONS) {
+            Thread.sleep(10);
+        }
+        Components.manager(app).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(10000));
+        Components.checkAssertions();
+        return used / CONNECTIONS;
+    }
+
+    @Test(timeout = 60000)
+    public void testFootprint() throws Exception {
+        long jdk = jdkFootprint();
+        long dedicated = serverFootprint(0) - jdk;
+        long shared = serverFootprint(4) - jdk;
+        System.out.println(String.format("Idle connection: %,d bytes (JDK),"
+            + " %,d bytes (dedicated pipelines), %,d bytes (shared pipelines)",
+            jdk, dedicated, shared));
+        assertTrue(shared < 1024);
+    }
+}
@@ -26,11 +26,16 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.lang.management.ManagementFactory;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
 import java.net.UnixDomainSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.security.KeyManagementException;
@@ -42,6 +47,9 @@ import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
 import org.jgrapes.core.Channel;
@@ -277,7 +285,90 @@ public class EchoTest3 {
             break;
         }
         Components.checkAssertions();
+        // Socket file has been removed
+        assertFalse(Files.exists(udsPath));
+    }
+
+    @Test
+    public void testStaleUdsSocket() throws IOException, InterruptedException,
+            ExecutionException, TimeoutException {
+        var udsPath = Paths.get("/tmp/jgrapes-stale.socket");
+        Files.deleteIfExists(udsPath);
+        var udsAddress = UnixDomainSocketAddress.of(udsPath);
+        // Closing doesn't remove the socket file
+        try (ServerSocketChannel stale
+            = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            stale.bind(udsAddress);
+        }
+        assertTrue(Files.exists(udsPath));
+
+        // Server can nevertheless be started
+        EchoServer srvApp = new EchoServer();
+        srvApp.attach(new SocketServer(srvApp).setServerAddress(udsAddress));
+        srvApp.attach(new NioDispatcher());
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            srvApp, Ready.class, srvApp.defaultCriterion());
+        Components.start(srvApp);
+        assertTrue(wf.get() instanceof Ready);
+
+        Components.manager(srvApp).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        Components.checkAssertions();
+        assertFalse(Files.exists(udsPath));
+    }
+
+    @Test
+    public void testKeepNonSocketFile() throws IOException,
+            InterruptedException {
+        var udsPath = Paths.get("/tmp/jgrapes-regular.socket");
+        Files.write(udsPath, "keep".getBytes(StandardCharsets.US_ASCII));
+
+        // Server cannot bind, but leaves file alone
+        EchoServer srvApp = new EchoServer();
+        srvApp.attach(new SocketServer(srvApp)
+            .setServerAddress(UnixDomainSocketAddress.of(udsPath)));
+        srvApp.attach(new NioDispatcher());
+        Components.start(srvApp);
+        Components.manager(srvApp).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        assertEquals("keep", new String(Files.readAllBytes(udsPath),
+            StandardCharsets.US_ASCII));
+        Files.delete(udsPath);
+    }
+
+    @Test(timeout = 10000)
+    public void testUdsChannelInfo() throws Exception {
+        var udsPath = Paths.get("/tmp/jgrapes-info.socket");
         Files.deleteIfExists(udsPath);
+        var udsAddress = UnixDomainSocketAddress.of(udsPath);
+        EchoServer srvApp = new EchoServer();
+        srvApp.attach(new SocketServer(srvApp).setServerAddress(udsAddress));
+        srvApp.attach(new NioDispatcher());
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            srvApp, Ready.class, srvApp.defaultCriterion());
+        Components.start(srvApp);
+        wf.get();
+
+        // Connections have the same (unnamed) remote address
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        ObjectName serverName = mbs.queryNames(new ObjectName(
+            "org.jgrapes.io:type=SocketServer,*"), null).stream()
+            .filter(name -> name.getKeyProperty("name")
+                .contains(udsPath.toString()))
+            .findFirst().get();
+        try (SocketChannel first = SocketChannel.open(udsAddress);
+                SocketChannel second = SocketChannel.open(udsAddress)) {
+            while ((int) mbs.getAttribute(serverName, "ChannelCount") < 2) {
+                Thread.sleep(10);
+            }
+            TabularData channels
+                = (TabularData) mbs.getAttribute(serverName, "Channels");
+            assertEquals(2, channels.size());
+        }
+
+        Components.manager(srvApp).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        Components.checkAssertions();
     }
 
     @Test
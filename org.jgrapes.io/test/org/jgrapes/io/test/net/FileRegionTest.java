@@ -0,0 +1,234 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.io.test.net;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Random;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import org.jgrapes.core.Channel;
+import org.jgrapes.core.Component;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.annotation.Handler;
+import org.jgrapes.core.events.Stop;
+import org.jgrapes.io.IOSubchannel;
+import org.jgrapes.io.NioDispatcher;
+import org.jgrapes.io.events.Close;
+import org.jgrapes.io.events.FileRegion;
+import org.jgrapes.io.events.Input;
+import org.jgrapes.io.test.WaitForTests;
+import org.jgrapes.net.SocketServer;
+import org.jgrapes.net.SslCodec;
+import org.jgrapes.net.events.Ready;
+import static org.junit.Assert.*;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class FileRegionTest {
+
+    private static Path file;
+    private static byte[] content;
+
+    /**
+     * Sends the file when the client has sent something.
+     */
+    public class FileServer extends Component {
+
+        private final Path source;
+        public volatile FileRegion region;
+
+        public FileServer() {
+            this(file);
+        }
+
+        public FileServer(Path source) {
+            this.source = source;
+        }
+
+        @Handler
+        public void onInput(Input<ByteBuffer> event, IOSubchannel channel)
+                throws IOException {
+            assertTrue(event.buffer().backingBuffer().isDirect());
+            region = FileRegion.of(source, true);
+            channel.respond(region);
+            channel.respond(new Close());
+        }
+    }
+
+    @BeforeClass
+    public static void createFile() throws IOException {
+        content = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(content);
+        file = Files.createTempFile("jgrapes", ".bin");
+        Files.write(file, content);
+    }
+
+    @AfterClass
+    public static void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        in.transferTo(data);
+        return data.toByteArray();
+    }
+
+    private void stop(Component app) throws InterruptedException {
+        Components.manager(app).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        Components.checkAssertions();
+    }
+
+    @Test(timeout = 10000)
+    public void testTcp() throws Exception {
+        FileServer app = new FileServer();
+        app.attach(new SocketServer(app));
+        app.attach(new NioDispatcher());
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            app, Ready.class, app.defaultCriterion());
+        Components.start(app);
+        Ready readyEvent = (Ready) wf.get();
+        try (Socket client = new Socket("localhost",
+            ((InetSocketAddress) readyEvent.listenAddress()).getPort())) {
+            client.getOutputStream().write("GET\n".getBytes("ascii"));
+            client.getOutputStream().flush();
+            assertTrue(Arrays.equals(content,
+                readAll(client.getInputStream())));
+        }
+        stop(app);
+    }
+
+    @Test(timeout = 20000)
+    public void testClientAborts() throws Exception {
+        // Too large to fit in the socket buffers
+        Path large = Files.createTempFile("jgrapes", ".bin");
+        try (RandomAccessFile data
+            = new RandomAccessFile(large.toFile(), "rw")) {
+            data.setLength(256 * 1024 * 1024);
+        }
+        try {
+            FileServer app = new FileServer(large);
+            app.attach(new SocketServer(app));
+            app.attach(new NioDispatcher());
+            WaitForTests<Ready> wf = new WaitForTests<>(
+                app, Ready.class, app.defaultCriterion());
+            Components.start(app);
+            Ready readyEvent = (Ready) wf.get();
+            try (Socket client = new Socket()) {
+                client.setReceiveBufferSize(4096);
+                client.connect(new InetSocketAddress("localhost",
+                    ((InetSocketAddress) readyEvent.listenAddress())
+                        .getPort()));
+                client.getOutputStream().write("GET\n".getBytes("ascii"));
+                client.getOutputStream().flush();
+                assertTrue(client.getInputStream().read() >= 0);
+                // Reset connection while the transfer is pending
+                client.setSoLinger(true, 0);
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while ((app.region == null || app.region.file().isOpen())
+                && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            stop(app);
+            assertFalse(app.region.file().isOpen());
+        } finally {
+            Files.deleteIfExists(large);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testSsl() throws Exception {
+        runSsl(new SocketServer());
+    }
+
+    @Test(timeout = 10000)
+    public void testSslSmallBuffers() throws Exception {
+        // Buffers too small for a TLS record
+        runSsl(new SocketServer().setBufferSize(4096));
+    }
+
+    private void runSsl(SocketServer securedNetwork) throws Exception {
+        FileServer app = new FileServer();
+        app.attach(new NioDispatcher());
+        KeyStore serverStore = KeyStore.getInstance("JKS");
+        try (FileInputStream kf
+            = new FileInputStream("test-resources/localhost.jks")) {
+            serverStore.load(kf, "nopass".toCharArray());
+        }
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(
+            KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(serverStore, "nopass".toCharArray());
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(kmf.getKeyManagers(), null, new SecureRandom());
+        app.attach(securedNetwork);
+        app.attach(new SslCodec(app, securedNetwork, sslContext));
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            securedNetwork, Ready.class, securedNetwork.defaultCriterion());
+        Components.start(app);
+        Ready readyEvent = (Ready) wf.get();
+
+        TrustManager[] trustAllCerts = new TrustManager[] {
+            new X509TrustManager() {
+                public X509Certificate[] getAcceptedIssuers() {
+                    return null;
+                }
+
+                public void checkClientTrusted(
+                        X509Certificate[] certs, String authType) {
+                }
+
+                public void checkServerTrusted(
+                        X509Certificate[] certs, String authType) {
+                }
+            }
+        };
+        SSLContext clientContext = SSLContext.getInstance("TLS");
+        clientContext.init(null, trustAllCerts, null);
+        try (SSLSocket client = (SSLSocket) clientContext.getSocketFactory()
+            .createSocket("localhost",
+                ((InetSocketAddress) readyEvent.listenAddress()).getPort())) {
+            client.startHandshake();
+            client.getOutputStream().write("GET\n".getBytes("ascii"));
+            client.getOutputStream().flush();
+            assertTrue(Arrays.equals(content,
+                readAll(client.getInputStream())));
+        }
+        stop(app);
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.io.test.net;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.jgrapes.core.Channel;
+import org.jgrapes.core.Component;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.annotation.Handler;
+import org.jgrapes.core.events.Stop;
+import org.jgrapes.io.IOSubchannel;
+import org.jgrapes.io.NioDispatcher;
+import org.jgrapes.io.events.Input;
+import org.jgrapes.io.events.Output;
+import org.jgrapes.io.test.WaitForTests;
+import org.jgrapes.net.SocketServer;
+import org.jgrapes.net.events.Ready;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Sends many small outputs to a client that reads slowly, so that
+ * the outputs queue up and are written with gathering writes.
+ */
+public class GatheringWriteTest {
+
+    private static final int LINES = 20_000;
+    private static final String PADDING = "x".repeat(1000);
+
+    public class Producer extends Component {
+
+        @Handler
+        public void onRead(Input<ByteBuffer> event, IOSubchannel channel) {
+            for (int i = 0; i < LINES; i++) {
+                channel.respond(Output.from(("Line " + i + PADDING + "\n")
+                    .getBytes(StandardCharsets.US_ASCII), false));
+            }
+        }
+    }
+
+    @Test
+    public void testManySmallOutputs() throws Exception {
+        Producer app = new Producer();
+        app.attach(new SocketServer(app));
+        app.attach(new NioDispatcher());
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            app, Ready.class, app.defaultCriterion());
+        Components.start(app);
+        Ready readyEvent = (Ready) wf.get();
+        InetSocketAddress serverAddr = new InetSocketAddress("localhost",
+            ((InetSocketAddress) readyEvent.listenAddress()).getPort());
+
+        try (Socket client = new Socket()) {
+            client.setReceiveBufferSize(8192);
+            client.connect(serverAddr);
+            client.getOutputStream().write(
+                "Go\n".getBytes(StandardCharsets.US_ASCII));
+            client.getOutputStream().flush();
+            // Let output queue up
+            Thread.sleep(500);
+            client.setSoTimeout(10_000);
+            BufferedReader in = new BufferedReader(new InputStreamReader(
+                client.getInputStream(), StandardCharsets.US_ASCII));
+            for (int i = 0; i < LINES; i++) {
+                assertEquals("Line " + i + PADDING, in.readLine());
+            }
+        }
+
+        Components.manager(app).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        Components.checkAssertions();
+    }
+}
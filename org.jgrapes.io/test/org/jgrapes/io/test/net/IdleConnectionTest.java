@@ -0,0 +1,173 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.io.test.net;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jgrapes.core.Channel;
+import org.jgrapes.core.Component;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.annotation.Handler;
+import org.jgrapes.core.events.Stop;
+import org.jgrapes.io.IOSubchannel;
+import org.jgrapes.io.NioDispatcher;
+import org.jgrapes.io.events.Close;
+import org.jgrapes.io.events.Input;
+import org.jgrapes.io.events.Output;
+import org.jgrapes.io.events.Purge;
+import org.jgrapes.io.test.WaitForTests;
+import org.jgrapes.io.util.ManagedBuffer;
+import org.jgrapes.io.util.PermitsPool;
+import org.jgrapes.net.SocketServer;
+import org.jgrapes.net.events.Ready;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class IdleConnectionTest {
+
+    /**
+     * Echoes the input, each response completes a record, i.e.
+     * makes the connection purgeable.
+     */
+    public class EchoServer extends Component {
+
+        public boolean ignorePurge;
+        public AtomicInteger purges = new AtomicInteger();
+
+        @Handler
+        public void onRead(Input<ByteBuffer> event, IOSubchannel channel)
+                throws InterruptedException {
+            ManagedBuffer<ByteBuffer> out = channel.byteBufferPool().acquire();
+            out.backingBuffer().put(event.data());
+            channel.respond(Output.fromSink(out, true));
+        }
+
+        @Handler
+        public void onPurge(Purge event, IOSubchannel channel) {
+            purges.incrementAndGet();
+            if (!ignorePurge) {
+                channel.respond(new Close());
+            }
+        }
+    }
+
+    private InetSocketAddress start(EchoServer app, SocketServer server)
+            throws Exception {
+        app.attach(server);
+        app.attach(new NioDispatcher());
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            app, Ready.class, app.defaultCriterion());
+        Components.start(app);
+        Ready readyEvent = (Ready) wf.get();
+        return new InetSocketAddress("localhost",
+            ((InetSocketAddress) readyEvent.listenAddress()).getPort());
+    }
+
+    private BufferedReader echo(Socket client, String line)
+            throws Exception {
+        OutputStream out = client.getOutputStream();
+        out.write((line + "\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        BufferedReader in = new BufferedReader(new InputStreamReader(
+            client.getInputStream(), StandardCharsets.US_ASCII));
+        assertEquals(line, in.readLine());
+        return in;
+    }
+
+    private void stop(EchoServer app) throws InterruptedException {
+        Components.manager(app).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        Components.checkAssertions();
+    }
+
+    @Test(timeout = 10000)
+    public void testIdleTimeout() throws Exception {
+        EchoServer app = new EchoServer();
+        InetSocketAddress serverAddr = start(app,
+            new SocketServer(app).setIdleTimeout(600));
+        try (Socket client = new Socket(serverAddr.getAddress(),
+            serverAddr.getPort())) {
+            BufferedReader in = echo(client, "Hello");
+            client.setSoTimeout(200);
+            try {
+                in.readLine();
+                fail();
+            } catch (SocketTimeoutException e) {
+                // Not closed yet
+            }
+            // Activity restarts the timeout
+            echo(client, "Again");
+            client.setSoTimeout(3000);
+            long started = System.currentTimeMillis();
+            assertNull(in.readLine());
+            assertTrue(System.currentTimeMillis() - started >= 400);
+        }
+        stop(app);
+    }
+
+    @Test(timeout = 10000)
+    public void testPurge() throws Exception {
+        EchoServer app = new EchoServer();
+        InetSocketAddress serverAddr = start(app, new SocketServer(app)
+            .setConnectionLimiter(new PermitsPool(1)));
+        try (Socket first = new Socket(serverAddr.getAddress(),
+            serverAddr.getPort())) {
+            BufferedReader firstIn = echo(first, "First");
+            first.setSoTimeout(3000);
+            try (Socket second = new Socket(serverAddr.getAddress(),
+                serverAddr.getPort())) {
+                second.setSoTimeout(3000);
+                // First is purged immediately, making room for second
+                assertNull(firstIn.readLine());
+                echo(second, "Second");
+            }
+        }
+        stop(app);
+    }
+
+    @Test(timeout = 10000)
+    public void testIgnoredPurge() throws Exception {
+        EchoServer app = new EchoServer();
+        app.ignorePurge = true;
+        InetSocketAddress serverAddr = start(app, new SocketServer(app)
+            .setConnectionLimiter(new PermitsPool(1)).setIdleTimeout(600));
+        try (Socket first = new Socket(serverAddr.getAddress(),
+            serverAddr.getPort())) {
+            BufferedReader firstIn = echo(first, "First");
+            first.setSoTimeout(3000);
+            try (Socket second = new Socket(serverAddr.getAddress(),
+                serverAddr.getPort())) {
+                second.setSoTimeout(3000);
+                // Purge is ignored, but first is closed when idle
+                assertNull(firstIn.readLine());
+                // Purged once only
+                assertEquals(1, app.purges.get());
+                echo(second, "Second");
+            }
+        }
+        stop(app);
+    }
+}
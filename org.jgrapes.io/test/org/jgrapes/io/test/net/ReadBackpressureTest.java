@@ -0,0 +1,119 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.io.test.net;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.jgrapes.core.Channel;
+import org.jgrapes.core.Component;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.annotation.Handler;
+import org.jgrapes.core.events.Stop;
+import org.jgrapes.io.IOSubchannel;
+import org.jgrapes.io.NioDispatcher;
+import org.jgrapes.io.events.Input;
+import org.jgrapes.io.events.Output;
+import org.jgrapes.io.test.WaitForTests;
+import org.jgrapes.io.util.ManagedBuffer;
+import org.jgrapes.net.SocketServer;
+import org.jgrapes.net.events.Ready;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Checks that a connection whose consumer doesn't keep up doesn't
+ * block the other connections.
+ */
+public class ReadBackpressureTest {
+
+    public class EchoServer extends Component {
+
+        public final CountDownLatch release = new CountDownLatch(1);
+
+        @Handler
+        public void onRead(Input<ByteBuffer> event, IOSubchannel channel)
+                throws InterruptedException {
+            if (event.data().get(0) == 'B') {
+                // Simulate slow consumer
+                release.await(10, TimeUnit.SECONDS);
+            }
+            ManagedBuffer<ByteBuffer> out = channel.byteBufferPool().acquire();
+            out.backingBuffer().put(event.data());
+            channel.respond(Output.fromSink(out, event.isEndOfRecord()));
+        }
+    }
+
+    @Test
+    public void testSlowConsumer() throws Exception {
+        EchoServer app = new EchoServer();
+        app.attach(new SocketServer(app));
+        app.attach(new NioDispatcher());
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            app, Ready.class, app.defaultCriterion());
+        Components.start(app);
+        Ready readyEvent = (Ready) wf.get();
+        InetSocketAddress serverAddr = new InetSocketAddress("localhost",
+            ((InetSocketAddress) readyEvent.listenAddress()).getPort());
+
+        try (Socket slow = new Socket(serverAddr.getAddress(),
+            serverAddr.getPort());
+                Socket fast = new Socket(serverAddr.getAddress(),
+                    serverAddr.getPort())) {
+            // Exhaust the read buffers of the slow connection
+            OutputStream slowOut = slow.getOutputStream();
+            for (int i = 0; i < 5; i++) {
+                slowOut.write(("B" + i + "\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+                slowOut.flush();
+                Thread.sleep(50);
+            }
+
+            // Other connection must not be affected
+            OutputStream fastOut = fast.getOutputStream();
+            fastOut.write("Hello\n".getBytes(StandardCharsets.US_ASCII));
+            fastOut.flush();
+            fast.setSoTimeout(2000);
+            BufferedReader fastIn = new BufferedReader(new InputStreamReader(
+                fast.getInputStream(), StandardCharsets.US_ASCII));
+            assertEquals("Hello", fastIn.readLine());
+
+            // Release slow consumer, all data must arrive
+            app.release.countDown();
+            slow.setSoTimeout(5000);
+            BufferedReader slowIn = new BufferedReader(new InputStreamReader(
+                slow.getInputStream(), StandardCharsets.US_ASCII));
+            StringBuilder received = new StringBuilder();
+            for (int i = 0; i < 5; i++) {
+                received.append(slowIn.readLine());
+            }
+            assertEquals("B0B1B2B3B4", received.toString());
+        }
+
+        Components.manager(app).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        Components.checkAssertions();
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.io.test.net;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jgrapes.core.Channel;
+import org.jgrapes.core.Component;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.annotation.Handler;
+import org.jgrapes.core.events.Stop;
+import org.jgrapes.io.NioDispatcher;
+import org.jgrapes.io.events.Input;
+import org.jgrapes.io.events.Output;
+import org.jgrapes.io.test.WaitForTests;
+import org.jgrapes.net.SocketIOChannel;
+import org.jgrapes.net.SocketServer;
+import org.jgrapes.net.events.Accepted;
+import org.jgrapes.net.events.Ready;
+import org.jgrapes.util.events.ConfigurationUpdate;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class SocketOptionsTest {
+
+    /**
+     * Responds to commands, see {@link SocketOptionsTest#testCork()}.
+     */
+    public class App extends Component {
+
+        public final AtomicReference<SocketIOChannel> accepted
+            = new AtomicReference<>();
+
+        @Handler
+        public void onAccepted(Accepted event, SocketIOChannel channel) {
+            synchronized (accepted) {
+                accepted.set(channel);
+                accepted.notifyAll();
+            }
+        }
+
+        @Handler
+        public void onInput(Input<ByteBuffer> event, SocketIOChannel channel)
+                throws InterruptedException {
+            String command = StandardCharsets.US_ASCII.decode(event.data())
+                .toString().trim();
+            switch (command) {
+            case "cork":
+                channel.setCorked(true);
+                channel.respond(output("a", false));
+                channel.respond(output("b", false));
+                break;
+            case "flush":
+                channel.respond(output("c\n", true));
+                channel.respond(output("d", false));
+                break;
+            case "uncork":
+                channel.setCorked(false);
+                channel.respond(output("\n", false));
+                break;
+            default:
+                break;
+            }
+        }
+
+        private Output<ByteBuffer> output(String data, boolean eor) {
+            return Output.from(data.getBytes(StandardCharsets.US_ASCII), eor);
+        }
+    }
+
+    private InetSocketAddress start(App app, SocketServer server)
+            throws Exception {
+        app.attach(server);
+        app.attach(new NioDispatcher());
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            app, Ready.class, app.defaultCriterion());
+        Components.start(app);
+        Ready readyEvent = (Ready) wf.get();
+        return new InetSocketAddress("localhost",
+            ((InetSocketAddress) readyEvent.listenAddress()).getPort());
+    }
+
+    private void stop(App app) throws InterruptedException {
+        Components.manager(app).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        Components.checkAssertions();
+    }
+
+    @Test(timeout = 10000)
+    public void testConfigureOptions() throws Exception {
+        App app = new App();
+        SocketServer server = new SocketServer(app)
+            .setSocketOption(StandardSocketOptions.TCP_NODELAY, true);
+        InetSocketAddress serverAddr = start(app, server);
+        try (Socket client = new Socket(serverAddr.getAddress(),
+            serverAddr.getPort())) {
+            SocketIOChannel channel;
+            synchronized (app.accepted) {
+                while (app.accepted.get() == null) {
+                    app.accepted.wait();
+                }
+                channel = app.accepted.get();
+            }
+            assertTrue(channel.socketOption(StandardSocketOptions.TCP_NODELAY)
+                .get());
+            // Change for open connection
+            Components.manager(app).fire(new ConfigurationUpdate()
+                .add(server.componentPath(), "tcpNoDelay", "false")
+                .add(server.componentPath(), "keepAlive", "true")
+                .add(server.componentPath(), "linger", "0"),
+                Channel.BROADCAST).get();
+            assertFalse(channel.socketOption(
+                StandardSocketOptions.TCP_NODELAY).get());
+            assertTrue(channel.socketOption(
+                StandardSocketOptions.SO_KEEPALIVE).get());
+            assertEquals(0, (int) channel.socketOption(
+                StandardSocketOptions.SO_LINGER).get());
+            // Linger intervals are not supported
+            try {
+                server.setSocketOption(StandardSocketOptions.SO_LINGER, 5);
+                fail();
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+        stop(app);
+    }
+
+    @Test(timeout = 10000)
+    public void testCork() throws Exception {
+        App app = new App();
+        InetSocketAddress serverAddr = start(app, new SocketServer(app));
+        try (Socket client = new Socket(serverAddr.getAddress(),
+            serverAddr.getPort())) {
+            OutputStream out = client.getOutputStream();
+            BufferedReader in = new BufferedReader(new InputStreamReader(
+                client.getInputStream(), StandardCharsets.US_ASCII));
+            out.write("cork\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            client.setSoTimeout(300);
+            try {
+                in.read();
+                fail();
+            } catch (SocketTimeoutException e) {
+                // Held back
+            }
+            client.setSoTimeout(3000);
+            // End of record writes the held back data
+            out.write("flush\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            assertEquals("abc", in.readLine());
+            // Uncorking writes the held back data
+            out.write("uncork\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            assertEquals("d", in.readLine());
+        }
+        stop(app);
+    }
+}
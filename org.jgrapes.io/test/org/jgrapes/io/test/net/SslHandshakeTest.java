@@ -0,0 +1,387 @@
+/*
+ * JGrapes Event Driven Framework
+ * Copyright (C) 2026 Michael N. Lipp
+ * 
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Affero General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License 
+ * for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jgrapes.io.test.net;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.ProcessBuilder.Redirect;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import org.jgrapes.core.Bulkhead;
+import org.jgrapes.core.Channel;
+import org.jgrapes.core.Component;
+import org.jgrapes.core.Components;
+import org.jgrapes.core.annotation.Handler;
+import org.jgrapes.core.events.Stop;
+import org.jgrapes.io.IOSubchannel;
+import org.jgrapes.io.NioDispatcher;
+import org.jgrapes.io.events.Input;
+import org.jgrapes.io.events.OpenSocketConnection;
+import org.jgrapes.io.events.Output;
+import org.jgrapes.io.test.WaitForTests;
+import org.jgrapes.io.util.DirectBufferSlab;
+import org.jgrapes.io.util.ManagedBuffer;
+import org.jgrapes.io.util.ManagedBufferPool;
+import org.jgrapes.net.SocketConnector;
+import org.jgrapes.net.SocketServer;
+import org.jgrapes.net.SslCodec;
+import org.jgrapes.net.events.ClientConnected;
+import org.jgrapes.net.events.Ready;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+import org.junit.Test;
+
+public class SslHandshakeTest {
+
+    public class EchoServer extends Component {
+
+        @Handler
+        public void onRead(Input<ByteBuffer> event, IOSubchannel channel)
+                throws InterruptedException {
+            ManagedBuffer<ByteBuffer> out = channel.byteBufferPool().acquire();
+            out.backingBuffer().put(event.data());
+            channel.respond(Output.fromSink(out, event.isEndOfRecord()));
+        }
+    }
+
+    private SSLContext serverContext() throws Exception {
+        KeyStore serverStore = KeyStore.getInstance("JKS");
+        try (FileInputStream kf
+            = new FileInputStream("test-resources/localhost.jks")) {
+            serverStore.load(kf, "nopass".toCharArray());
+        }
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(
+            KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(serverStore, "nopass".toCharArray());
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(kmf.getKeyManagers(), null, new SecureRandom());
+        return sslContext;
+    }
+
+    private SSLContext clientContext() throws Exception {
+        TrustManager[] trustAllCerts = new TrustManager[] {
+            new X509TrustManager() {
+                public X509Certificate[] getAcceptedIssuers() {
+                    return null;
+                }
+
+                public void checkClientTrusted(
+                        X509Certificate[] certs, String authType) {
+                }
+
+                public void checkServerTrusted(
+                        X509Certificate[] certs, String authType) {
+                }
+            }
+        };
+        SSLContext clientContext = SSLContext.getInstance("TLS");
+        clientContext.init(null, trustAllCerts, null);
+        return clientContext;
+    }
+
+    private String echo(SSLContext clientContext, int port, String msg)
+            throws Exception {
+        try (SSLSocket client = (SSLSocket) clientContext
+            .getSocketFactory().createSocket("localhost", port)) {
+            client.startHandshake();
+            OutputStream out = client.getOutputStream();
+            out.write((msg + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return new BufferedReader(new InputStreamReader(
+                client.getInputStream(), StandardCharsets.US_ASCII))
+                    .readLine();
+        }
+    }
+
+    @Test
+    public void testHandshakeThroughput() throws Exception {
+        EchoServer app = new EchoServer();
+        app.attach(new NioDispatcher());
+        SocketServer securedNetwork = app.attach(new SocketServer());
+        SslCodec codec = app.attach(new SslCodec(app, securedNetwork,
+            serverContext()).setSessionCacheSize(1000).setSessionTimeout(60));
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            securedNetwork, Ready.class, securedNetwork.defaultCriterion());
+        Components.start(app);
+        Ready readyEvent = (Ready) wf.get();
+        int port = ((InetSocketAddress) readyEvent.listenAddress()).getPort();
+        final int connections = 100;
+
+        // New client context each time, no resumption possible
+        long started = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            assertEquals("Full " + i, echo(clientContext(), port, "Full " + i));
+        }
+        long fullNanos = System.nanoTime() - started;
+        assertTrue(codec.fullHandshakes() >= connections);
+        assertEquals(0, codec.resumedHandshakes());
+
+        // Same client context, sessions are resumed
+        SSLContext clientContext = clientContext();
+        echo(clientContext, port, "Initial");
+        started = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            assertEquals("Resumed " + i,
+                echo(clientContext, port, "Resumed " + i));
+        }
+        long resumedNanos = System.nanoTime() - started;
+        assertTrue(codec.resumedHandshakes() > 0);
+        System.out.println(String.format("%d full handshakes: %.0f/s, "
+            + "%d resumed handshakes (of %d): %.0f/s", connections,
+            connections * 1e9 / fullNanos, codec.resumedHandshakes(),
+            connections, connections * 1e9 / resumedNanos));
+
+        Components.manager(app).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        Components.checkAssertions();
+    }
+
+    @Test
+    public void testConcurrentHandshakes() throws Exception {
+        Bulkhead bulkhead = Bulkhead.define("SslHandshakeTest", 2, 100);
+        EchoServer app = new EchoServer();
+        app.attach(new NioDispatcher());
+        SocketServer securedNetwork = app.attach(new SocketServer());
+        app.attach(new SslCodec(app, securedNetwork, serverContext())
+            .setTaskBulkhead(bulkhead));
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            securedNetwork, Ready.class, securedNetwork.defaultCriterion());
+        Components.start(app);
+        Ready readyEvent = (Ready) wf.get();
+        int port = ((InetSocketAddress) readyEvent.listenAddress()).getPort();
+
+        // Several clients connecting at the same time
+        SSLContext clientContext = clientContext();
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            final int clientNo = i;
+            results.add(clients.submit(() -> {
+                try (SSLSocket client = (SSLSocket) clientContext
+                    .getSocketFactory().createSocket("localhost", port)) {
+                    client.startHandshake();
+                    OutputStream out = client.getOutputStream();
+                    out.write(("Hello " + clientNo + "\n")
+                        .getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                    return new BufferedReader(new InputStreamReader(
+                        client.getInputStream(), StandardCharsets.US_ASCII))
+                            .readLine();
+                }
+            }));
+        }
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals("Hello " + i,
+                results.get(i).get(10, TimeUnit.SECONDS));
+        }
+        clients.shutdown();
+
+        // Delegated tasks have been run by the bulkhead
+        assertTrue(bulkhead.completed() > 0);
+
+        Components.manager(app).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        Components.checkAssertions();
+    }
+
+    @Test(timeout = 20000)
+    public void testDirectMemory() throws Exception {
+        EchoServer app = new EchoServer();
+        app.attach(new NioDispatcher());
+        SocketServer securedNetwork
+            = app.attach(new SocketServer().setBufferSize(4096));
+        app.attach(new SslCodec(app, securedNetwork, serverContext()));
+        WaitForTests<Ready> wf = new WaitForTests<>(
+            securedNetwork, Ready.class, securedNetwork.defaultCriterion());
+        Components.start(app);
+        Ready readyEvent = (Ready) wf.get();
+        int port = ((InetSocketAddress) readyEvent.listenAddress()).getPort();
+
+        // Keep connections open after the first exchange
+        SSLContext clientContext = clientContext();
+        final int connections = 20;
+        List<SSLSocket> clients = new ArrayList<>();
+        echo(clientContext, port, "Warm up");
+        // Wait until the buffers of idle pools have been released
+        long before = -1;
+        while (before != DirectBufferSlab.global().inUse()) {
+            before = DirectBufferSlab.global().inUse();
+            Thread.sleep(ManagedBufferPool.defaultDrainDelay());
+        }
+        for (int i = 0; i < connections; i++) {
+            SSLSocket client = (SSLSocket) clientContext
+                .getSocketFactory().createSocket("localhost", port);
+            clients.add(client);
+            client.getOutputStream().write(
+                "Hello\n".getBytes(StandardCharsets.US_ASCII));
+            assertEquals("Hello", new BufferedReader(new InputStreamReader(
+                client.getInputStream(), StandardCharsets.US_ASCII))
+                    .readLine());
+        }
+        long perConnection
+            = (DirectBufferSlab.global().inUse() - before) / connections;
+        System.out.println(String.format(
+            "Direct memory per TLS connection: %,d bytes", perConnection));
+        for (SSLSocket client : clients) {
+            client.close();
+        }
+        // Read buffer, buffer for output and up to two buffers for
+        // unwrapped records (plus some tolerance)
+        assertTrue(perConnection < 4096 + 16_384
+            + 2 * DirectBufferSlab.RECORD_SIZE_CLASS + 4096);
+
+        Components.manager(app).fire(new Stop(), Channel.BROADCAST);
+        assertTrue(Components.awaitExhaustion(3000));
+        Components.checkAssertions();
+    }
+
+    /**
+     * Fetches a file and records the response.
+     */
+    public class FetchApp extends Component {
+
+        public final ByteArrayOutputStream received
+            = new ByteArrayOutputStream();
+        public final CountDownLatch complete = new CountDownLatch(1);
+        private final int expected;
+
+        public FetchApp(int expected) {
+            this.expected = expected;
+        }
+
+        @Handler
+        public void onConnected(ClientConnected event, IOSubchannel channel)
+                throws InterruptedException {
+            channel.respond(Output.from("GET /data HTTP/1.0\r\n\r\n"
+                .getBytes(StandardCharsets.US_ASCII), true));
+        }
+
+        @Handler
+        public void onInput(Input<ByteBuffer> event, IOSubchannel channel)
+                throws IOException {
+            synchronized (received) {
+                Channels.newChannel(received).write(event.data());
+                if (received.size() >= expected) {
+                    complete.countDown();
+                }
+            }
+        }
+    }
+
+    private Process openssl(File dir, String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("openssl");
+        command.addAll(Arrays.asList(args));
+        return new ProcessBuilder(command).directory(dir)
+            .redirectOutput(Redirect.DISCARD)
+            .redirectError(Redirect.DISCARD).start();
+    }
+
+    @Test(timeout = 20000)
+    public void testFullSizeRecords() throws Exception {
+        // JDK peers limit the plain text of a TLS 1.3 record so that
+        // the record including the inner content type and the tag does
+        // not exceed 16 KiB. OpenSSL sends the full 16 KiB of plain text.
+        File dir = Files.createTempDirectory("SslHandshakeTest").toFile();
+        dir.deleteOnExit();
+        Process server;
+        int port;
+        try {
+            Process keyGen = openssl(dir, "req", "-x509", "-newkey", "ec",
+                "-pkeyopt", "ec_paramgen_curve:prime256v1", "-nodes",
+                "-keyout", "key.pem", "-out", "cert.pem",
+                "-subj", "/CN=localhost", "-days", "1");
+            assumeTrue(keyGen.waitFor() == 0);
+            try (ServerSocket probe = new ServerSocket(0)) {
+                port = probe.getLocalPort();
+            }
+            server = openssl(dir, "s_server", "-tls1_3", "-HTTP",
+                "-accept", Integer.toString(port),
+                "-cert", "cert.pem", "-key", "key.pem");
+        } catch (IOException e) {
+            assumeTrue("openssl not available", false);
+            return;
+        }
+        byte[] data = new byte[8 * 16_384];
+        new Random(42).nextBytes(data);
+        File dataFile = new File(dir, "data");
+        Files.write(dataFile.toPath(), data);
+        try {
+            // Wait for server to accept connections
+            while (true) {
+                try {
+                    new Socket("localhost", port).close();
+                    break;
+                } catch (ConnectException e) {
+                    assumeTrue(server.isAlive());
+                    Thread.sleep(50);
+                }
+            }
+
+            FetchApp app = new FetchApp(data.length);
+            app.attach(new NioDispatcher());
+            SocketConnector network = app.attach(new SocketConnector());
+            SslCodec codec = app.attach(new SslCodec(app, network, true));
+            Components.start(app);
+            app.fire(new OpenSocketConnection(
+                new InetSocketAddress("localhost", port)), app);
+            assertTrue(app.complete.await(10, TimeUnit.SECONDS));
+            assertTrue(Arrays.equals(data, app.received.toByteArray()));
+            // All records have been unwrapped into buffers from the pool
+            assertEquals(0, codec.fallbackUnwraps());
+
+            Components.manager(app).fire(new Stop(), Channel.BROADCAST);
+            assertTrue(Components.awaitExhaustion(3000));
+            Components.checkAssertions();
+        } finally {
+            server.destroy();
+            dataFile.delete();
+            new File(dir, "key.pem").delete();
+            new File(dir, "cert.pem").delete();
+        }
+    }
+}